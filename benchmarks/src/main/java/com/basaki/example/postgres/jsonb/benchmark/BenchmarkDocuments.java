@@ -0,0 +1,86 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+
+/**
+ * {@code BenchmarkDocuments} creates the books used by the benchmarks. A book
+ * is padded with text to reach the requested size of its JSON document, so
+ * that suites parameterized by document size exercise the same shape with
+ * more bytes.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public final class BenchmarkDocuments {
+
+    private static final String TEXT = "It was a fine autumn morning when " +
+            "the old schoolhouse on the hill was opened again. ";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkDocuments() {
+    }
+
+    /**
+     * Creates a book whose JSON document has about the given size.
+     *
+     * @param size the size of the JSON document in bytes
+     * @return the book
+     */
+    public static Book book(int size) {
+        Book book = new Book(UUID.randomUUID(), "", Genre.DRAMA,
+                "Scribner's", 5, new Author("Edith", "Wharton"), null);
+        book.setTitle(text(size - json(book).length));
+
+        return book;
+    }
+
+    /**
+     * Creates a book request whose book has about the given size.
+     *
+     * @param size the size of the JSON document in bytes
+     * @return the book request
+     */
+    public static BookRequest request(int size) {
+        Book book = book(size);
+        BookRequest request = new BookRequest();
+        request.setTitle(book.getTitle());
+        request.setGenre(book.getGenre());
+        request.setPublisher(book.getPublisher());
+        request.setStar(book.getStar());
+        request.setAuthor(book.getAuthor());
+
+        return request;
+    }
+
+    /**
+     * Serializes an object the way the JSONB codec does.
+     *
+     * @param value the object
+     * @return the UTF-8 JSON document
+     */
+    public static byte[] json(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String text(int length) {
+        StringBuilder builder = new StringBuilder(Math.max(length, 1));
+        while (builder.length() < length) {
+            builder.append(TEXT);
+        }
+        builder.setLength(Math.max(length, 1));
+
+        return builder.toString();
+    }
+}
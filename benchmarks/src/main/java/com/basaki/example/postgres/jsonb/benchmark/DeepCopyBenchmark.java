@@ -0,0 +1,82 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.data.copy.DeepCopierRegistry;
+import com.basaki.example.postgres.jsonb.data.copy.JsonDeepCopier;
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditType;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code DeepCopyBenchmark} compares the JSON round trip deep copy with the
+ * field-wise copy of {@code DeepCopierRegistry}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeepCopyBenchmark {
+
+    private Book book;
+
+    private AuditBook audit;
+
+    private JsonDeepCopier<Book> jsonBookCopier;
+
+    private JsonDeepCopier<AuditBook> jsonAuditCopier;
+
+    private DeepCopierRegistry registry;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        jsonBookCopier = new JsonDeepCopier<>(mapper, Book.class);
+        jsonAuditCopier = new JsonDeepCopier<>(mapper, AuditBook.class);
+        registry = new DeepCopierRegistry(mapper);
+
+        book = new Book(UUID.randomUUID(), "Ethan Frome", Genre.DRAMA,
+                "Scribner's", 5, new Author("Edith", "Wharton"), null);
+        audit = new AuditBook(AuditType.UPDATE, new Date(), "Neil", book);
+    }
+
+    @Benchmark
+    public Book bookJsonRoundTrip() {
+        return jsonBookCopier.copy(book);
+    }
+
+    @Benchmark
+    public Book bookFieldWise() {
+        return registry.copy(book);
+    }
+
+    @Benchmark
+    public AuditBook auditJsonRoundTrip() {
+        return jsonAuditCopier.copy(audit);
+    }
+
+    @Benchmark
+    public AuditBook auditFieldWise() {
+        return registry.copy(audit);
+    }
+}
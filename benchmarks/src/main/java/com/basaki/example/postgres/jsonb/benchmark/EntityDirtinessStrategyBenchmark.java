@@ -0,0 +1,73 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.data.strategy.DirtinessMode;
+import com.basaki.example.postgres.jsonb.data.strategy.EntityDirtinessStrategy;
+import com.basaki.example.postgres.jsonb.data.strategy.Fingerprints;
+import com.basaki.example.postgres.jsonb.model.Book;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.persister.entity.EntityPersister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code EntityDirtinessStrategyBenchmark} measures the dirty check of a
+ * loaded book entity during a flush, for both dirtiness modes. The entity is
+ * flagged dirty but unchanged, the case where a fingerprint saves an update.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityDirtinessStrategyBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int documentSize;
+
+    @Param({"FINGERPRINT", "FLAG"})
+    private DirtinessMode mode;
+
+    private EntityDirtinessStrategy strategy;
+
+    private EntityPersister persister;
+
+    private BookEntity entity;
+
+    @Setup
+    public void setUp() {
+        EntityDirtinessStrategy.setMode(mode);
+        strategy = new EntityDirtinessStrategy();
+        persister = (EntityPersister) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{EntityPersister.class},
+                (proxy, method, args) -> BookEntity.class.getName());
+
+        Book book = BenchmarkDocuments.book(documentSize);
+        entity = new BookEntity();
+        entity.setId(book.getId());
+        entity.setBook(book);
+        entity.setFingerprint(Fingerprints.of(book));
+        entity.setDirty(true);
+    }
+
+    @Benchmark
+    public boolean isDirty() {
+        return strategy.isDirty(entity, persister, null);
+    }
+}
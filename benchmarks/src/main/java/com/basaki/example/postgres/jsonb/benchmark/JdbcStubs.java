@@ -0,0 +1,69 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * {@code JdbcStubs} creates in-memory JDBC objects, so that the user types
+ * can be benchmarked without a database. A result set is positioned on a
+ * single row whose columns all have the same value, and a prepared statement
+ * keeps the last bound value.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public final class JdbcStubs {
+
+    private JdbcStubs() {
+    }
+
+    /**
+     * Creates a result set returning a value from its getters.
+     *
+     * @param bytes  the value returned by {@code getBytes}
+     * @param string the value returned by {@code getString}
+     * @param object the value returned by {@code getObject}
+     * @return the result set
+     */
+    public static ResultSet resultSet(byte[] bytes, String string,
+            Object object) {
+        return (ResultSet) Proxy.newProxyInstance(
+                JdbcStubs.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getBytes":
+                            return bytes;
+                        case "getString":
+                            return string;
+                        case "getObject":
+                            return object;
+                        case "wasNull":
+                            return false;
+                        default:
+                            throw new UnsupportedOperationException(
+                                    method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Creates a prepared statement keeping the last bound value.
+     *
+     * @param bound holds the last bound value in its first element
+     * @return the prepared statement
+     */
+    public static PreparedStatement preparedStatement(Object[] bound) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                JdbcStubs.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set")) {
+                        bound[0] = args[1];
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,91 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.data.type.JsonSqlTypeDescriptor;
+import com.basaki.example.postgres.jsonb.data.type.JsonType;
+import com.basaki.example.postgres.jsonb.data.type.JsonTypeDescriptor;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.type.descriptor.ValueExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code JsonTypeBenchmark} measures {@code JsonTypeDescriptor} conversions
+ * and the extraction of a native query scalar through {@code JsonType}, the
+ * path of every searched book.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonTypeBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int documentSize;
+
+    private JsonTypeDescriptor descriptor;
+
+    private ValueExtractor<Object> extractor;
+
+    private Book book;
+
+    private String json;
+
+    private ResultSet rs;
+
+    @Setup
+    public void setUp() {
+        Properties props = new Properties();
+        props.setProperty(JsonTypeDescriptor.CLASS_NAME, Book.class.getName());
+        JsonType type = new JsonType(new ObjectMapper());
+        type.setParameterValues(props);
+        descriptor = (JsonTypeDescriptor) type.getJavaTypeDescriptor();
+        extractor = JsonSqlTypeDescriptor.INSTANCE.getExtractor(descriptor);
+
+        book = BenchmarkDocuments.book(documentSize);
+        json = new String(BenchmarkDocuments.json(book),
+                StandardCharsets.UTF_8);
+        rs = JdbcStubs.resultSet(null, json, json);
+    }
+
+    @Benchmark
+    public Object fromString() {
+        return descriptor.fromString(json);
+    }
+
+    @Benchmark
+    public String unwrapString() {
+        return descriptor.unwrap(book, String.class, null);
+    }
+
+    @Benchmark
+    public Object unwrapTree() {
+        return descriptor.unwrap(book, JsonNode.class, null);
+    }
+
+    @Benchmark
+    public Object extractScalar() throws SQLException {
+        return extractor.extract(rs, "books", null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.data.codec.CodecMode;
+import com.basaki.example.postgres.jsonb.data.codec.JsonbCodec;
+import com.basaki.example.postgres.jsonb.data.usertype.JsonbUserType;
+import com.basaki.example.postgres.jsonb.model.Book;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code JsonbUserTypeBenchmark} measures reading, binding and copying a book
+ * through {@code JsonbUserType}, the path of every entity load and flush, for
+ * both codec modes.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonbUserTypeBenchmark {
+
+    private static final String[] COLUMNS = {"book"};
+
+    @Param({"256", "4096", "65536"})
+    private int documentSize;
+
+    @Param({"STREAMING", "STRING"})
+    private CodecMode codec;
+
+    private JsonbUserType type;
+
+    private Book book;
+
+    private ResultSet rs;
+
+    private PreparedStatement st;
+
+    private final Object[] bound = new Object[1];
+
+    @Setup
+    public void setUp() {
+        JsonbCodec.setDefaultMode(codec);
+
+        Properties props = new Properties();
+        props.setProperty("className", Book.class.getName());
+        type = new JsonbUserType();
+        type.setParameterValues(props);
+
+        book = BenchmarkDocuments.book(documentSize);
+        byte[] json = BenchmarkDocuments.json(book);
+        rs = JdbcStubs.resultSet(json, new String(json, StandardCharsets.UTF_8),
+                null);
+        st = JdbcStubs.preparedStatement(bound);
+    }
+
+    @Benchmark
+    public Object nullSafeGet() throws SQLException {
+        return type.nullSafeGet(rs, COLUMNS, null, null);
+    }
+
+    @Benchmark
+    public Object nullSafeSet() throws SQLException {
+        type.nullSafeSet(st, book, 1, null);
+
+        return bound[0];
+    }
+
+    @Benchmark
+    public Object deepCopy() {
+        return type.deepCopy(book);
+    }
+}
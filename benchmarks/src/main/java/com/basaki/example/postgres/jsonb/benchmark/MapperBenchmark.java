@@ -0,0 +1,74 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.config.SpringConfiguration;
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.mapper.BookMapper;
+import com.basaki.example.postgres.jsonb.mapper.BookMapperImpl;
+import com.basaki.example.postgres.jsonb.mapper.DozerBookMapper;
+import com.basaki.example.postgres.jsonb.mapper.MapperType;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code MapperBenchmark} compares the book mapper generated at compile time
+ * with the Dozer mapper configured by {@code SpringConfiguration}, mapping a
+ * request to a book on create and update and an entity to a book on reads.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int documentSize;
+
+    @Param({"GENERATED", "DOZER"})
+    private MapperType type;
+
+    private BookMapper mapper;
+
+    private BookRequest request;
+
+    private BookEntity entity;
+
+    @Setup
+    public void setUp() {
+        mapper = type == MapperType.DOZER
+                ? new DozerBookMapper(SpringConfiguration.getMapper())
+                : new BookMapperImpl();
+        request = BenchmarkDocuments.request(documentSize);
+        Book book = BenchmarkDocuments.book(documentSize);
+        entity = new BookEntity();
+        entity.setId(book.getId());
+        entity.setBook(book);
+    }
+
+    @Benchmark
+    public Book mapRequest() {
+        return mapper.toBook(request);
+    }
+
+    @Benchmark
+    public Book mapEntity() {
+        return mapper.toBook(entity);
+    }
+}
@@ -0,0 +1,74 @@
+package com.basaki.example.postgres.jsonb.benchmark;
+
+import com.basaki.example.postgres.jsonb.data.usertype.PGEnumUserType;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgresql.util.PGobject;
+
+/**
+ * {@code PGEnumUserTypeBenchmark} measures reading and binding a PostgreSQL
+ * enum through {@code PGEnumUserType}. An enum has no document, so it isn't
+ * parameterized by size.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PGEnumUserTypeBenchmark {
+
+    private static final String[] COLUMNS = {"genre"};
+
+    private PGEnumUserType type;
+
+    private ResultSet rs;
+
+    private PreparedStatement st;
+
+    private final Object[] bound = new Object[1];
+
+    @Setup
+    public void setUp() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("enumClassName", Genre.class.getName());
+        type = new PGEnumUserType();
+        type.setParameterValues(props);
+
+        PGobject object = new PGobject();
+        object.setType("genre");
+        object.setValue(Genre.DRAMA.name());
+        rs = JdbcStubs.resultSet(null, null, object);
+        st = JdbcStubs.preparedStatement(bound);
+    }
+
+    @Benchmark
+    public Object nullSafeGet() throws SQLException {
+        return type.nullSafeGet(rs, COLUMNS, null, null);
+    }
+
+    @Benchmark
+    public Object nullSafeSet() throws SQLException {
+        type.nullSafeSet(st, Genre.DRAMA, 1, null);
+
+        return bound[0];
+    }
+}
@@ -0,0 +1,87 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * {@code BookClient} calls the book service over HTTP. The connections are
+ * kept alive between calls, so a client isn't thread safe and every load test
+ * thread has its own.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class BookClient {
+
+    private final String baseUrl;
+
+    private final int timeoutMillis;
+
+    private final byte[] buffer = new byte[8192];
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    public BookClient(String baseUrl, int timeoutMillis) {
+        this.baseUrl = baseUrl.endsWith("/")
+                ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Sends a request and reads the whole response.
+     *
+     * @param method  the HTTP method
+     * @param path    the path and query of the request
+     * @param content the JSON request body, can be null
+     * @return the HTTP status
+     * @throws IOException if the service can't be reached
+     */
+    public int send(String method, String path,
+            byte[] content) throws IOException {
+        HttpURLConnection connection =
+                (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setRequestProperty("user", LoadTest.USER);
+
+        if (content != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(content.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(content);
+            }
+        }
+
+        int status = connection.getResponseCode();
+        body.reset();
+        // the response is read to the end, so the connection can be reused
+        try (InputStream in = status < 400 ? connection.getInputStream()
+                : connection.getErrorStream()) {
+            if (in != null) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+
+        return status;
+    }
+
+    /**
+     * Returns the body of the last response.
+     *
+     * @return the response body
+     */
+    public byte[] getBody() {
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * {@code BookIds} keeps the identifiers of the books known to exist, so the
+ * load test reads, updates, audits and deletes books that are there. Books
+ * are picked with a skew towards the front of the list, the hot books of the
+ * catalog.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class BookIds {
+
+    private final List<UUID> ids = new ArrayList<>();
+
+    private final double skew;
+
+    /**
+     * Creates an empty set of identifiers.
+     *
+     * @param skew skew of the picked books, 1 picks uniformly and larger
+     *             values favor the front of the list
+     */
+    public BookIds(double skew) {
+        this.skew = skew;
+    }
+
+    public synchronized void add(UUID id) {
+        ids.add(id);
+    }
+
+    public synchronized void addAll(Collection<UUID> others) {
+        ids.addAll(others);
+    }
+
+    /**
+     * Picks an identifier.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the identifier or null if there are no books
+     */
+    public synchronized UUID pick(Random random) {
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        return ids.get(index(random));
+    }
+
+    /**
+     * Picks an identifier and forgets it, so that the book it identifies
+     * isn't picked again once deleted.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the identifier or null if there are no books
+     */
+    public synchronized UUID remove(Random random) {
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        // favors the cold books at the back, so the hot books stay
+        int index = ids.size() - 1 - index(random);
+        UUID id = ids.get(index);
+        ids.set(index, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+
+        return id;
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    private int index(Random random) {
+        return (int) (ids.size() * Math.pow(random.nextDouble(), skew));
+    }
+}
@@ -0,0 +1,284 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * {@code CatalogGenerator} generates a synthetic book catalog with the skew of
+ * a real one. Publishers, author names and title words are drawn from Zipf
+ * distributions, so a few of them are very common and most are rare, and
+ * genres and ratings follow a fixed mix. The vocabularies only depend on the
+ * seed, so two runs with the same seed generate the same kind of catalog.
+ * <p/>
+ * The generator is thread safe as long as every thread uses its own random
+ * number generator.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class CatalogGenerator {
+
+    private static final String[] PUBLISHER_WORDS = {"Harbor", "Lantern",
+            "Meridian", "Northwind", "Oak", "Pelican", "Quill", "Raven",
+            "Silver", "Thistle", "Upland", "Vanguard", "Willow", "Beacon",
+            "Cedar", "Driftwood", "Ember", "Falcon", "Granite", "Heron",
+            "Ivy", "Juniper", "Kestrel", "Larch", "Marigold", "Nettle"};
+
+    private static final String[] PUBLISHER_SUFFIXES = {"Press", "Books",
+            "House", "Publishing", "& Sons", "Editions"};
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John",
+            "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William",
+            "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph",
+            "Jessica", "Thomas", "Sarah", "Charles", "Karen", "Edith",
+            "Ernest", "Virginia", "Herman", "Louisa", "Nathaniel", "Willa",
+            "Zora", "Upton", "Harper", "Ralph", "Flannery", "Truman",
+            "Carson", "Kurt", "Toni", "Saul", "Ursula", "Octavia", "Ray"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson",
+            "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+            "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson",
+            "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Wharton", "Hemingway", "Woolf", "Melville", "Alcott",
+            "Hawthorne", "Cather", "Hurston", "Sinclair", "Ellison",
+            "O'Connor", "Capote", "McCullers", "Vonnegut", "Morrison",
+            "Bellow", "Le Guin", "Butler", "Bradbury", "Steinbeck",
+            "Faulkner", "Fitzgerald", "Baldwin", "Salinger", "Kerouac",
+            "Dickinson", "Whitman", "Thoreau", "Emerson", "Poe"};
+
+    private static final String[] TITLE_WORDS = {"The", "of", "and", "a",
+            "Night", "House", "Summer", "River", "Last", "Garden", "Letters",
+            "Road", "Winter", "Secret", "City", "Journey", "Light", "Sea",
+            "Shadow", "Heart", "Stone", "Wind", "Fire", "Island", "Mountain",
+            "Daughter", "King", "Silence", "Memory", "Song", "Bridge",
+            "Forest", "Storm", "Kingdom", "Crossing", "Harvest", "Orchard",
+            "Lighthouse", "Atlas", "Guide", "Travels", "Complete", "Little",
+            "Great", "Lost", "Wild", "Hidden", "Golden", "Broken", "Quiet",
+            "Beyond", "Under", "Between", "Promise", "Voyage", "Field",
+            "Companion", "Handbook", "Empire", "Valley", "Moon", "Morning"};
+
+    // DRAMA, ROMANCE, GUIDE, TRAVEL
+    private static final int[] GENRE_WEIGHTS = {40, 30, 20, 10};
+
+    // one to five stars
+    private static final int[] STAR_WEIGHTS = {5, 10, 30, 35, 20};
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<String> publishers;
+
+    private final List<String> firstNames;
+
+    private final List<String> lastNames;
+
+    private final List<String> titleWords;
+
+    private final Zipf publisherZipf;
+
+    private final Zipf firstNameZipf;
+
+    private final Zipf lastNameZipf;
+
+    private final Zipf titleZipf;
+
+    /**
+     * Creates a catalog generator.
+     *
+     * @param seed seed of the vocabularies
+     */
+    public CatalogGenerator(long seed) {
+        Random random = new Random(seed);
+
+        List<String> names = new ArrayList<>();
+        for (String word : PUBLISHER_WORDS) {
+            for (String suffix : PUBLISHER_SUFFIXES) {
+                names.add(word + " " + suffix);
+            }
+        }
+        publishers = shuffle(names, random);
+        firstNames = shuffle(asList(FIRST_NAMES), random);
+        lastNames = shuffle(asList(LAST_NAMES), random);
+        // the function words stay the most frequent ones
+        titleWords = Collections.unmodifiableList(asList(TITLE_WORDS));
+
+        publisherZipf = new Zipf(publishers.size(), 1.2);
+        firstNameZipf = new Zipf(firstNames.size(), 0.8);
+        lastNameZipf = new Zipf(lastNames.size(), 1.0);
+        titleZipf = new Zipf(titleWords.size(), 1.0);
+    }
+
+    /**
+     * Generates a book request.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the book request
+     */
+    public BookRequest nextRequest(Random random) {
+        BookRequest request = new BookRequest();
+        request.setTitle(nextTitle(random));
+        request.setGenre(Genre.values()[pick(GENRE_WEIGHTS, random)]);
+        request.setPublisher(publishers.get(publisherZipf.next(random)));
+        request.setStar(pick(STAR_WEIGHTS, random) + 1);
+        request.setAuthor(new Author(
+                firstNames.get(firstNameZipf.next(random)),
+                lastNames.get(lastNameZipf.next(random))));
+
+        return request;
+    }
+
+    /**
+     * Generates a book with a new identifier.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the book
+     */
+    public Book nextBook(Random random) {
+        BookRequest request = nextRequest(random);
+
+        return new Book(nextId(random), request.getTitle(),
+                request.getGenre(), request.getPublisher(), request.getStar(),
+                request.getAuthor(), null);
+    }
+
+    /**
+     * Generates a search string. Like the catalog, searches are skewed
+     * towards the common publishers, names and title words.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the search string
+     */
+    public String nextSearch(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                String publisher = publishers.get(publisherZipf.next(random));
+                return publisher.substring(0, publisher.indexOf(' '));
+            case 1:
+                return lastNames.get(lastNameZipf.next(random));
+            default:
+                // skips the function words
+                return titleWords.get(4 + random.nextInt(
+                        titleWords.size() - 4));
+        }
+    }
+
+    /**
+     * Inserts generated books into the books table. The audit triggers record
+     * the creation of every book like they do for the service.
+     *
+     * @param connection the database connection
+     * @param count      number of books to be inserted
+     * @param random     the random number generator
+     * @return identifiers of the inserted books
+     * @throws SQLException if the books can't be inserted
+     */
+    public List<UUID> populate(Connection connection, int count,
+            Random random) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        List<UUID> ids = new ArrayList<>(count);
+        try (PreparedStatement user = connection.prepareStatement(
+                "SELECT set_config('book.audit_user', ?, false)");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO example_book_schema.books (id, book) " +
+                             "VALUES (CAST(? AS UUID), CAST(? AS JSONB))")) {
+            user.setString(1, LoadTest.USER);
+            user.execute();
+
+            for (int i = 0; i < count; i++) {
+                Book book = nextBook(random);
+                insert.setString(1, book.getId().toString());
+                insert.setString(2, toJson(book));
+                insert.addBatch();
+                ids.add(book.getId());
+
+                if ((i + 1) % BATCH_SIZE == 0 || i == count - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        return ids;
+    }
+
+    private String nextTitle(Random random) {
+        int length = 1 + random.nextInt(5);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(titleWords.get(titleZipf.next(random)));
+        }
+
+        return title.toString();
+    }
+
+    private String toJson(Book book) {
+        try {
+            return mapper.writeValueAsString(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                    "Failed to convert book " + book.getId() + " to JSON", e);
+        }
+    }
+
+    private static UUID nextId(Random random) {
+        // version 4, IETF variant
+        long msb = random.nextLong() & ~0xF000L | 0x4000L;
+        long lsb = random.nextLong() & ~(0xC000000000000000L)
+                | 0x8000000000000000L;
+
+        return new UUID(msb, lsb);
+    }
+
+    private static int pick(int[] weights, Random random) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+
+        return weights.length - 1;
+    }
+
+    private static List<String> asList(String[] words) {
+        List<String> list = new ArrayList<>(words.length);
+        Collections.addAll(list, words);
+
+        return list;
+    }
+
+    private static List<String> shuffle(List<String> list, Random random) {
+        Collections.shuffle(list, random);
+
+        return Collections.unmodifiableList(list);
+    }
+}
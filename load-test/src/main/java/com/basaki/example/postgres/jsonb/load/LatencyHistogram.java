@@ -0,0 +1,115 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code LatencyHistogram} records latencies in microseconds into log-linear
+ * buckets. Values below 256 are counted exactly, larger values are counted
+ * with 128 buckets per power of two, so a percentile is off by less than one
+ * percent whatever the magnitude of the latency. Latencies above an hour are
+ * counted as an hour.
+ * <p/>
+ * Recording is lock free, so the load test threads share a histogram per
+ * operation.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class LatencyHistogram {
+
+    static final long MAX_VALUE = 3_600_000_000L;
+
+    private static final int SUB_BUCKET_BITS = 8;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    private final AtomicLongArray counts =
+            new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param micros the latency in microseconds
+     */
+    public void record(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = total.get();
+
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * Returns the latency at a percentile, i.e. the largest latency of the
+     * given percent of the smallest recorded latencies.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the latency in microseconds, 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1,
+                (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value)
+                - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF
+                + subBucket - SUB_BUCKET_HALF;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,188 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code LoadDriver} calls the book service at a fixed arrival rate. Call
+ * {@code n} is scheduled to start at {@code n / rate} seconds, whether or not
+ * earlier calls have finished, and its response time is measured from that
+ * time. A pool of threads takes the calls in order, so a slow service delays
+ * the calls behind it instead of lowering the rate, and the delay shows in
+ * the response times.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Slf4j
+public class LoadDriver {
+
+    private static final Operation[] NEEDS_BOOK = {Operation.READ,
+            Operation.UPDATE, Operation.DELETE, Operation.AUDIT};
+
+    private final LoadTestOptions options;
+
+    private final OperationMix mix;
+
+    private final CatalogGenerator catalog;
+
+    private final BookIds ids;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadDriver(LoadTestOptions options, OperationMix mix,
+            CatalogGenerator catalog, BookIds ids) {
+        this.options = options;
+        this.mix = mix;
+        this.catalog = catalog;
+        this.ids = ids;
+    }
+
+    /**
+     * Runs the warm up and the measured load test.
+     *
+     * @return the results of the measured load test
+     * @throws InterruptedException if interrupted while waiting for the calls
+     */
+    public LoadResults run() throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measured = start + TimeUnit.SECONDS.toNanos(options.getWarmup());
+        long end = measured + TimeUnit.SECONDS.toNanos(options.getDuration());
+
+        LoadResults results = new LoadResults();
+        results.setDurationNanos(end - measured);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.getThreads(); i++) {
+            Random random = new Random(options.getSeed() + i);
+            Thread thread = new Thread(() -> work(random, interval, start,
+                    measured, end, results), "load-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return results;
+    }
+
+    private void work(Random random, long interval, long start,
+            long measured, long end, LoadResults results) {
+        BookClient client = new BookClient(options.getUrl(),
+                options.getTimeoutMillis());
+        while (true) {
+            long scheduled = start + sequence.getAndIncrement() * interval;
+            if (scheduled >= end) {
+                return;
+            }
+
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+
+            Operation operation = mix.next(random);
+            boolean success;
+            try {
+                success = call(client, operation, random);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Failed " + operation + " call: " + e);
+                success = false;
+            }
+
+            long done = System.nanoTime();
+            if (scheduled < measured) {
+                continue;
+            }
+
+            if (success) {
+                results.record(operation,
+                        TimeUnit.NANOSECONDS.toMicros(done - scheduled),
+                        TimeUnit.NANOSECONDS.toMicros(done - now));
+            } else {
+                results.recordError(operation);
+            }
+        }
+    }
+
+    private boolean call(BookClient client, Operation operation,
+            Random random) throws IOException {
+        UUID id = null;
+        for (Operation needsBook : NEEDS_BOOK) {
+            if (operation == needsBook) {
+                id = operation == Operation.DELETE ? ids.remove(random)
+                        : ids.pick(random);
+                if (id == null) {
+                    // no book to work on, counted as a failed call
+                    return false;
+                }
+            }
+        }
+
+        int status;
+        switch (operation) {
+            case CREATE:
+                status = client.send("POST", "/books", mapper.writeValueAsBytes(
+                        catalog.nextRequest(random)));
+                if (isSuccess(status)) {
+                    ids.add(mapper.readValue(client.getBody(), Book.class)
+                            .getId());
+                }
+                break;
+            case READ:
+                status = client.send("GET", "/books/" + id, null);
+                break;
+            case SEARCH:
+                status = client.send("GET", "/books?q="
+                        + encode(catalog.nextSearch(random))
+                        + "&limit=" + options.getSearchLimit(), null);
+                break;
+            case UPDATE:
+                status = client.send("PUT", "/books/" + id,
+                        mapper.writeValueAsBytes(catalog.nextRequest(random)));
+                break;
+            case DELETE:
+                status = client.send("DELETE", "/books/" + id, null);
+                break;
+            case AUDIT:
+                status = client.send("GET", "/books/" + id
+                        + "/audits?limit=" + options.getAuditLimit(), null);
+                break;
+            default:
+                throw new IllegalStateException(
+                        "Unknown operation " + operation);
+        }
+
+        return isSuccess(status);
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * {@code LoadReport} writes the results of a load test as a plain text table,
+ * one line per operation and latency, in a fixed order and without
+ * timestamps. Reports of runs with the same options can be compared with
+ * {@code diff} between commits.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private static final String ROW =
+            "%-8s %-9s %9s %7s %9s %9s %9s %9s %9s %9s %9s %9s%n";
+
+    private LoadReport() {
+    }
+
+    /**
+     * Formats the results of a load test.
+     *
+     * @param options the load test options
+     * @param mix     the operation mix
+     * @param results the load test results
+     * @return the report
+     */
+    public static String format(LoadTestOptions options, OperationMix mix,
+            LoadResults results) {
+        StringWriter report = new StringWriter();
+        PrintWriter out = new PrintWriter(report);
+        out.printf("# rate=%d/s duration=%ds warmup=%ds threads=%d seed=%d%n",
+                options.getRate(), options.getDuration(),
+                options.getWarmup(), options.getThreads(),
+                options.getSeed());
+        out.printf("# mix=%s catalog=%d skew=%s%n", mix, options.getCatalog(),
+                options.getSkew());
+        out.println("# latencies in microseconds, response times are "
+                + "measured from the scheduled start of a call");
+        out.printf(ROW, "op", "latency", "count", "errors", "rate/s", "mean",
+                "p50", "p90", "p99", "p99.9", "p99.99", "max");
+
+        double seconds = results.getDurationNanos() / 1e9;
+        for (Operation operation : Operation.values()) {
+            row(out, operation.name().toLowerCase(), operation, results,
+                    seconds);
+        }
+        row(out, "all", null, results, seconds);
+        out.flush();
+
+        return report.toString();
+    }
+
+    /**
+     * Writes the results of a load test to a file.
+     *
+     * @param file    the report file
+     * @param options the load test options
+     * @param mix     the operation mix
+     * @param results the load test results
+     * @return the report
+     * @throws IOException if the file can't be written
+     */
+    public static String write(Path file, LoadTestOptions options,
+            OperationMix mix, LoadResults results) throws IOException {
+        String report = format(options, mix, results);
+        Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+
+        return report;
+    }
+
+    private static void row(PrintWriter out, String name, Operation operation,
+            LoadResults results, double seconds) {
+        histogram(out, name, "response", results.getResponseTimes(operation),
+                results.getErrors(operation), seconds);
+        histogram(out, name, "service", results.getServiceTimes(operation),
+                results.getErrors(operation), seconds);
+    }
+
+    private static void histogram(PrintWriter out, String name,
+            String latency, LatencyHistogram histogram, long errors,
+            double seconds) {
+        Object[] values = new Object[12];
+        values[0] = name;
+        values[1] = latency;
+        values[2] = histogram.getCount();
+        values[3] = errors;
+        values[4] = String.format(Locale.ROOT, "%.1f",
+                histogram.getCount() / seconds);
+        values[5] = Math.round(histogram.getMean());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            values[6 + i] = histogram.getValueAtPercentile(PERCENTILES[i]);
+        }
+        values[11] = histogram.getMax();
+
+        out.printf(Locale.ROOT, ROW, values);
+    }
+}
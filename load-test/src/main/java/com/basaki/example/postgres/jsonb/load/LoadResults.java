@@ -0,0 +1,116 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code LoadResults} collects the latencies of the calls made during a load
+ * test per operation. Two latencies are recorded for every call:
+ * <ul>
+ * <li>the response time, from the time the call was scheduled to start at
+ * the fixed arrival rate until the response was read. A call delayed by
+ * earlier slow calls is charged the delay, which corrects the coordinated
+ * omission of a closed-loop load generator.</li>
+ * <li>the service time, from the time the call was actually sent until the
+ * response was read.</li>
+ * </ul>
+ * Failed calls are counted as errors and don't add to the latencies.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class LoadResults {
+
+    private final Map<Operation, LatencyHistogram> responseTimes =
+            new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LatencyHistogram> serviceTimes =
+            new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errors =
+            new EnumMap<>(Operation.class);
+
+    private final LatencyHistogram allResponseTimes = new LatencyHistogram();
+
+    private final LatencyHistogram allServiceTimes = new LatencyHistogram();
+
+    private volatile long durationNanos;
+
+    public LoadResults() {
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new LatencyHistogram());
+            serviceTimes.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param operation    the operation
+     * @param responseTime the response time in microseconds
+     * @param serviceTime  the service time in microseconds
+     */
+    public void record(Operation operation, long responseTime,
+            long serviceTime) {
+        responseTimes.get(operation).record(responseTime);
+        serviceTimes.get(operation).record(serviceTime);
+        allResponseTimes.record(responseTime);
+        allServiceTimes.record(serviceTime);
+    }
+
+    public void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    /**
+     * Returns the response times of an operation.
+     *
+     * @param operation the operation, null for all operations
+     * @return the response times
+     */
+    public LatencyHistogram getResponseTimes(Operation operation) {
+        return operation == null ? allResponseTimes
+                : responseTimes.get(operation);
+    }
+
+    /**
+     * Returns the service times of an operation.
+     *
+     * @param operation the operation, null for all operations
+     * @return the service times
+     */
+    public LatencyHistogram getServiceTimes(Operation operation) {
+        return operation == null ? allServiceTimes
+                : serviceTimes.get(operation);
+    }
+
+    /**
+     * Returns the number of failed calls of an operation.
+     *
+     * @param operation the operation, null for all operations
+     * @return the number of errors
+     */
+    public long getErrors(Operation operation) {
+        if (operation != null) {
+            return errors.get(operation).sum();
+        }
+
+        long sum = 0;
+        for (LongAdder adder : errors.values()) {
+            sum += adder.sum();
+        }
+
+        return sum;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+}
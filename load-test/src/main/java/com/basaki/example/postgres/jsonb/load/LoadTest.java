@@ -0,0 +1,103 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code LoadTest} is the main entry point of the load test. It generates the
+ * synthetic catalog if a database is given, otherwise collects the books
+ * known to the service, runs the load at a fixed arrival rate and writes the report.
+ * <pre>
+ * java -jar load-test/target/load-test.jar --catalog=100000 \
+ *     --jdbcUrl=jdbc:postgresql://localhost:5432/postgres \
+ *     --rate=200 --duration=120 --mix=read=60,search=15,create=10,update=10,audit=3,delete=2
+ * </pre>
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Slf4j
+public class LoadTest {
+
+    /**
+     * The audit user of the changes made by the load test.
+     */
+    public static final String USER = "load-test";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        OperationMix mix = OperationMix.parse(options.getMix());
+        CatalogGenerator catalog = new CatalogGenerator(options.getSeed());
+        BookIds ids = new BookIds(options.getSkew());
+
+        if (options.getJdbcUrl() != null && options.getCatalog() > 0) {
+            ids.addAll(generate(options, catalog));
+        } else {
+            ids.addAll(fetch(options));
+        }
+
+        log.info("Running " + mix + " at " + options.getRate() + "/s for "
+                + options.getDuration() + "s after a " + options.getWarmup()
+                + "s warm up, " + ids.size() + " books known");
+        LoadResults results =
+                new LoadDriver(options, mix, catalog, ids).run();
+
+        String report = LoadReport.write(Paths.get(options.getOutput()),
+                options, mix, results);
+        System.out.print(report);
+        log.info("Wrote results to " + options.getOutput());
+    }
+
+    private static List<UUID> generate(LoadTestOptions options,
+            CatalogGenerator catalog) throws SQLException {
+        long start = System.currentTimeMillis();
+        try (Connection connection = DriverManager.getConnection(
+                options.getJdbcUrl(), options.getJdbcUser(),
+                options.getJdbcPassword())) {
+            List<UUID> ids = catalog.populate(connection,
+                    options.getCatalog(), new Random(options.getSeed()));
+            log.info("Generated " + ids.size() + " books in "
+                    + (System.currentTimeMillis() - start) + " ms");
+
+            return ids;
+        }
+    }
+
+    private static List<UUID> fetch(LoadTestOptions options) throws IOException {
+        List<UUID> ids = new ArrayList<>();
+        if (options.getKnown() <= 0) {
+            return ids;
+        }
+
+        BookClient client = new BookClient(options.getUrl(),
+                options.getTimeoutMillis());
+        int status = client.send("GET", "/books?limit=" + options.getKnown(),
+                null);
+        if (status != 200) {
+            throw new IOException("Failed to read books from "
+                    + options.getUrl() + ", status " + status);
+        }
+
+        for (Book book : Arrays.asList(new ObjectMapper().readValue(
+                client.getBody(), Book[].class))) {
+            ids.add(book.getId());
+        }
+
+        return ids;
+    }
+}
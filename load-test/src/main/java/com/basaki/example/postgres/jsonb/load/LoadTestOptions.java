@@ -0,0 +1,143 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import lombok.Data;
+
+/**
+ * {@code LoadTestOptions} holds the settings of a load test, given on the
+ * command line as {@code --name=value} arguments.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Data
+public class LoadTestOptions {
+
+    // base URL of the book service
+    private String url = "http://localhost:8080";
+
+    // database the catalog is generated into, no catalog is generated if null
+    private String jdbcUrl;
+
+    private String jdbcUser = "postgres";
+
+    private String jdbcPassword = "postgres";
+
+    // number of books generated before the load test
+    private int catalog;
+
+    // calls started per second
+    private int rate = 100;
+
+    // length of the measured load test in seconds
+    private int duration = 60;
+
+    // length of the unmeasured warm up in seconds
+    private int warmup = 10;
+
+    // number of calls in flight at most
+    private int threads = 32;
+
+    private String mix = "read=60,search=15,create=10,update=10,audit=3,delete=2";
+
+    // skew of the books read, updated and audited, 1 is uniform
+    private double skew = 3;
+
+    // number of existing books fetched from the service when no catalog is
+    // generated
+    private int known = 10000;
+
+    private int searchLimit = 20;
+
+    private int auditLimit = 20;
+
+    private int timeoutMillis = 10000;
+
+    private long seed = 42;
+
+    // file the results are written to
+    private String output = "load-test-results.txt";
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args {@code --name=value} arguments
+     * @return the options
+     */
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(
+                        "Invalid argument \"" + arg + "\", expected --name=value.");
+            }
+
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "url":
+                    options.setUrl(value);
+                    break;
+                case "jdbcUrl":
+                    options.setJdbcUrl(value);
+                    break;
+                case "jdbcUser":
+                    options.setJdbcUser(value);
+                    break;
+                case "jdbcPassword":
+                    options.setJdbcPassword(value);
+                    break;
+                case "catalog":
+                    options.setCatalog(Integer.parseInt(value));
+                    break;
+                case "rate":
+                    options.setRate(Integer.parseInt(value));
+                    break;
+                case "duration":
+                    options.setDuration(Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    options.setWarmup(Integer.parseInt(value));
+                    break;
+                case "threads":
+                    options.setThreads(Integer.parseInt(value));
+                    break;
+                case "mix":
+                    options.setMix(value);
+                    break;
+                case "skew":
+                    options.setSkew(Double.parseDouble(value));
+                    break;
+                case "known":
+                    options.setKnown(Integer.parseInt(value));
+                    break;
+                case "searchLimit":
+                    options.setSearchLimit(Integer.parseInt(value));
+                    break;
+                case "auditLimit":
+                    options.setAuditLimit(Integer.parseInt(value));
+                    break;
+                case "timeoutMillis":
+                    options.setTimeoutMillis(Integer.parseInt(value));
+                    break;
+                case "seed":
+                    options.setSeed(Long.parseLong(value));
+                    break;
+                case "output":
+                    options.setOutput(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                            "Unknown argument \"" + arg + "\".");
+            }
+        }
+
+        if (options.getRate() <= 0 || options.getThreads() <= 0
+                || options.getDuration() <= 0) {
+            throw new IllegalArgumentException(
+                    "Rate, threads and duration must be positive.");
+        }
+
+        return options;
+    }
+}
@@ -0,0 +1,52 @@
+package com.basaki.example.postgres.jsonb.load;
+
+/**
+ * {@code Operation} represents a {@code BookController} call made by the load
+ * test.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum Operation {
+
+    /**
+     * Creates a new book, {@code POST /books}.
+     */
+    CREATE,
+
+    /**
+     * Reads a book, {@code GET /books/{id}}.
+     */
+    READ,
+
+    /**
+     * Searches books by title, publisher, and author, {@code GET /books?q=}.
+     */
+    SEARCH,
+
+    /**
+     * Replaces a book, {@code PUT /books/{id}}.
+     */
+    UPDATE,
+
+    /**
+     * Deletes a book, {@code DELETE /books/{id}}.
+     */
+    DELETE,
+
+    /**
+     * Reads the audit history of a book, {@code GET /books/{id}/audits}.
+     */
+    AUDIT;
+
+    /**
+     * Returns an <tt>Operation<tt> enum based on string matching
+     *
+     * @param value name of the operation
+     * @return a matching <tt>Operation</tt>
+     */
+    public static Operation fromValue(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
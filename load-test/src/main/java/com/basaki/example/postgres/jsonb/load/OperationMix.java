@@ -0,0 +1,100 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@code OperationMix} picks the operations of a load test according to their
+ * weights. A mix is written as comma separated {@code operation=weight}
+ * pairs, e.g. {@code read=60,search=15,create=10,update=10,audit=3,delete=2}.
+ * Operations left out of the mix are never picked.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class OperationMix {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final Map<Operation, Integer> weights;
+
+    // cumulative weights in the order of OPERATIONS
+    private final int[] cumulative = new int[OPERATIONS.length];
+
+    private final int total;
+
+    public OperationMix(Map<Operation, Integer> weights) {
+        this.weights = new EnumMap<>(weights);
+
+        int sum = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            Integer weight = this.weights.get(OPERATIONS[i]);
+            if (weight != null && weight < 0) {
+                throw new IllegalArgumentException(
+                        "Weight of " + OPERATIONS[i] + " is negative.");
+            }
+            sum += weight == null ? 0 : weight;
+            cumulative[i] = sum;
+        }
+
+        if (sum == 0) {
+            throw new IllegalArgumentException(
+                    "Operation mix has no operations.");
+        }
+        total = sum;
+    }
+
+    /**
+     * Parses an operation mix.
+     *
+     * @param mix comma separated {@code operation=weight} pairs
+     * @return the operation mix
+     */
+    public static OperationMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String pair : mix.split(",")) {
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(
+                        "Invalid operation weight \"" + pair + "\".");
+            }
+            weights.put(Operation.fromValue(parts[0]),
+                    Integer.parseInt(parts[1].trim()));
+        }
+
+        return new OperationMix(weights);
+    }
+
+    /**
+     * Picks an operation.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the operation
+     */
+    public Operation next(Random random) {
+        int value = random.nextInt(total);
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            if (value < cumulative[i]) {
+                return OPERATIONS[i];
+            }
+        }
+
+        throw new IllegalStateException("Weights don't add up to " + total);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey().name().toLowerCase()).append('=')
+                    .append(entry.getValue());
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * {@code Zipf} draws ranks from a Zipf distribution, where rank {@code k} is
+ * drawn with a probability proportional to {@code 1 / k^exponent}. It gives
+ * the skew of a real catalog, a few publishers and names are very common and
+ * most are rare.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class Zipf {
+
+    private final double[] cdf;
+
+    /**
+     * Creates a Zipf distribution.
+     *
+     * @param size     number of ranks
+     * @param exponent skew of the distribution, 0 is uniform
+     */
+    public Zipf(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive.");
+        }
+
+        cdf = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cdf[k] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random the random number generator
+     * @return a rank from 0, the most frequent, to size - 1
+     */
+    public int next(Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+
+        return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}
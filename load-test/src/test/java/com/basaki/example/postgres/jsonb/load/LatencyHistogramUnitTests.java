@@ -0,0 +1,82 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@code LatencyHistogramUnitTests} unit test class for {@code
+ * LatencyHistogram}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class LatencyHistogramUnitTests {
+
+    @Test
+    public void testExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0.001);
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1000; value <= 1_000_000; value += 1000) {
+            histogram.record(value);
+        }
+
+        assertAbout(500_000, histogram.getValueAtPercentile(50));
+        assertAbout(990_000, histogram.getValueAtPercentile(99));
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (int index = 0;
+                index <= LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE);
+                index++) {
+            long highest = LatencyHistogram.highestValueOf(index);
+            assertEquals(index, LatencyHistogram.indexOf(previous + 1));
+            assertEquals(index, LatencyHistogram.indexOf(highest));
+            previous = highest;
+        }
+    }
+
+    @Test
+    public void testClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE,
+                histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    private static void assertAbout(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected / 100);
+    }
+}
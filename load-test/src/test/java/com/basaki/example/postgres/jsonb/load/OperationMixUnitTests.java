@@ -0,0 +1,46 @@
+package com.basaki.example.postgres.jsonb.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * {@code OperationMixUnitTests} unit test class for {@code OperationMix}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class OperationMixUnitTests {
+
+    @Test
+    public void testNext() {
+        OperationMix mix = OperationMix.parse("read=70, search=20,delete=10");
+
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        assertEquals(70_000, counts.get(Operation.READ), 1000);
+        assertEquals(20_000, counts.get(Operation.SEARCH), 1000);
+        assertEquals(10_000, counts.get(Operation.DELETE), 1000);
+        assertFalse(counts.containsKey(Operation.CREATE));
+        assertEquals("read=70,search=20,delete=10", mix.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOperation() {
+        OperationMix.parse("read=70,browse=30");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoOperations() {
+        OperationMix.parse("read=0");
+    }
+}
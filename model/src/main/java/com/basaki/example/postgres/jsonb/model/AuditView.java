@@ -0,0 +1,34 @@
+package com.basaki.example.postgres.jsonb.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * {@code AuditView} represents how much of an audit record is returned.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum AuditView {
+
+    /**
+     * The change, user, time and the state of the book after the change.
+     */
+    FULL,
+
+    /**
+     * The change, user and time without the state of the book.
+     */
+    SUMMARY;
+
+    /**
+     * Returns a <tt>AuditView<tt> enum based on string matching
+     *
+     * @param value string representation of the view
+     * @return a matching <tt>AuditView</tt>
+     */
+    @JsonCreator
+    public static AuditView fromValue(String value) {
+        return valueOf(value.toUpperCase());
+    }
+}
@@ -0,0 +1,35 @@
+package com.basaki.example.postgres.jsonb.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * {@code BatchStatus} represents the outcome of a single book in a batch
+ * request.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum BatchStatus {
+
+    /**
+     * The book was created.
+     */
+    CREATED,
+
+    /**
+     * The book failed validation and was not created.
+     */
+    REJECTED;
+
+    /**
+     * Returns a <tt>BatchStatus<tt> enum based on string matching
+     *
+     * @param value string representation of the status
+     * @return a matching <tt>BatchStatus</tt>
+     */
+    @JsonCreator
+    public static BatchStatus fromValue(String value) {
+        return valueOf(value.toUpperCase());
+    }
+}
@@ -0,0 +1,30 @@
+package com.basaki.example.postgres.jsonb.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@code BookBatchResult} represents the result of a single book in a batch
+ * request. The index refers to the position of the book in the request.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookBatchResult {
+
+    private int index;
+
+    private BatchStatus status;
+
+    private UUID id;
+
+    private String error;
+}
@@ -0,0 +1,27 @@
+package com.basaki.example.postgres.jsonb.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@code BookImportResult} represents the outcome of a bulk import. Only the
+ * first rejected lines are reported, the index of a rejection is the zero
+ * based line number in the import.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResult {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<BookBatchResult> rejections;
+}
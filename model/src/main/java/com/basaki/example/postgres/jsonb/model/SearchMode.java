@@ -0,0 +1,35 @@
+package com.basaki.example.postgres.jsonb.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * {@code SearchMode} represents how books are matched against a search
+ * string.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum SearchMode {
+
+    /**
+     * Case insensitive exact substring match on title, publisher, and author.
+     */
+    SUBSTRING,
+
+    /**
+     * Full-text match on title, publisher, and author ranked by relevance.
+     */
+    FULL_TEXT;
+
+    /**
+     * Returns a <tt>SearchMode<tt> enum based on string matching
+     *
+     * @param value string representation of the mode
+     * @return a matching <tt>SearchMode</tt>
+     */
+    @JsonCreator
+    public static SearchMode fromValue(String value) {
+        return valueOf(value.toUpperCase());
+    }
+}
@@ -0,0 +1,23 @@
+package com.basaki.example.postgres.jsonb.model.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code GeneratedMapper} marks an interface whose implementation is
+ * generated at compile time by {@code MapperProcessor}. Every abstract method
+ * of the interface maps its only parameter to a new instance of its return
+ * type by calling getters and setters, without any reflection at runtime.
+ * <p/>
+ * The implementation is named after the interface with an {@code Impl}
+ * suffix and is placed in the same package.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GeneratedMapper {
+}
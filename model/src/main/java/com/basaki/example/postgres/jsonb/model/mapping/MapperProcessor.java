@@ -0,0 +1,395 @@
+package com.basaki.example.postgres.jsonb.model.mapping;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * {@code MapperProcessor} generates the implementations of the interfaces
+ * annotated with {@code GeneratedMapper}. The properties of a type are its
+ * non-static fields, read and written through their getters and setters. A
+ * property is copied as is when the source type can be assigned to the
+ * target type, or mapped with another method of the interface which maps
+ * between the two types.
+ * <p/>
+ * Target properties which are neither mapped nor ignored are reported as
+ * warnings, mappings which can't be generated as errors.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@SupportedAnnotationTypes(
+        "com.basaki.example.postgres.jsonb.model.mapping.GeneratedMapper")
+public class MapperProcessor extends AbstractProcessor {
+
+    private static final String SELF = ".";
+
+    private static final String RESULT = "mapped";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+            RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(
+                GeneratedMapper.class)) {
+            try {
+                generate(element);
+            } catch (MappingException e) {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "Failed to write mapper: " + e.getMessage(), element);
+            }
+        }
+
+        return true;
+    }
+
+    private void generate(Element element) throws IOException {
+        if (element.getKind() != ElementKind.INTERFACE
+                || ((TypeElement) element).getNestingKind()
+                != NestingKind.TOP_LEVEL) {
+            throw new MappingException(
+                    "A generated mapper must be a top level interface.",
+                    element);
+        }
+
+        TypeElement type = (TypeElement) element;
+        String packageName = processingEnv.getElementUtils()
+                .getPackageOf(type).getQualifiedName().toString();
+        String name = type.getSimpleName() + "Impl";
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+                validate(method);
+                methods.add(method);
+            }
+        }
+
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("/**\n")
+                .append(" * Generated by {@code MapperProcessor} from {@code ")
+                .append(type.getSimpleName()).append("}, don't edit.\n")
+                .append(" */\n")
+                .append("public class ").append(name).append(" implements ")
+                .append(type.getQualifiedName()).append(" {\n");
+        for (ExecutableElement method : methods) {
+            code.append('\n');
+            new MethodWriter(method, methods, code).write();
+        }
+        code.append("}\n");
+
+        String qualifiedName =
+                packageName.isEmpty() ? name : packageName + "." + name;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(
+                qualifiedName, type).openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    private static void validate(ExecutableElement method) {
+        if (method.getParameters().size() != 1
+                || method.getReturnType().getKind() != TypeKind.DECLARED
+                || method.getParameters().get(0).asType().getKind()
+                != TypeKind.DECLARED
+                || !method.getTypeParameters().isEmpty()) {
+            throw new MappingException("A mapping method must map one "
+                    + "object to another, non generic object.", method);
+        }
+    }
+
+    /**
+     * {@code MethodWriter} writes the implementation of a mapping method.
+     */
+    private class MethodWriter {
+
+        private final ExecutableElement method;
+
+        private final List<ExecutableElement> methods;
+
+        private final StringBuilder code;
+
+        private final Types types = processingEnv.getTypeUtils();
+
+        private final VariableElement parameter;
+
+        private final String source;
+
+        private final TypeElement sourceType;
+
+        private final TypeElement targetType;
+
+        MethodWriter(ExecutableElement method, List<ExecutableElement> methods,
+                StringBuilder code) {
+            this.method = method;
+            this.methods = methods;
+            this.code = code;
+            parameter = method.getParameters().get(0);
+            source = parameter.getSimpleName().toString();
+            sourceType = asTypeElement(parameter.asType());
+            targetType = asTypeElement(method.getReturnType());
+        }
+
+        void write() {
+            Map<String, VariableElement> targets = properties(targetType);
+            Map<String, VariableElement> sources = properties(sourceType);
+
+            Map<String, Mapping> explicit = new LinkedHashMap<>();
+            List<Mapping> spread = new ArrayList<>();
+            for (Mapping mapping : method.getAnnotationsByType(
+                    Mapping.class)) {
+                if (SELF.equals(mapping.target())) {
+                    if (!sources.containsKey(mapping.source())) {
+                        throw new MappingException("Unknown source property "
+                                + mapping.source() + " of "
+                                + sourceType.getSimpleName(), method);
+                    }
+                    spread.add(mapping);
+                } else if (!targets.containsKey(mapping.target())) {
+                    throw new MappingException("Unknown target property "
+                            + mapping.target() + " of "
+                            + targetType.getSimpleName(), method);
+                } else {
+                    explicit.put(mapping.target(), mapping);
+                }
+            }
+
+            // assignments by target property, the guard is the nested source
+            // object which has to be checked for null, if any
+            Map<String, String[]> assignments = new LinkedHashMap<>();
+            for (VariableElement target : targets.values()) {
+                String name = target.getSimpleName().toString();
+                Mapping mapping = explicit.get(name);
+                if (mapping != null && mapping.ignore()) {
+                    continue;
+                }
+
+                String sourceName = mapping == null
+                        || mapping.source().isEmpty() ? name
+                        : mapping.source();
+                if (SELF.equals(sourceName)) {
+                    assignments.put(name, new String[]{null,
+                            convert(source, parameter.asType(), target)});
+                } else if (sources.containsKey(sourceName)) {
+                    VariableElement property = sources.get(sourceName);
+                    assignments.put(name, new String[]{null,
+                            convert(source + "." + getter(property) + "()",
+                                    property.asType(), target)});
+                } else if (mapping != null) {
+                    throw new MappingException("Unknown source property "
+                            + sourceName + " of "
+                            + sourceType.getSimpleName(), method);
+                }
+            }
+
+            for (Mapping mapping : spread) {
+                VariableElement nested = sources.get(mapping.source());
+                String variable = source + capitalize(mapping.source());
+                for (Map.Entry<String, VariableElement> property
+                        : properties(asTypeElement(nested.asType()))
+                        .entrySet()) {
+                    String name = property.getKey();
+                    VariableElement target = targets.get(name);
+                    if (target == null || assignments.containsKey(name)
+                            || explicit.containsKey(name)) {
+                        continue;
+                    }
+                    assignments.put(name, new String[]{variable,
+                            convert(variable + "."
+                                            + getter(property.getValue()) + "()",
+                                    property.getValue().asType(), target)});
+                }
+            }
+
+            for (String name : targets.keySet()) {
+                if (!assignments.containsKey(name)
+                        && !(explicit.containsKey(name)
+                        && explicit.get(name).ignore())) {
+                    processingEnv.getMessager().printMessage(
+                            Diagnostic.Kind.WARNING, "Unmapped target property "
+                                    + name + " of "
+                                    + targetType.getSimpleName(), method);
+                }
+            }
+
+            writeBody(targets, spread, assignments);
+        }
+
+        private void writeBody(Map<String, VariableElement> targets,
+                List<Mapping> spread, Map<String, String[]> assignments) {
+            String targetName = targetType.getQualifiedName().toString();
+            code.append("    @Override\n")
+                    .append("    public ").append(targetName).append(' ')
+                    .append(method.getSimpleName()).append('(')
+                    .append(types.erasure(parameter.asType())).append(' ')
+                    .append(source).append(") {\n")
+                    .append("        if (").append(source)
+                    .append(" == null) {\n")
+                    .append("            return null;\n")
+                    .append("        }\n\n")
+                    .append("        ").append(targetName).append(' ')
+                    .append(RESULT).append(" = new ").append(targetName)
+                    .append("();\n");
+
+            for (Map.Entry<String, String[]> assignment
+                    : assignments.entrySet()) {
+                if (assignment.getValue()[0] == null) {
+                    writeAssignment("        ", targets, assignment);
+                }
+            }
+
+            Map<String, VariableElement> sources = properties(sourceType);
+            for (Mapping mapping : spread) {
+                String variable = source + capitalize(mapping.source());
+                VariableElement nested = sources.get(mapping.source());
+                code.append("        ")
+                        .append(types.erasure(nested.asType())).append(' ')
+                        .append(variable).append(" = ").append(source)
+                        .append('.').append(getter(nested)).append("();\n")
+                        .append("        if (").append(variable)
+                        .append(" != null) {\n");
+                for (Map.Entry<String, String[]> assignment
+                        : assignments.entrySet()) {
+                    if (variable.equals(assignment.getValue()[0])) {
+                        writeAssignment("            ", targets, assignment);
+                    }
+                }
+                code.append("        }\n");
+            }
+
+            code.append("\n        return ").append(RESULT).append(";\n")
+                    .append("    }\n");
+        }
+
+        private void writeAssignment(String indent,
+                Map<String, VariableElement> targets,
+                Map.Entry<String, String[]> assignment) {
+            code.append(indent).append(RESULT).append('.')
+                    .append(setter(targets.get(assignment.getKey())))
+                    .append('(').append(assignment.getValue()[1])
+                    .append(");\n");
+        }
+
+        /**
+         * Returns the expression converting a source value to the type of a
+         * target property, preferring a mapping method of the interface.
+         */
+        private String convert(String expression, TypeMirror from,
+                VariableElement target) {
+            TypeMirror to = target.asType();
+            for (ExecutableElement candidate : methods) {
+                if (types.isSameType(candidate.getParameters().get(0).asType(),
+                        from) && types.isSameType(candidate.getReturnType(),
+                        to)) {
+                    return candidate.getSimpleName() + "(" + expression + ")";
+                }
+            }
+
+            if (types.isAssignable(from, to)) {
+                return expression;
+            }
+
+            throw new MappingException("Can't map " + from + " to property "
+                    + target.getSimpleName() + " of type " + to, method);
+        }
+
+        private TypeElement asTypeElement(TypeMirror type) {
+            if (type.getKind() != TypeKind.DECLARED) {
+                throw new MappingException(
+                        "Can't map properties of " + type, method);
+            }
+
+            return (TypeElement) ((DeclaredType) type).asElement();
+        }
+    }
+
+    /**
+     * Returns the non-static fields of a type and its super classes by name.
+     */
+    private static Map<String, VariableElement> properties(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; current != null
+                && !current.getQualifiedName().contentEquals(
+                "java.lang.Object"); ) {
+            hierarchy.add(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement()
+                    : null;
+        }
+        Collections.reverse(hierarchy);
+
+        Map<String, VariableElement> properties = new LinkedHashMap<>();
+        for (TypeElement current : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(
+                    current.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    properties.put(field.getSimpleName().toString(), field);
+                }
+            }
+        }
+
+        return properties;
+    }
+
+    private static String getter(VariableElement field) {
+        String prefix =
+                field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+
+        return prefix + capitalize(field.getSimpleName().toString());
+    }
+
+    private static String setter(VariableElement field) {
+        return "set" + capitalize(field.getSimpleName().toString());
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * {@code MappingException} is thrown when a mapping can't be generated.
+     */
+    private static class MappingException extends RuntimeException {
+
+        private final transient Element element;
+
+        MappingException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
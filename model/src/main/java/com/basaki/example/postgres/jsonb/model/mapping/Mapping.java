@@ -0,0 +1,46 @@
+package com.basaki.example.postgres.jsonb.model.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code Mapping} configures how a target property of a
+ * {@code GeneratedMapper} method is mapped. Without a mapping, a target
+ * property is mapped from the source property with the same name.
+ * <p/>
+ * The special name {@code "."} stands for the mapped object itself:
+ * <ul>
+ * <li>{@code @Mapping(target = "book", source = ".")} maps the source object
+ * to the {@code book} property of the target.</li>
+ * <li>{@code @Mapping(target = ".", source = "book")} maps the properties of
+ * the source's {@code book} to the target properties with the same names,
+ * unless the source itself has a property with that name.</li>
+ * </ul>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+@Repeatable(Mappings.class)
+public @interface Mapping {
+
+    /**
+     * Name of the target property or {@code "."}.
+     */
+    String target();
+
+    /**
+     * Name of the source property or {@code "."}, defaults to the target
+     * property.
+     */
+    String source() default "";
+
+    /**
+     * Leaves the target property unmapped.
+     */
+    boolean ignore() default false;
+}
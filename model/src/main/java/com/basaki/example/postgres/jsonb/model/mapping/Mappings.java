@@ -0,0 +1,20 @@
+package com.basaki.example.postgres.jsonb.model.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code Mappings} holds the repeated {@code Mapping}s of a method.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Mappings {
+
+    Mapping[] value();
+}
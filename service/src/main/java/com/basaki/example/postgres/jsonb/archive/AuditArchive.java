@@ -0,0 +1,160 @@
+package com.basaki.example.postgres.jsonb.archive;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code AuditArchive} is the cold tier of the audit history, a directory of
+ * append-only audit segment files. Each archiving run writes one new segment
+ * with the records older than its cutoff, so a segment only holds records
+ * older than those of the segments written after it. Segments are never
+ * modified once written.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Slf4j
+public class AuditArchive {
+
+    private static final String PREFIX = "audit-";
+
+    private static final String SUFFIX = ".seg";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    // oldest first
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+
+    private long sequence;
+
+    /**
+     * Opens the archive in a directory. The directory is created when the
+     * first segment is written.
+     *
+     * @param directory the archive directory
+     * @throws IOException if a segment can't be opened
+     */
+    public AuditArchive(Path directory) throws IOException {
+        this.directory = directory;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(
+                directory, PREFIX + "*")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // left over by an interrupted archiving run
+                    Files.delete(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        }
+
+        Collections.sort(files);
+        for (Path file : files) {
+            segments.add(AuditSegment.open(file));
+            sequence = Math.max(sequence, sequenceOf(file));
+        }
+
+        log.info("Opened " + segments.size() + " audit segments in "
+                + directory);
+    }
+
+    /**
+     * Starts writing a new segment. It becomes visible once committed.
+     *
+     * @return the segment writer
+     * @throws IOException if the segment file can't be created
+     */
+    public AuditSegmentWriter newSegment() throws IOException {
+        Files.createDirectories(directory);
+
+        return new AuditSegmentWriter(
+                Files.createTempFile(directory, PREFIX, TEMP_SUFFIX));
+    }
+
+    /**
+     * Finishes a segment and adds it to the archive.
+     *
+     * @param writer the segment writer
+     * @return the segment
+     * @throws IOException if the segment can't be written
+     */
+    public synchronized AuditSegment commit(
+            AuditSegmentWriter writer) throws IOException {
+        Path temp = writer.finish();
+        Path file = directory.resolve(
+                String.format("%s%020d%s", PREFIX, sequence + 1, SUFFIX));
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        sequence++;
+
+        AuditSegment segment = AuditSegment.open(file);
+        segments.add(segment);
+
+        return segment;
+    }
+
+    /**
+     * Abandons a segment which hasn't been committed.
+     *
+     * @param writer the segment writer
+     * @throws IOException if the segment file can't be deleted
+     */
+    public void discard(AuditSegmentWriter writer) throws IOException {
+        writer.close();
+        Files.deleteIfExists(writer.getFile());
+    }
+
+    /**
+     * Finds the archived records of a book made within a time range.
+     *
+     * @param id    the book identifier
+     * @param from  earliest time of a record in milliseconds, inclusive
+     * @param upper latest time of a record in milliseconds, exclusive
+     * @param limit maximum number of records returned
+     * @return the records, newest first
+     */
+    public List<AuditRecord> find(UUID id, long from, long upper, int limit) {
+        List<AuditRecord> records = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 0 && records.size() < limit;
+                i--) {
+            List<AuditRecord> found = segments.get(i).find(id, from, upper);
+            for (int j = found.size() - 1; j >= 0 && records.size() < limit;
+                    j--) {
+                records.add(found.get(j));
+            }
+        }
+
+        return records;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(),
+                    name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
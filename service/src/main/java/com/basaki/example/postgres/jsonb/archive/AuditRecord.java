@@ -0,0 +1,27 @@
+package com.basaki.example.postgres.jsonb.archive;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@code AuditRecord} is an archived audit record of a book. The document is
+ * the UTF-8 encoded JSON of the audit record, including the full state of the
+ * book.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecord {
+
+    private UUID id;
+
+    private long madeAt;
+
+    private byte[] document;
+}
@@ -0,0 +1,239 @@
+package com.basaki.example.postgres.jsonb.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * {@code AuditSegment} is a read-only, memory-mapped audit segment file. The
+ * file is laid out as
+ * <pre>
+ * header  magic (int), version (int)
+ * blocks  one deflated block per book, holding its records in time order,
+ *         each as made at (long), length (int), JSON document (bytes)
+ * index   one entry per book, sorted by book identifier
+ * footer  index offset (long), entry count (int), magic (int)
+ * </pre>
+ * The index entries have a fixed size, so a book's block is found with a
+ * binary search in the mapped index and only that block is inflated.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class AuditSegment {
+
+    static final int MAGIC = 0x41554442;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 8;
+
+    static final int ENTRY_SIZE = 52;
+
+    static final int FOOTER_SIZE = 16;
+
+    private final Path file;
+
+    private final ByteBuffer buffer;
+
+    private final int indexOffset;
+
+    private final int entryCount;
+
+    private AuditSegment(Path file, ByteBuffer buffer, int indexOffset,
+            int entryCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.indexOffset = indexOffset;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Maps a segment file into memory.
+     *
+     * @param file the segment file
+     * @return the segment
+     * @throws IOException if the file can't be mapped or isn't a valid segment
+     */
+    public static AuditSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid audit segment size " + size
+                        + " of " + file);
+            }
+
+            ByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int footer = (int) size - FOOTER_SIZE;
+            long indexOffset = buffer.getLong(footer);
+            int entryCount = buffer.getInt(footer + 8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(footer + 12) != MAGIC
+                    || indexOffset + (long) entryCount * ENTRY_SIZE != footer) {
+                throw new IOException("Invalid audit segment " + file);
+            }
+
+            return new AuditSegment(file, buffer, (int) indexOffset,
+                    entryCount);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Finds the records of a book made within a time range.
+     *
+     * @param id    the book identifier
+     * @param from  earliest time of a record in milliseconds, inclusive
+     * @param upper latest time of a record in milliseconds, exclusive
+     * @return the records in time order
+     */
+    public List<AuditRecord> find(UUID id, long from, long upper) {
+        int index = search(id);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+
+        Entry entry = readEntry(index);
+        if (entry.getMaxMadeAt() < from || entry.getMinMadeAt() >= upper) {
+            return Collections.emptyList();
+        }
+
+        ByteBuffer block = ByteBuffer.wrap(inflate(entry));
+        List<AuditRecord> records = new ArrayList<>();
+        for (int i = 0; i < entry.getCount(); i++) {
+            long madeAt = block.getLong();
+            byte[] document = new byte[block.getInt()];
+            block.get(document);
+            if (madeAt >= from && madeAt < upper) {
+                records.add(new AuditRecord(id, madeAt, document));
+            }
+        }
+
+        return records;
+    }
+
+    private int search(UUID id) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = indexOffset + mid * ENTRY_SIZE;
+            int cmp = compare(buffer.getLong(position),
+                    buffer.getLong(position + 8), id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    private Entry readEntry(int index) {
+        int position = indexOffset + index * ENTRY_SIZE;
+
+        return new Entry(new UUID(buffer.getLong(position),
+                buffer.getLong(position + 8)),
+                buffer.getLong(position + 16),
+                buffer.getLong(position + 24),
+                buffer.getLong(position + 32),
+                buffer.getInt(position + 40),
+                buffer.getInt(position + 44),
+                buffer.getInt(position + 48));
+    }
+
+    private byte[] inflate(Entry entry) {
+        byte[] input = new byte[entry.getCompressedLength()];
+        ByteBuffer block = buffer.duplicate();
+        block.position((int) entry.getOffset());
+        block.get(input);
+
+        byte[] output = new byte[entry.getRawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < output.length && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length,
+                        output.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != output.length) {
+                throw new IllegalStateException("Truncated block of book "
+                        + entry.getId() + " in audit segment " + file);
+            }
+
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block of book "
+                    + entry.getId() + " in audit segment " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Compares identifiers the way PostgreSQL orders {@code UUID}s, as
+     * unsigned 128-bit numbers.
+     */
+    private static int compare(long msb, long lsb, UUID id) {
+        int cmp = Long.compareUnsigned(msb, id.getMostSignificantBits());
+
+        return cmp != 0 ? cmp
+                : Long.compareUnsigned(lsb, id.getLeastSignificantBits());
+    }
+
+    /**
+     * {@code Entry} is an index entry locating the block of a book.
+     */
+    @Data
+    @AllArgsConstructor
+    static class Entry implements Comparable<Entry> {
+
+        private UUID id;
+
+        private long minMadeAt;
+
+        private long maxMadeAt;
+
+        private long offset;
+
+        private int compressedLength;
+
+        private int rawLength;
+
+        private int count;
+
+        @Override
+        public int compareTo(Entry other) {
+            return -compare(other.id.getMostSignificantBits(),
+                    other.id.getLeastSignificantBits(), id);
+        }
+    }
+}
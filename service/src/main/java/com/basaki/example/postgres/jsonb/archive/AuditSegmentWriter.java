@@ -0,0 +1,174 @@
+package com.basaki.example.postgres.jsonb.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * {@code AuditSegmentWriter} writes an audit segment file in a single pass.
+ * The records of a book have to be appended one after the other in time
+ * order. They are compressed together into one block, and the block is
+ * indexed by the book identifier once the segment is finished.
+ * <p/>
+ * The segment layout is a header, the compressed blocks, the index entries
+ * sorted by book identifier and a footer locating the index, see
+ * {@link AuditSegment}.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class AuditSegmentWriter implements Closeable {
+
+    private final Path file;
+
+    private final FileOutputStream fileOut;
+
+    private final DataOutputStream out;
+
+    private final Deflater deflater = new Deflater();
+
+    private final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+
+    private final DataOutputStream rawOut = new DataOutputStream(raw);
+
+    private final ByteArrayOutputStream compressed =
+            new ByteArrayOutputStream();
+
+    private final List<AuditSegment.Entry> entries = new ArrayList<>();
+
+    private final Set<UUID> ids = new HashSet<>();
+
+    private long position;
+
+    private UUID current;
+
+    private long minMadeAt;
+
+    private long maxMadeAt;
+
+    private int count;
+
+    private long records;
+
+    AuditSegmentWriter(Path file) throws IOException {
+        this.file = file;
+        fileOut = new FileOutputStream(file.toFile());
+        out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024));
+        out.writeInt(AuditSegment.MAGIC);
+        out.writeInt(AuditSegment.VERSION);
+        position = AuditSegment.HEADER_SIZE;
+    }
+
+    /**
+     * Appends an audit record of a book.
+     *
+     * @param id       the book identifier
+     * @param madeAt   the time of the record in milliseconds since the epoch
+     * @param document the JSON audit record
+     * @throws IOException if the record can't be written
+     */
+    public void append(UUID id, long madeAt,
+            byte[] document) throws IOException {
+        if (!id.equals(current)) {
+            flushBlock();
+            if (!ids.add(id)) {
+                throw new IllegalStateException(
+                        "Audit records of book " + id + " aren't contiguous");
+            }
+            current = id;
+            minMadeAt = madeAt;
+        } else if (madeAt < maxMadeAt) {
+            throw new IllegalStateException(
+                    "Audit records of book " + id + " aren't in time order");
+        }
+
+        maxMadeAt = madeAt;
+        count++;
+        records++;
+        rawOut.writeLong(madeAt);
+        rawOut.writeInt(document.length);
+        rawOut.write(document);
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Writes the index and the footer and forces the segment to disk.
+     *
+     * @return the segment file
+     * @throws IOException if the segment can't be written
+     */
+    Path finish() throws IOException {
+        flushBlock();
+
+        entries.sort(AuditSegment.Entry::compareTo);
+        long indexOffset = position;
+        for (AuditSegment.Entry entry : entries) {
+            out.writeLong(entry.getId().getMostSignificantBits());
+            out.writeLong(entry.getId().getLeastSignificantBits());
+            out.writeLong(entry.getMinMadeAt());
+            out.writeLong(entry.getMaxMadeAt());
+            out.writeLong(entry.getOffset());
+            out.writeInt(entry.getCompressedLength());
+            out.writeInt(entry.getRawLength());
+            out.writeInt(entry.getCount());
+        }
+        out.writeLong(indexOffset);
+        out.writeInt(entries.size());
+        out.writeInt(AuditSegment.MAGIC);
+        out.flush();
+        fileOut.getChannel().force(true);
+        close();
+
+        return file;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        out.close();
+    }
+
+    private void flushBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+
+        compressed.reset();
+        deflater.reset();
+        try (DeflaterOutputStream deflaterOut =
+                     new DeflaterOutputStream(compressed, deflater)) {
+            raw.writeTo(deflaterOut);
+        }
+
+        if (position + compressed.size() > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "Audit segment exceeds 2 GB, archive in smaller steps");
+        }
+
+        entries.add(new AuditSegment.Entry(current, minMadeAt, maxMadeAt,
+                position, compressed.size(), raw.size(), count));
+        compressed.writeTo(out);
+        position += compressed.size();
+
+        raw.reset();
+        count = 0;
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -24,6 +25,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
         "com.basaki.example.postgres.jsonb.error",
         "com.basaki.example.postgres.spring.jsonb.model",
         "com.basaki.example.postgres.jsonb.service"})
+@EnableScheduling
 public class BookApplication {
     public static void main(String[] args) {
         SpringApplication.run(BookApplication.class, args);
@@ -0,0 +1,64 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code CacheStatistics} keeps the hit, miss, and eviction counters of a
+ * {@code LocalCache}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class CacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public void recordExpiration() {
+        expirations.increment();
+    }
+
+    public void recordInvalidation() {
+        invalidations.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+}
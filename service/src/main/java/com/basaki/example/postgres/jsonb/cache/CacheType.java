@@ -0,0 +1,21 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+/**
+ * {@code CacheType} represents the implementation of a {@code LocalCache}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum CacheType {
+
+    /**
+     * Disables caching.
+     */
+    NONE,
+
+    /**
+     * Size and TTL bounded cache with W-TinyLFU eviction.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,98 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+/**
+ * {@code FrequencySketch} is a count-min sketch with four-bit counters used by
+ * {@code TinyLfuLocalCache} to estimate the popularity of a key. Counters are
+ * halved once the number of recorded accesses reaches ten times the cache
+ * size, so that the estimate favours recent history.
+ * <p/>
+ * This class is not thread safe and is guarded by the cache's lock.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+
+    private final int tableMask;
+
+    private final int sampleSize;
+
+    private int size;
+
+    FrequencySketch(long maximumSize) {
+        int maximum = (int) Math.min(Math.max(maximumSize, 16), 1 << 30);
+        int capacity = Integer.highestOneBit(maximum - 1) << 1;
+        table = new long[capacity];
+        tableMask = capacity - 1;
+        sampleSize = 10 * maximum;
+    }
+
+    /**
+     * Returns the estimated number of accesses of a key.
+     *
+     * @param key the key
+     * @return estimated frequency, at most 15
+     */
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = spread(hash, i);
+            int index = (int) h & tableMask;
+            int shift = counterShift(h);
+            int count = (int) ((table[index] >>> shift) & MAX_COUNT);
+            frequency = Math.min(frequency, count);
+        }
+
+        return frequency;
+    }
+
+    /**
+     * Records an access of a key.
+     *
+     * @param key the key
+     */
+    void increment(Object key) {
+        int hash = key.hashCode();
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = spread(hash, i);
+            int index = (int) h & tableMask;
+            int shift = counterShift(h);
+            if (((table[index] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size /= 2;
+    }
+
+    private static long spread(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        return h ^ (h >>> 32);
+    }
+
+    private static int counterShift(long h) {
+        return (int) ((h >>> 40) & 15) << 2;
+    }
+}
@@ -0,0 +1,45 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+/**
+ * {@code LocalCache} is an in-process cache. A value put in the cache is only
+ * stored if no invalidation happened since the stamp passed along with it was
+ * taken, so that a value loaded concurrently with a write is never cached.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public interface LocalCache<K, V> {
+
+    /**
+     * Returns the cached value of a key.
+     *
+     * @param key the key
+     * @return the cached value or null if the key isn't cached
+     */
+    V get(K key);
+
+    /**
+     * Returns a stamp to be passed to {@link #put(Object, Object, long)}. It
+     * should be taken before the value is loaded.
+     *
+     * @return the current invalidation stamp
+     */
+    long stamp();
+
+    /**
+     * Caches a value unless the cache has been invalidated after the stamp was
+     * taken.
+     *
+     * @param key   the key
+     * @param value the value to be cached
+     * @param stamp the stamp taken before the value was loaded
+     */
+    void put(K key, V value, long stamp);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    CacheStatistics getStatistics();
+}
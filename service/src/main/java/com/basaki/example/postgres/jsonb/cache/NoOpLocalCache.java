@@ -0,0 +1,45 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+/**
+ * {@code NoOpLocalCache} is a {@code LocalCache} which never caches anything.
+ * Every lookup is counted as a miss.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class NoOpLocalCache<K, V> implements LocalCache<K, V> {
+
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    @Override
+    public V get(K key) {
+        statistics.recordMiss();
+        return null;
+    }
+
+    @Override
+    public long stamp() {
+        return 0;
+    }
+
+    @Override
+    public void put(K key, V value, long stamp) {
+        // nothing to cache
+    }
+
+    @Override
+    public void invalidate(K key) {
+        // nothing to invalidate
+    }
+
+    @Override
+    public void invalidateAll() {
+        // nothing to invalidate
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,373 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * {@code TinyLfuLocalCache} is a size and TTL bounded {@code LocalCache} with
+ * W-TinyLFU eviction. New entries enter a small LRU admission window. Entries
+ * leaving the window compete with the LRU victim of the probation segment of
+ * the main space; the one with the lower estimated access frequency is
+ * evicted. Entries hit while on probation are promoted to the protected
+ * segment.
+ * <p/>
+ * Lookups don't block. Access order is updated only if the policy lock is
+ * free, so a hot entry may occasionally miss an update under contention.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class TinyLfuLocalCache<K, V> implements LocalCache<K, V> {
+
+    private static final byte WINDOW = 0;
+
+    private static final byte PROBATION = 1;
+
+    private static final byte PROTECTED = 2;
+
+    private static final byte REMOVED = 3;
+
+    private final ConcurrentMap<K, Node<K, V>> data;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    private final FrequencySketch sketch;
+
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+
+    private final AccessOrderDeque<K, V> protectedSegment =
+            new AccessOrderDeque<>();
+
+    private final long maximumSize;
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private final long expireAfterWriteNanos;
+
+    private final LongSupplier ticker;
+
+    public TinyLfuLocalCache(long maximumSize, long expireAfterWrite,
+            TimeUnit unit) {
+        this(maximumSize, expireAfterWrite, unit, System::nanoTime);
+    }
+
+    public TinyLfuLocalCache(long maximumSize, long expireAfterWrite,
+            TimeUnit unit, LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum size should be greater than zero.");
+        }
+
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (long) ((maximumSize - windowMaximum) * 0.8);
+        this.expireAfterWriteNanos = expireAfterWrite > 0
+                ? unit.toNanos(expireAfterWrite) : Long.MAX_VALUE;
+        this.ticker = ticker;
+        this.data = new ConcurrentHashMap<>(
+                (int) Math.min(maximumSize, 1 << 16));
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+
+        if (node == null) {
+            statistics.recordMiss();
+            if (lock.tryLock()) {
+                try {
+                    sketch.increment(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return null;
+        }
+
+        if (isExpired(node)) {
+            statistics.recordMiss();
+            lock.lock();
+            try {
+                if (data.remove(key, node)) {
+                    unlink(node);
+                    statistics.recordExpiration();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+
+        statistics.recordHit();
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(key);
+                onHit(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return node.value;
+    }
+
+    @Override
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    @Override
+    public void put(K key, V value, long stamp) {
+        lock.lock();
+        try {
+            if (stamp != invalidations.get()) {
+                return;
+            }
+
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                node.value = value;
+                node.writeTime = ticker.getAsLong();
+                onHit(node);
+                return;
+            }
+
+            node = new Node<>(key, value, ticker.getAsLong());
+            data.put(key, node);
+            node.segment = WINDOW;
+            window.addLast(node);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        lock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+                statistics.recordInvalidation();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            statistics.recordInvalidation();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    public long size() {
+        return data.size();
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return ticker.getAsLong() - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.segment = PROTECTED;
+                protectedSegment.addLast(node);
+                while (protectedSegment.size() > protectedMaximum) {
+                    Node<K, V> demoted = protectedSegment.pollFirst();
+                    demoted.segment = PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedSegment.moveToLast(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void evict() {
+        while (window.size() > windowMaximum) {
+            Node<K, V> node = window.pollFirst();
+            node.segment = PROBATION;
+            probation.addLast(node);
+        }
+
+        while (window.size() + probation.size() + protectedSegment.size()
+                > maximumSize) {
+            Node<K, V> candidate = probation.peekLast();
+            Node<K, V> victim = probation.peekFirst();
+
+            if (victim == null) {
+                victim = protectedSegment.peekFirst();
+                if (victim == null) {
+                    victim = window.peekFirst();
+                }
+            } else if (candidate != victim && sketch.frequency(
+                    candidate.key) <= sketch.frequency(victim.key)) {
+                victim = candidate;
+            }
+
+            data.remove(victim.key, victim);
+            unlink(victim);
+            statistics.recordEviction();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                break;
+            default:
+                break;
+        }
+        node.segment = REMOVED;
+    }
+
+    private static class Node<K, V> {
+
+        private final K key;
+
+        private volatile V value;
+
+        private volatile long writeTime;
+
+        private byte segment;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        Node(K key, V value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * {@code AccessOrderDeque} is an intrusive doubly linked list of nodes
+     * ordered from least to most recently used.
+     */
+    private static class AccessOrderDeque<K, V> {
+
+        private Node<K, V> first;
+
+        private Node<K, V> last;
+
+        private long size;
+
+        long size() {
+            return size;
+        }
+
+        Node<K, V> peekFirst() {
+            return first;
+        }
+
+        Node<K, V> peekLast() {
+            return last;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = first;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            Node<K, V> node = first;
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.segment = REMOVED;
+                node = next;
+            }
+            first = null;
+            last = null;
+            size = 0;
+        }
+    }
+}
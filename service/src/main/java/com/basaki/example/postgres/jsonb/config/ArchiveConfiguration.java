@@ -0,0 +1,31 @@
+package com.basaki.example.postgres.jsonb.config;
+
+import com.basaki.example.postgres.jsonb.archive.AuditArchive;
+import java.io.IOException;
+import java.nio.file.Paths;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code ArchiveConfiguration} is the configuration for setting up the audit
+ * archive, the local segment files holding audit history moved out of the
+ * database.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Configuration
+public class ArchiveConfiguration {
+
+    @Setter
+    @Value("${audit.archive.directory:audit-archive}")
+    private String directory;
+
+    @Bean
+    public AuditArchive auditArchive() throws IOException {
+        return new AuditArchive(Paths.get(directory));
+    }
+}
@@ -0,0 +1,86 @@
+package com.basaki.example.postgres.jsonb.config;
+
+import com.basaki.example.postgres.jsonb.cache.CacheStatistics;
+import com.basaki.example.postgres.jsonb.cache.CacheType;
+import com.basaki.example.postgres.jsonb.cache.LocalCache;
+import com.basaki.example.postgres.jsonb.cache.NoOpLocalCache;
+import com.basaki.example.postgres.jsonb.cache.TinyLfuLocalCache;
+import com.basaki.example.postgres.jsonb.model.Book;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code CacheConfiguration} is the configuration for setting up the
+ * in-process book cache used by {@code BookService} to serve reads by
+ * identifier.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Configuration
+public class CacheConfiguration {
+
+    @Setter
+    @Value("${cache.books.type:TINY_LFU}")
+    private CacheType type;
+
+    @Setter
+    @Value("${cache.books.maximumSize:10000}")
+    private long maximumSize;
+
+    @Setter
+    @Value("${cache.books.expireAfterWriteSeconds:300}")
+    private long expireAfterWriteSeconds;
+
+    @Bean
+    public LocalCache<UUID, Book> bookCache() {
+        if (type == CacheType.NONE) {
+            return new NoOpLocalCache<>();
+        }
+
+        return new TinyLfuLocalCache<>(maximumSize, expireAfterWriteSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates the public metrics of the book cache.
+     *
+     * @param bookCache the book cache
+     * @return the book cache metrics
+     */
+    @Bean
+    public PublicMetrics bookCacheMetrics(LocalCache<UUID, Book> bookCache) {
+        return () -> {
+            CacheStatistics stats = bookCache.getStatistics();
+            List<Metric<?>> metrics = new ArrayList<>();
+            metrics.add(new Metric<>("cache.books.hits", stats.getHits()));
+            metrics.add(new Metric<>("cache.books.misses", stats.getMisses()));
+            metrics.add(new Metric<>("cache.books.evictions",
+                    stats.getEvictions()));
+            metrics.add(new Metric<>("cache.books.expirations",
+                    stats.getExpirations()));
+            metrics.add(new Metric<>("cache.books.invalidations",
+                    stats.getInvalidations()));
+
+            long lookups = stats.getHits() + stats.getMisses();
+            metrics.add(new Metric<>("cache.books.hitRatio",
+                    lookups == 0 ? 0.0 : (double) stats.getHits() / lookups));
+
+            if (bookCache instanceof TinyLfuLocalCache) {
+                metrics.add(new Metric<>("cache.books.size",
+                        ((TinyLfuLocalCache<UUID, Book>) bookCache).size()));
+            }
+
+            return metrics;
+        };
+    }
+}
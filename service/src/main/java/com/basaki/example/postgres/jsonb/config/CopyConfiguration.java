@@ -0,0 +1,74 @@
+package com.basaki.example.postgres.jsonb.config;
+
+import com.basaki.example.postgres.jsonb.service.BookCopyService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.Assert;
+
+/**
+ * {@code CopyConfiguration} is the configuration for the bulk export of books.
+ * A parallel export holds a coordinator connection and one connection per
+ * worker, all taken from the primary pool. Exports share a budget of
+ * {@code datasource.maxActive - 1} connections, so at least one connection is
+ * always left for other requests.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Configuration
+public class CopyConfiguration {
+
+    @Setter
+    @Value("${datasource.maxActive:3}")
+    private int maxActive;
+
+    @Setter
+    @Value("${book.export.maxParallelism:1}")
+    private int maxParallelism;
+
+    /**
+     * Creates the executor running the workers of parallel exports. The
+     * export connection budget bounds the number of running workers to
+     * {@code datasource.maxActive - 2}.
+     *
+     * @return the export executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService exportExecutor() {
+        Assert.state(BookCopyService.connectionsOf(maxParallelism) < maxActive,
+                "The connections of an export with book.export.maxParallelism "
+                        + maxParallelism + " should be less than "
+                        + "datasource.maxActive " + maxActive + ".");
+
+        int threads = Math.max(1, maxActive - 2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads),
+                new ExportThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    private static class ExportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "book-export-" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
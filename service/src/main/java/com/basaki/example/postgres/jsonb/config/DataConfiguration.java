@@ -1,10 +1,25 @@
 package com.basaki.example.postgres.jsonb.config;
 
+import com.basaki.example.postgres.jsonb.data.codec.CodecMode;
+import com.basaki.example.postgres.jsonb.data.codec.JsonbCodec;
+import com.basaki.example.postgres.jsonb.data.pool.ConnectionLifetimeInterceptor;
+import com.basaki.example.postgres.jsonb.data.pool.InstrumentedDataSource;
+import com.basaki.example.postgres.jsonb.data.pool.IsValidValidator;
+import com.basaki.example.postgres.jsonb.data.pool.PoolType;
 import com.basaki.example.postgres.jsonb.data.repository.CustomSimpleJpaRepository;
+import com.basaki.example.postgres.jsonb.data.routing.LazyRoutingDataSource;
+import com.basaki.example.postgres.jsonb.data.routing.ReadYourWrites;
+import com.basaki.example.postgres.jsonb.data.routing.ReadYourWritesFilter;
+import com.basaki.example.postgres.jsonb.data.routing.ReplicaRoutingDataSource;
+import com.basaki.example.postgres.jsonb.data.strategy.DirtinessMode;
+import com.basaki.example.postgres.jsonb.data.strategy.EntityDirtinessStrategy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import javax.sql.DataSource;
 import lombok.Setter;
 import org.apache.commons.dbcp.BasicDataSource;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +48,10 @@ public class DataConfiguration {
             "com.basaki.example.postgres.jsonb.data.entity"
     };
 
+    @Setter
+    @Value("${datasource.pool:TOMCAT}")
+    private PoolType poolType;
+
     @Setter
     @Value("${datasource.url}")
     private String url;
@@ -82,8 +101,44 @@ public class DataConfiguration {
     private boolean defaultReadOnly;
 
     @Setter
-    @Value("${datasource.maxIdle:1}")
-    private int maxIdle;
+    @Value("${datasource.maxIdle:#{null}}")
+    private Integer maxIdle;
+
+    @Setter
+    @Value("${datasource.minIdle:#{null}}")
+    private Integer minIdle;
+
+    @Setter
+    @Value("${datasource.maxWait:30000}")
+    private int maxWait;
+
+    @Setter
+    @Value("${datasource.validationInterval:30000}")
+    private long validationInterval;
+
+    @Setter
+    @Value("${datasource.validationTimeoutSeconds:1}")
+    private int validationTimeoutSeconds;
+
+    @Setter
+    @Value("${datasource.replicas.urls:}")
+    private String[] replicaUrls;
+
+    @Setter
+    @Value("${datasource.replicas.ejectMillis:30000}")
+    private long replicaEjectMillis;
+
+    @Setter
+    @Value("${datasource.replicas.probeMillis:5000}")
+    private long replicaProbeMillis;
+
+    @Setter
+    @Value("${datasource.replicas.maxLagMillis:10000}")
+    private long replicaMaxLagMillis;
+
+    @Setter
+    @Value("${datasource.replicas.readYourWritesMillis:0}")
+    private long readYourWritesMillis;
 
     @Setter
     @Value("${jpa.hbm2ddl.auto:none}")
@@ -97,19 +152,110 @@ public class DataConfiguration {
     @Value("${jpa.format_sql:true}")
     private boolean formatSql;
 
+    @Setter
+    @Value("${jpa.jdbc.batchSize:50}")
+    private int batchSize;
+
     @Value("${jpa.properties.org.hibernate.flushMode:COMMIT}")
     private String flushMode;
 
     @Value("${jpa.properties.hibernate.entity_dirtiness_strategy:com.basaki.example.postgres.jsonb.data.strategy.EntityDirtinessStrategy}")
     private String dirtinessStrategy;
 
+    @Setter
+    @Value("${jpa.dirtiness.mode:FINGERPRINT}")
+    private DirtinessMode dirtinessMode;
+
+    @Setter
+    @Value("${jpa.jsonb.codec:STREAMING}")
+    private CodecMode codecMode;
 
+    @Setter
+    @Value("${jpa.jsonb.allocationTracking:false}")
+    private boolean allocationTracking;
+
+    /**
+     * Creates the connection pool selected by {@code datasource.pool},
+     * wrapped to measure borrow wait times. If replicas are configured, one
+     * pool is created per database and read-only transactions are routed to
+     * the replicas.
+     *
+     * @return the pooled data source
+     */
     @Bean
     public DataSource dataSource() {
-        //DriverManagerDataSource datasource = new DriverManagerDataSource();
+        DataSource primary = createDataSource(url);
+        if (replicaUrls.length == 0) {
+            return primary;
+        }
+
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.length);
+        for (String replicaUrl : replicaUrls) {
+            replicas.add(createDataSource(replicaUrl.trim()));
+        }
+        ReadYourWrites.setWindowMillis(readYourWritesMillis);
+
+        return new LazyRoutingDataSource(
+                new ReplicaRoutingDataSource(primary, replicas,
+                        replicaEjectMillis, replicaProbeMillis,
+                        replicaMaxLagMillis), defaultTransactionIsolation);
+    }
+
+    /**
+     * Creates the filter binding the audit user of a request for read your
+     * writes routing.
+     *
+     * @return the read your writes filter
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    private DataSource createDataSource(String jdbcUrl) {
+        return new InstrumentedDataSource(poolType == PoolType.DBCP
+                ? createDbcpDataSource(jdbcUrl) : createTomcatDataSource(jdbcUrl));
+    }
+
+    private DataSource createTomcatDataSource(String jdbcUrl) {
+        PoolProperties properties = new PoolProperties();
+        properties.setDriverClassName(org.postgresql.Driver.class.getName());
+        properties.setUrl(jdbcUrl);
+        properties.setUsername(username);
+        properties.setPassword(password);
+
+        properties.setInitialSize(initialSize);
+        properties.setMaxActive(maxActive);
+        //a connection returned beyond maxIdle is closed, so by default the
+        //pool keeps all its connections instead of reconnecting under load
+        int idle = maxIdle != null ? maxIdle : maxActive;
+        properties.setMaxIdle(idle);
+        properties.setMinIdle(minIdle != null ? Math.min(minIdle, idle) : idle);
+        properties.setMaxWait(maxWait);
+        properties.setDefaultTransactionIsolation(defaultTransactionIsolation);
+        properties.setDefaultReadOnly(defaultReadOnly);
+
+        //validates with Connection.isValid, on borrow only if the connection
+        //hasn't been validated within the validation interval
+        properties.setValidator(new IsValidValidator(validationTimeoutSeconds));
+        properties.setTestOnBorrow(testOnBorrow);
+        properties.setValidationInterval(validationInterval);
+        properties.setTestWhileIdle(testWhileIdle);
+        properties.setTimeBetweenEvictionRunsMillis(
+                timeBetweenEvictionRunsMillis);
+        properties.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+
+        properties.setJdbcInterceptors(
+                ConnectionLifetimeInterceptor.class.getName());
+        properties.setJmxEnabled(false);
+
+        return new org.apache.tomcat.jdbc.pool.DataSource(properties);
+    }
+
+    private DataSource createDbcpDataSource(String jdbcUrl) {
         BasicDataSource datasource = new BasicDataSource();
         datasource.setDriverClassName(org.postgresql.Driver.class.getName());
-        datasource.setUrl(url);
+        datasource.setUrl(jdbcUrl);
         datasource.setUsername(username);
         datasource.setPassword(password);
 
@@ -124,7 +270,7 @@ public class DataConfiguration {
         datasource.setDefaultTransactionIsolation(defaultTransactionIsolation);
         datasource.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
         datasource.setDefaultReadOnly(defaultReadOnly);
-        datasource.setMaxIdle(maxIdle);
+        datasource.setMaxIdle(maxIdle != null ? maxIdle : 1);
 
         return datasource;
     }
@@ -172,12 +318,24 @@ public class DataConfiguration {
 
         jpaProperties.put("org.hibernate.flushMode", flushMode);
 
+        //Groups inserts and updates of the same entity into JDBC batches of
+        //the given size
+        jpaProperties.put("hibernate.jdbc.batch_size", batchSize);
+        jpaProperties.put("hibernate.order_inserts", true);
+        jpaProperties.put("hibernate.order_updates", true);
+
         //dirtiness strategy used to identify dirty state of an entity during flush cycle
         jpaProperties.put("hibernate.entity_dirtiness_strategy",
                 dirtinessStrategy);
+        EntityDirtinessStrategy.setMode(dirtinessMode);
 
         factory.setJpaProperties(jpaProperties);
 
+        //JSONB codec used by JsonbUserType; user types are instantiated by
+        //Hibernate, so the codec is configured before the factory is built
+        JsonbCodec.setDefaultMode(codecMode);
+        JsonbCodec.getStatistics().setAllocationTracking(allocationTracking);
+
         return factory;
     }
 
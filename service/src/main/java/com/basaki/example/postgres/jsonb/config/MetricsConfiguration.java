@@ -0,0 +1,245 @@
+package com.basaki.example.postgres.jsonb.config;
+
+import com.basaki.example.postgres.jsonb.data.audit.AuditUserContext;
+import com.basaki.example.postgres.jsonb.data.codec.JsonbCodec;
+import com.basaki.example.postgres.jsonb.data.codec.JsonbCodecStatistics;
+import com.basaki.example.postgres.jsonb.data.pool.ConnectionLifetimeInterceptor;
+import com.basaki.example.postgres.jsonb.data.pool.InstrumentedDataSource;
+import com.basaki.example.postgres.jsonb.data.routing.LazyRoutingDataSource;
+import com.basaki.example.postgres.jsonb.data.routing.ReplicaRoutingDataSource;
+import com.basaki.example.postgres.jsonb.data.strategy.EntityDirtinessStrategy;
+import com.basaki.example.postgres.jsonb.metrics.Histogram;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
+import com.basaki.example.postgres.jsonb.metrics.OperationMetricsInterceptor;
+import com.basaki.example.postgres.jsonb.service.BookService;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * {@code MetricsConfiguration} is the configuration for exposing the
+ * persistence layer metrics through the actuator {@code /metrics} endpoint.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final String[] PERCENTILE_SUFFIXES =
+            {".p50", ".p90", ".p99", ".p999"};
+
+    private static final long NANOS_PER_MICRO = 1000;
+
+    /**
+     * Creates the advisor timing each {@code BookService} operation. It is
+     * the outermost advice, so the time includes the transaction commit.
+     *
+     * @return the book service metrics advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor bookServiceMetricsAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(BookService.class)),
+                new OperationMetricsInterceptor("book.service.",
+                        BookService.class));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return advisor;
+    }
+
+    /**
+     * Creates the public metrics of the service, repository and codec
+     * operations. Each timer and distribution is reported with its count,
+     * mean, max and percentiles, e.g. {@code book.service.read.time.p99}.
+     * Times are in microseconds.
+     *
+     * @return the operation metrics
+     */
+    @Bean
+    public PublicMetrics operationMetrics() {
+        return () -> {
+            List<Metric<?>> metrics = new ArrayList<>();
+            Metrics.getTimers().forEach((name, timer) ->
+                    addHistogramMetrics(metrics, name, timer,
+                            NANOS_PER_MICRO));
+            Metrics.getDistributions().forEach((name, distribution) ->
+                    addHistogramMetrics(metrics, name, distribution, 1));
+            Metrics.getCounters().forEach((name, counter) ->
+                    metrics.add(new Metric<>(name, counter.get())));
+
+            return metrics;
+        };
+    }
+
+    /**
+     * Creates the public metrics of the JSONB codec.
+     *
+     * @return the JSONB codec metrics
+     */
+    @Bean
+    public PublicMetrics jsonbCodecMetrics() {
+        return () -> {
+            JsonbCodecStatistics stats = JsonbCodec.getStatistics();
+            List<Metric<?>> metrics = new ArrayList<>();
+            metrics.add(new Metric<>("jsonb.codec.read.rows",
+                    stats.getRowsRead()));
+            metrics.add(new Metric<>("jsonb.codec.read.bytes",
+                    stats.getBytesRead()));
+            metrics.add(new Metric<>("jsonb.codec.write.rows",
+                    stats.getRowsWritten()));
+            metrics.add(new Metric<>("jsonb.codec.write.bytes",
+                    stats.getBytesWritten()));
+
+            if (stats.isAllocationTracking()) {
+                metrics.add(new Metric<>("jsonb.codec.read.allocated",
+                        stats.getAllocatedRead()));
+                metrics.add(new Metric<>("jsonb.codec.read.allocatedPerRow",
+                        perRow(stats.getAllocatedRead(),
+                                stats.getRowsRead())));
+                metrics.add(new Metric<>("jsonb.codec.write.allocated",
+                        stats.getAllocatedWritten()));
+                metrics.add(new Metric<>("jsonb.codec.write.allocatedPerRow",
+                        perRow(stats.getAllocatedWritten(),
+                                stats.getRowsWritten())));
+            }
+
+            return metrics;
+        };
+    }
+
+    /**
+     * Creates the public metrics of the entity dirtiness strategy.
+     *
+     * @return the dirty checking metrics
+     */
+    @Bean
+    public PublicMetrics dirtinessMetrics() {
+        return () -> {
+            List<Metric<?>> metrics = new ArrayList<>();
+            metrics.add(new Metric<>("jpa.dirtiness.checked",
+                    EntityDirtinessStrategy.getCheckedCount()));
+            metrics.add(new Metric<>("jpa.dirtiness.skipped",
+                    EntityDirtinessStrategy.getSkippedCount()));
+
+            return metrics;
+        };
+    }
+
+    /**
+     * Creates the public metrics of the audit user context.
+     *
+     * @return the audit user metrics
+     */
+    @Bean
+    public PublicMetrics auditUserMetrics() {
+        return () -> {
+            List<Metric<?>> metrics = new ArrayList<>();
+            metrics.add(new Metric<>("audit.user.applied",
+                    AuditUserContext.getAppliedCount()));
+            metrics.add(new Metric<>("audit.user.reused",
+                    AuditUserContext.getReusedCount()));
+
+            return metrics;
+        };
+    }
+
+    /**
+     * Creates the public metrics of the connection pools. Wait times are in
+     * microseconds and connection lifetimes in milliseconds. With replicas,
+     * the primary pool is reported as {@code datasource.pool} and each
+     * replica pool as {@code datasource.replica.<index>}.
+     *
+     * @param dataSource the pooled data source
+     * @return the connection pool metrics
+     */
+    @Bean
+    public PublicMetrics connectionPoolMetrics(DataSource dataSource) {
+        return () -> {
+            List<Metric<?>> metrics = new ArrayList<>();
+            if (dataSource instanceof LazyRoutingDataSource) {
+                ReplicaRoutingDataSource routing =
+                        ((LazyRoutingDataSource) dataSource).getRouting();
+                addPoolMetrics(metrics, "datasource.pool.",
+                        routing.getPrimary());
+                List<DataSource> replicas = routing.getReplicas();
+                for (int i = 0; i < replicas.size(); i++) {
+                    addPoolMetrics(metrics, "datasource.replica." + i + ".",
+                            replicas.get(i));
+                }
+                metrics.add(new Metric<>("datasource.routing.primaryReads",
+                        routing.getPrimaryReadCount()));
+                metrics.add(new Metric<>("datasource.routing.replicaReads",
+                        routing.getReplicaReadCount()));
+                metrics.add(new Metric<>("datasource.routing.ejections",
+                        routing.getEjectionCount()));
+                metrics.add(new Metric<>("datasource.routing.healthyReplicas",
+                        routing.getHealthyReplicaCount()));
+            } else {
+                addPoolMetrics(metrics, "datasource.pool.", dataSource);
+            }
+
+            long closed = ConnectionLifetimeInterceptor.getClosedCount();
+            metrics.add(new Metric<>("datasource.pool.connections.closed",
+                    closed));
+            metrics.add(new Metric<>("datasource.pool.lifetime.mean",
+                    perRow(ConnectionLifetimeInterceptor.getTotalLifetime(),
+                            closed)));
+            metrics.add(new Metric<>("datasource.pool.lifetime.max",
+                    ConnectionLifetimeInterceptor.getMaxLifetime()));
+
+            return metrics;
+        };
+    }
+
+    private static void addPoolMetrics(List<Metric<?>> metrics, String prefix,
+            DataSource dataSource) {
+        if (!(dataSource instanceof InstrumentedDataSource)) {
+            return;
+        }
+
+        InstrumentedDataSource pool = (InstrumentedDataSource) dataSource;
+        metrics.add(new Metric<>(prefix + "active", pool.getActive()));
+        metrics.add(new Metric<>(prefix + "idle", pool.getIdle()));
+        metrics.add(new Metric<>(prefix + "pending", pool.getPending()));
+        metrics.add(new Metric<>(prefix + "borrowed",
+                pool.getBorrowedCount()));
+        metrics.add(new Metric<>(prefix + "failed", pool.getFailedCount()));
+        metrics.add(new Metric<>(prefix + "wait.mean",
+                perRow(pool.getTotalWait(),
+                        pool.getBorrowedCount() + pool.getFailedCount())));
+        metrics.add(new Metric<>(prefix + "wait.max", pool.getMaxWait()));
+    }
+
+    private static void addHistogramMetrics(List<Metric<?>> metrics,
+            String name, Histogram histogram, long unit) {
+        long count = histogram.getCount();
+        metrics.add(new Metric<>(name + ".count", count));
+        metrics.add(new Metric<>(name + ".mean",
+                perRow(histogram.getSum(), count) / unit));
+        metrics.add(new Metric<>(name + ".max", histogram.getMax() / unit));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            metrics.add(new Metric<>(name + PERCENTILE_SUFFIXES[i],
+                    histogram.getValueAtPercentile(PERCENTILES[i]) / unit));
+        }
+    }
+
+    private static long perRow(long total, long rows) {
+        return rows == 0 ? 0 : total / rows;
+    }
+}
@@ -1,12 +1,18 @@
 package com.basaki.example.postgres.jsonb.config;
 
+import com.basaki.example.postgres.jsonb.mapper.BookMapper;
+import com.basaki.example.postgres.jsonb.mapper.BookMapperImpl;
+import com.basaki.example.postgres.jsonb.mapper.DozerBookMapper;
+import com.basaki.example.postgres.jsonb.mapper.MapperType;
 import com.basaki.example.postgres.jsonb.util.UuidBeanFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.UUID;
+import lombok.Setter;
 import org.dozer.DozerBeanMapper;
 import org.dozer.Mapper;
 import org.dozer.loader.api.BeanMappingBuilder;
 import org.dozer.loader.api.TypeMappingOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -17,6 +23,10 @@ import org.springframework.context.annotation.Primary;
 @Configuration
 public class SpringConfiguration {
 
+    @Setter
+    @Value("${book.mapper:GENERATED}")
+    private MapperType mapperType;
+
     @Bean
     public static Mapper getMapper() {
         BeanMappingBuilder builder = new BeanMappingBuilder() {
@@ -33,6 +43,19 @@ public class SpringConfiguration {
         return mapper;
     }
 
+    /**
+     * Creates the book mapper selected by {@code book.mapper}, the mapper
+     * generated at compile time or the Dozer mapper.
+     *
+     * @param mapper the Dozer mapper
+     * @return the book mapper
+     */
+    @Bean
+    public BookMapper bookMapper(Mapper mapper) {
+        return mapperType == MapperType.DOZER ? new DozerBookMapper(mapper)
+                : new BookMapperImpl();
+    }
+
     @Primary
     @Bean(name = "objMapper")
     public ObjectMapper createCustomObjectMapper() {
@@ -1,20 +1,31 @@
 package com.basaki.example.postgres.jsonb.controller;
 
 import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditView;
 import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookBatchResult;
 import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.SearchMode;
 import com.basaki.example.postgres.jsonb.service.BookService;
+import com.basaki.example.postgres.jsonb.service.VersionedBook;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -47,9 +58,18 @@ public class BookController {
 
     private static final String PUBLISHER_URL = BOOK_URL + "/publishers";
 
+    private static final String BOOK_STREAM_URL = BOOK_URL + "/stream";
+
+    private static final String BOOK_BATCH_URL = BOOK_URL + "/batch";
+
     private static final String BOOK_AUDITS_BY_ID_URL =
             BOOK_BY_ID_URL + "/audits";
 
+    private static final String MERGE_PATCH_JSON_VALUE =
+            "application/merge-patch+json";
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
 
     private BookService service;
 
@@ -76,6 +96,23 @@ public class BookController {
         return service.create(request, user);
     }
 
+    @ApiOperation(
+            value = "Creates a batch of books.",
+            notes = "Each book requires a title, genre, publisher, star, and author. Invalid books are rejected individually.")
+    @ApiResponses({
+            @ApiResponse(code = 200, response = BookBatchResult.class,
+                    responseContainer = "List",
+                    message = "Result of each book in the batch")})
+    @RequestMapping(method = RequestMethod.POST, value = BOOK_BATCH_URL,
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BookBatchResult> createAll(
+            @ApiParam(value = "Audit user", required = true)
+            @RequestHeader("user") String user,
+            @RequestBody List<BookRequest> requests) {
+        return service.createAll(requests, user);
+    }
+
     @ApiOperation(
             value = "Retrieves a book by ID.",
             notes = "Requires a book identifier",
@@ -89,6 +126,23 @@ public class BookController {
         return service.read(id);
     }
 
+    @ApiOperation(
+            value = "Retrieves a book by ID as it was at a point in time.",
+            notes = "The book is rebuilt from its audits.",
+            response = Book.class)
+    @RequestMapping(method = RequestMethod.GET, value = BOOK_BY_ID_URL,
+            params = "asOf",
+            produces = {MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    public Book readAsOf(
+            @ApiParam(value = "Book ID", required = true)
+            @PathVariable("id") UUID id,
+            @ApiParam(value = "Point in time (ISO 8601).", required = true)
+            @RequestParam(value = "asOf")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date asOf) {
+        return service.readAsOf(id, asOf);
+    }
+
     @ApiOperation(
             value = "Retrieves all the books associated with the search string.",
             notes = "In absence of any parameter, it will return all the books.",
@@ -98,14 +152,84 @@ public class BookController {
     @ResponseBody
     public List<Book> readAll(
             @ApiParam(value = "Search string to search a book. Returns all books if empty.")
-            @RequestParam(value = "q", required = false) String searchQuery) {
-        return service.readAll(searchQuery);
+            @RequestParam(value = "q", required = false) String searchQuery,
+            @ApiParam(value = "Search mode. SUBSTRING matches the exact search string, FULL_TEXT matches words ranked by relevance.")
+            @RequestParam(value = "mode", required = false, defaultValue = "SUBSTRING") SearchMode mode,
+            @ApiParam(value = "Identifier of the last book of the previous page. Not supported in FULL_TEXT mode.")
+            @RequestParam(value = "after", required = false) UUID after,
+            @ApiParam(value = "Maximum number of books returned.")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return service.readAll(searchQuery, mode, after, limit);
+    }
+
+    @ApiOperation(
+            value = "Retrieves a book by ID exactly as stored.",
+            notes = "The stored document is returned without being parsed. The ETag header can be used as If-Match of an update.")
+    @RequestMapping(method = RequestMethod.GET, value = BOOK_BY_ID_URL,
+            params = "raw=true",
+            produces = {MediaType.APPLICATION_JSON_VALUE})
+    public void readRaw(
+            @ApiParam(value = "Book ID", required = true)
+            @PathVariable("id") UUID id,
+            @ApiParam(value = "Returns the stored document.", required = true)
+            @RequestParam(value = "raw") boolean raw,
+            HttpServletResponse response) throws IOException {
+        byte[] document = service.readRaw(id);
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setHeader(HttpHeaders.ETAG,
+                toETag(DigestUtils.md5DigestAsHex(document)));
+        response.getOutputStream().write(document);
+    }
+
+    @ApiOperation(
+            value = "Retrieves all the books associated with the search string exactly as stored.",
+            notes = "The stored documents are returned without being parsed.")
+    @RequestMapping(method = RequestMethod.GET, value = BOOK_URL,
+            params = "raw=true",
+            produces = {MediaType.APPLICATION_JSON_VALUE})
+    public void readAllRaw(
+            @ApiParam(value = "Search string to search a book. Returns all books if empty.")
+            @RequestParam(value = "q", required = false) String searchQuery,
+            @ApiParam(value = "Search mode. SUBSTRING matches the exact search string, FULL_TEXT matches words ranked by relevance.")
+            @RequestParam(value = "mode", required = false, defaultValue = "SUBSTRING") SearchMode mode,
+            @ApiParam(value = "Identifier of the last book of the previous page. Not supported in FULL_TEXT mode.")
+            @RequestParam(value = "after", required = false) UUID after,
+            @ApiParam(value = "Maximum number of books returned.")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @ApiParam(value = "Returns the stored documents.", required = true)
+            @RequestParam(value = "raw") boolean raw,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        service.writeAllRaw(searchQuery, mode, after, limit,
+                response.getOutputStream());
+    }
+
+    @ApiOperation(
+            value = "Streams all the books associated with the search string as newline delimited JSON.",
+            notes = "In absence of any parameter, it will stream all the books.")
+    @RequestMapping(method = RequestMethod.GET, value = BOOK_STREAM_URL,
+            produces = {NDJSON_VALUE})
+    public void streamAll(
+            @ApiParam(value = "Search string to search a book. Streams all books if empty.")
+            @RequestParam(value = "q", required = false) String searchQuery,
+            @ApiParam(value = "Search mode. SUBSTRING matches the exact search string, FULL_TEXT matches words ranked by relevance.")
+            @RequestParam(value = "mode", required = false, defaultValue = "SUBSTRING") SearchMode mode,
+            @ApiParam(value = "Identifier of the last book of the previous page. Not supported in FULL_TEXT mode.")
+            @RequestParam(value = "after", required = false) UUID after,
+            @ApiParam(value = "Maximum number of books returned.")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_VALUE);
+        service.writeAll(searchQuery, mode, after, limit,
+                response.getOutputStream());
     }
 
     @ApiOperation(value = "Updates a book.", response = Book.class)
     @ApiResponses({
             @ApiResponse(code = 201, response = Book.class,
-                    message = "Updated a book created successfully")})
+                    message = "Updated a book created successfully"),
+            @ApiResponse(code = 412,
+                    message = "Book has been modified since the If-Match ETag")})
     @RequestMapping(method = RequestMethod.PUT, value = BOOK_BY_ID_URL,
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
@@ -115,8 +239,31 @@ public class BookController {
             @RequestHeader("user") String user,
             @ApiParam(value = "Book ID", required = true)
             @PathVariable("id") UUID id,
-            @RequestBody BookRequest request) {
-        return service.update(id, request, user);
+            @ApiParam(value = "ETag of the stored book. The book is only updated if it hasn't been modified since.")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody BookRequest request,
+            HttpServletResponse response) {
+        VersionedBook book =
+                service.update(id, request, user, fromETag(ifMatch));
+        response.setHeader(HttpHeaders.ETAG, toETag(book.getVersion()));
+
+        return book.getBook();
+    }
+
+    @ApiOperation(value = "Partially updates a book.",
+            notes = "Requires a JSON Merge Patch (RFC 7396) document. Attributes set to null are removed.",
+            response = Book.class)
+    @RequestMapping(method = RequestMethod.PATCH, value = BOOK_BY_ID_URL,
+            consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Book patch(
+            @ApiParam(value = "Audit user", required = true)
+            @RequestHeader("user") String user,
+            @ApiParam(value = "Book ID", required = true)
+            @PathVariable("id") UUID id,
+            @RequestBody Map<String, Object> patch) {
+        return service.patch(id, patch, user);
     }
 
     @ApiOperation(value = "Deletes a book by ID.")
@@ -153,14 +300,45 @@ public class BookController {
     }
 
     @ApiOperation(
-            value = "Retrieves audits for a book by ID.",
+            value = "Retrieves audits for a book by ID, newest first.",
+            notes = "The next page starts before the madeAt time of the last audit of the previous page.",
             response = AuditBook.class, responseContainer = "List")
     @RequestMapping(method = RequestMethod.GET, value = BOOK_AUDITS_BY_ID_URL,
             produces = {MediaType.APPLICATION_JSON_VALUE})
     @ResponseBody
     public List<AuditBook> readAudits(
             @ApiParam(value = "Book ID", required = true)
-            @PathVariable("id") UUID id) {
-        return service.readAudits(id);
+            @PathVariable("id") UUID id,
+            @ApiParam(value = "Earliest time of an audit, inclusive (ISO 8601).")
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @ApiParam(value = "Latest time of an audit, exclusive (ISO 8601).")
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @ApiParam(value = "Time of the last audit of the previous page (ISO 8601).")
+            @RequestParam(value = "before", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date before,
+            @ApiParam(value = "Maximum number of audits returned.")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @ApiParam(value = "SUMMARY omits the state of the book.")
+            @RequestParam(value = "view", required = false, defaultValue = "FULL") AuditView view) {
+        return service.readAudits(id, from, to, before, limit, view);
+    }
+
+    private static String toETag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String fromETag(String eTag) {
+        if (eTag == null || eTag.trim().equals("*")) {
+            return null;
+        }
+
+        String version = eTag.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+
+        return version.replace("\"", "");
     }
 }
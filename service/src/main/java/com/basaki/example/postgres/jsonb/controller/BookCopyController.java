@@ -0,0 +1,75 @@
+package com.basaki.example.postgres.jsonb.controller;
+
+import com.basaki.example.postgres.jsonb.model.BookImportResult;
+import com.basaki.example.postgres.jsonb.service.BookCopyService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import java.io.IOException;
+import java.sql.SQLException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * {@code BookCopyController} is the spring REST controller for bulk import
+ * and export of books as newline delimited JSON.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@RestController
+@Slf4j
+@Api(value = "Book Bulk API",
+        description = "Book Bulk API",
+        produces = "application/json", tags = {"API"})
+public class BookCopyController {
+
+    private static final String IMPORT_URL = "/books/import";
+
+    private static final String EXPORT_URL = "/books/export";
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private BookCopyService service;
+
+    @Autowired
+    public BookCopyController(BookCopyService service) {
+        this.service = service;
+    }
+
+    @ApiOperation(
+            value = "Imports books from newline delimited JSON.",
+            notes = "Books without an id are assigned one. Invalid books and existing ids are rejected individually.",
+            response = BookImportResult.class)
+    @RequestMapping(method = RequestMethod.POST, value = IMPORT_URL,
+            consumes = {NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public BookImportResult importAll(
+            @ApiParam(value = "Audit user", required = true)
+            @RequestHeader("user") String user,
+            HttpServletRequest request) throws IOException, SQLException {
+        return service.importAll(request.getInputStream(), user);
+    }
+
+    @ApiOperation(
+            value = "Exports all books as newline delimited JSON.",
+            notes = "A parallelism greater than 1 splits the export across several database connections.")
+    @RequestMapping(method = RequestMethod.GET, value = EXPORT_URL,
+            produces = {NDJSON_VALUE})
+    public void exportAll(
+            @ApiParam(value = "Number of database connections used for the export.")
+            @RequestParam(value = "parallelism", required = false, defaultValue = "1") int parallelism,
+            HttpServletResponse response) throws IOException, SQLException {
+        response.setContentType(NDJSON_VALUE);
+        service.exportAll(parallelism, response.getOutputStream());
+    }
+}
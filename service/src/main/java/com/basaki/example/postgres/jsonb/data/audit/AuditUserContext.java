@@ -0,0 +1,96 @@
+package com.basaki.example.postgres.jsonb.data.audit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.postgresql.PGConnection;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@code AuditUserContext} keeps the {@code book.audit_user} setting read by
+ * the audit triggers on each physical database connection. The setting is
+ * made at session level and remembered per connection, so consecutive writes
+ * of the same user on a pooled connection don't need a round trip to set it
+ * again. A setting made in a transaction which doesn't commit is reverted by
+ * the database and is therefore forgotten.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class AuditUserContext {
+
+    private static final String SET_USER =
+            "SELECT set_config('book.audit_user', ?, false)";
+
+    private static final Map<PGConnection, String> USERS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final LongAdder APPLIED = new LongAdder();
+
+    private static final LongAdder REUSED = new LongAdder();
+
+    private AuditUserContext() {
+    }
+
+    /**
+     * Sets the audit user of a connection unless the physical connection
+     * already has it.
+     *
+     * @param connection the connection used by the following writes
+     * @param user       the audit user
+     * @throws SQLException if the audit user can't be set
+     */
+    public static void apply(Connection connection,
+            String user) throws SQLException {
+        PGConnection physical = connection.unwrap(PGConnection.class);
+        if (user.equals(USERS.get(physical))) {
+            REUSED.increment();
+            return;
+        }
+
+        try (PreparedStatement st = connection.prepareStatement(SET_USER)) {
+            st.setString(1, user);
+            st.execute();
+        }
+        USERS.put(physical, user);
+        APPLIED.increment();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                                USERS.remove(physical);
+                            }
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Returns the number of times the audit user was sent to the database.
+     *
+     * @return number of applied audit users
+     */
+    public static long getAppliedCount() {
+        return APPLIED.sum();
+    }
+
+    /**
+     * Returns the number of times the audit user was already set on the
+     * connection.
+     *
+     * @return number of reused audit users
+     */
+    public static long getReusedCount() {
+        return REUSED.sum();
+    }
+}
@@ -0,0 +1,24 @@
+package com.basaki.example.postgres.jsonb.data.codec;
+
+/**
+ * {@code CodecMode} represents the strategy used by {@code JsonbCodec} to move
+ * a JSONB document between a JDBC driver and a Java object.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum CodecMode {
+
+    /**
+     * Reads the document as a {@code String} and writes it through a
+     * {@code StringWriter}. Kept for comparison with {@code STREAMING}.
+     */
+    STRING,
+
+    /**
+     * Parses the document directly from the driver's row bytes and serializes
+     * it into a pooled, reusable byte buffer.
+     */
+    STREAMING
+}
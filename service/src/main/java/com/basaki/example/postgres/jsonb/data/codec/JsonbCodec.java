@@ -0,0 +1,230 @@
+package com.basaki.example.postgres.jsonb.data.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import org.hibernate.HibernateException;
+import org.postgresql.util.PGobject;
+
+/**
+ * {@code JsonbCodec} reads and writes a Postgres JSONB column as a Java object.
+ * In {@code STREAMING} mode, a document is parsed straight from the row bytes
+ * returned by the driver and serialized into a per-thread pooled byte buffer,
+ * avoiding the intermediate {@code String} and {@code StringWriter} copies of
+ * the {@code STRING} mode.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class JsonbCodec {
+
+    /**
+     * Buffers grown beyond this capacity are not kept in the pool
+     */
+    private static final int MAX_POOLED_CAPACITY = 1024 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Version byte prefixed to a JSONB document in binary transfer format
+     */
+    private static final byte JSONB_BINARY_VERSION = 1;
+
+    private static final ThreadLocal<PooledBuffer> BUFFERS =
+            ThreadLocal.withInitial(PooledBuffer::new);
+
+    private static final JsonbCodecStatistics STATISTICS =
+            new JsonbCodecStatistics();
+
+    private static volatile CodecMode defaultMode = CodecMode.STREAMING;
+
+    private final ObjectMapper mapper;
+
+    public JsonbCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public static CodecMode getDefaultMode() {
+        return defaultMode;
+    }
+
+    public static void setDefaultMode(CodecMode mode) {
+        defaultMode = mode;
+    }
+
+    public static JsonbCodecStatistics getStatistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * Returns the offset of the JSON text in the bytes of a JSONB column. The
+     * document is prefixed with a version byte if the driver transferred the
+     * column in binary format.
+     *
+     * @param bytes the column bytes
+     * @return the offset of the JSON text
+     */
+    public static int documentOffset(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == JSONB_BINARY_VERSION ? 1 : 0;
+    }
+
+    /**
+     * Reads a JSONB column and converts it to an object of the given class.
+     *
+     * @param rs     the result set positioned on the row to read
+     * @param column the name of the column
+     * @param clazz  the class of the returned object
+     * @return the converted object or null if the column is null
+     * @throws SQLException if the column can't be read
+     */
+    public Object read(ResultSet rs, String column,
+            Class<?> clazz) throws SQLException {
+        long allocated = STATISTICS.allocatedBytes();
+
+        try {
+            if (defaultMode == CodecMode.STRING) {
+                String json = rs.getString(column);
+                if (json == null) {
+                    return null;
+                }
+
+                byte[] bytes = json.getBytes("UTF-8");
+                long started = System.nanoTime();
+                Object value = mapper.readValue(bytes, clazz);
+                STATISTICS.recordRead(bytes.length, allocated, started);
+                return value;
+            }
+
+            byte[] bytes = rs.getBytes(column);
+            if (bytes == null) {
+                return null;
+            }
+
+            int offset = documentOffset(bytes);
+            long started = System.nanoTime();
+            Object value = mapper.readValue(bytes, offset,
+                    bytes.length - offset, clazz);
+            STATISTICS.recordRead(bytes.length - offset, allocated, started);
+            return value;
+        } catch (IOException e) {
+            throw new HibernateException(
+                    "Failed to convert JSONB to " + clazz + " " + e.getMessage(),
+                    e);
+        }
+    }
+
+    /**
+     * Converts an object to JSON and binds it to a JSONB parameter.
+     *
+     * @param st    the prepared statement
+     * @param value the object to be bound, can be null
+     * @param index the parameter index
+     * @throws SQLException if the parameter can't be bound
+     */
+    public void write(PreparedStatement st, Object value,
+            int index) throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+            return;
+        }
+
+        long allocated = STATISTICS.allocatedBytes();
+        long started = System.nanoTime();
+
+        try {
+            if (defaultMode == CodecMode.STRING) {
+                final StringWriter writer = new StringWriter();
+                mapper.writeValue(writer, value);
+                writer.flush();
+                String json = writer.toString();
+                st.setObject(index, json, Types.OTHER);
+                STATISTICS.recordWrite(utf8Length(json), allocated, started);
+                return;
+            }
+
+            PooledBuffer buffer = BUFFERS.get();
+            try {
+                mapper.writeValue(buffer, value);
+
+                // the driver sends JSONB as text, so the pooled bytes are
+                // decoded once straight into the bound value
+                PGobject object = new PGobject();
+                object.setType("jsonb");
+                object.setValue(buffer.decode());
+                st.setObject(index, object);
+                STATISTICS.recordWrite(buffer.size(), allocated, started);
+            } finally {
+                buffer.release();
+            }
+        } catch (IOException e) {
+            throw new HibernateException(
+                    "Failed to convert " + value.getClass() + " to JSONB " + e.getMessage(),
+                    e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of a string encoded in UTF-8 without
+     * encoding it, so both modes report document sizes in bytes.
+     *
+     * @param string the string
+     * @return the encoded length in bytes
+     */
+    static int utf8Length(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < string.length()
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // a lone surrogate is encoded as '?'
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * {@code PooledBuffer} is a reusable byte buffer kept per thread.
+     */
+    private static class PooledBuffer extends ByteArrayOutputStream {
+
+        PooledBuffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        @Override
+        public void close() {
+            // Jackson closes the target stream after writing; the buffer is
+            // kept open for reuse
+        }
+
+        String decode() {
+            return new String(buf, 0, count, StandardCharsets.UTF_8);
+        }
+
+        void release() {
+            if (buf.length > MAX_POOLED_CAPACITY) {
+                buf = new byte[INITIAL_CAPACITY];
+            }
+            reset();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.basaki.example.postgres.jsonb.data.codec;
+
+import com.basaki.example.postgres.jsonb.metrics.Histogram;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code JsonbCodecStatistics} keeps the running counters of rows, document
+ * bytes and, if enabled, heap bytes allocated by {@code JsonbCodec}. The parse and
+ * serialize times and document sizes are also recorded in the
+ * {@code jsonb.codec.read} and {@code jsonb.codec.write} metrics. Heap
+ * allocation is measured with the HotSpot per-thread allocation counter and is
+ * therefore only available on JVMs supporting it.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class JsonbCodecStatistics {
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            getThreadBean();
+
+    private final Histogram readTime = Metrics.timer("jsonb.codec.read.time");
+
+    private final Histogram readSize =
+            Metrics.distribution("jsonb.codec.read.size");
+
+    private final Histogram writeTime =
+            Metrics.timer("jsonb.codec.write.time");
+
+    private final Histogram writeSize =
+            Metrics.distribution("jsonb.codec.write.size");
+
+    private final LongAdder rowsRead = new LongAdder();
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final LongAdder allocatedRead = new LongAdder();
+
+    private final LongAdder rowsWritten = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final LongAdder allocatedWritten = new LongAdder();
+
+    private volatile boolean allocationTracking;
+
+    public boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    public void setAllocationTracking(boolean allocationTracking) {
+        this.allocationTracking = allocationTracking && THREAD_BEAN != null;
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread or
+     * zero if allocation tracking is disabled.
+     *
+     * @return allocated bytes of the current thread
+     */
+    public long allocatedBytes() {
+        if (!allocationTracking) {
+            return 0;
+        }
+
+        return THREAD_BEAN.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+
+    public void recordRead(int bytes, long allocatedStart, long started) {
+        readTime.record(System.nanoTime() - started);
+        readSize.record(bytes);
+        rowsRead.increment();
+        bytesRead.add(bytes);
+        if (allocationTracking) {
+            allocatedRead.add(allocatedBytes() - allocatedStart);
+        }
+    }
+
+    public void recordWrite(int bytes, long allocatedStart, long started) {
+        writeTime.record(System.nanoTime() - started);
+        writeSize.record(bytes);
+        rowsWritten.increment();
+        bytesWritten.add(bytes);
+        if (allocationTracking) {
+            allocatedWritten.add(allocatedBytes() - allocatedStart);
+        }
+    }
+
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getAllocatedRead() {
+        return allocatedRead.sum();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long getAllocatedWritten() {
+        return allocatedWritten.sum();
+    }
+
+    public void reset() {
+        rowsRead.reset();
+        bytesRead.reset();
+        allocatedRead.reset();
+        rowsWritten.reset();
+        bytesWritten.reset();
+        allocatedWritten.reset();
+        readTime.reset();
+        readSize.reset();
+        writeTime.reset();
+        writeSize.reset();
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean =
+                    ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean =
+                        (com.sun.management.ThreadMXBean) bean;
+                if (sunBean.isThreadAllocatedMemorySupported()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                    return sunBean;
+                }
+            }
+        } catch (Throwable t) {
+            // allocation tracking is optional
+        }
+
+        return null;
+    }
+}
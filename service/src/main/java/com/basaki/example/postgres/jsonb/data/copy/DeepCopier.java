@@ -0,0 +1,19 @@
+package com.basaki.example.postgres.jsonb.data.copy;
+
+/**
+ * {@code DeepCopier} creates a deep copy of an object of a specific type.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public interface DeepCopier<T> {
+
+    /**
+     * Creates a deep copy of a non-null value.
+     *
+     * @param value the object to be copied
+     * @return the copy of the object
+     */
+    T copy(T value);
+}
@@ -0,0 +1,123 @@
+package com.basaki.example.postgres.jsonb.data.copy;
+
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@code DeepCopierRegistry} keeps a {@code DeepCopier} per class. The model
+ * classes are copied field by field with a {@code FieldDeepCopier} while any
+ * other class falls back to a JSON round trip.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class DeepCopierRegistry {
+
+    private static final Set<Class<?>> MODEL_CLASSES =
+            Collections.unmodifiableSet(new HashSet<>(
+                    Arrays.asList(Book.class, Author.class, AuditBook.class)));
+
+    private static final Set<Class<?>> IMMUTABLE_CLASSES =
+            Collections.unmodifiableSet(new HashSet<>(
+                    Arrays.asList(String.class, UUID.class, Boolean.class,
+                            Character.class, Byte.class, Short.class,
+                            Integer.class, Long.class, Float.class,
+                            Double.class)));
+
+    private final ObjectMapper mapper;
+
+    private final Set<Class<?>> fieldWiseClasses;
+
+    private final ConcurrentMap<Class<?>, DeepCopier<?>> copiers =
+            new ConcurrentHashMap<>();
+
+    public DeepCopierRegistry(ObjectMapper mapper) {
+        this(mapper, MODEL_CLASSES);
+    }
+
+    public DeepCopierRegistry(ObjectMapper mapper,
+            Set<Class<?>> fieldWiseClasses) {
+        this.mapper = mapper;
+        this.fieldWiseClasses = fieldWiseClasses;
+    }
+
+    /**
+     * Checks if the instances of a class can be shared instead of copied.
+     *
+     * @param clazz the class to check
+     * @return true if the class is immutable
+     */
+    public static boolean isImmutable(Class<?> clazz) {
+        return clazz.isPrimitive() || clazz.isEnum()
+                || IMMUTABLE_CLASSES.contains(clazz);
+    }
+
+    /**
+     * Creates a deep copy of an object.
+     *
+     * @param value the object to be copied, can be null
+     * @return the copy or null if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T value) {
+        if (value == null) {
+            return null;
+        }
+
+        Class<T> clazz = (Class<T>) value.getClass();
+        if (isImmutable(clazz)) {
+            return value;
+        }
+
+        return getCopier(clazz).copy(value);
+    }
+
+    /**
+     * Returns the copier for a class, creating it on first use.
+     *
+     * @param clazz the class of the objects to be copied
+     * @return the copier for the class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DeepCopier<T> getCopier(Class<T> clazz) {
+        DeepCopier<T> copier = (DeepCopier<T>) copiers.get(clazz);
+        if (copier == null) {
+            copier = createCopier(clazz);
+            DeepCopier<T> existing =
+                    (DeepCopier<T>) copiers.putIfAbsent(clazz, copier);
+            if (existing != null) {
+                copier = existing;
+            }
+        }
+
+        return copier;
+    }
+
+    /**
+     * Registers a custom copier for a class.
+     *
+     * @param clazz  the class of the objects to be copied
+     * @param copier the copier to be used for the class
+     */
+    public <T> void register(Class<T> clazz, DeepCopier<T> copier) {
+        copiers.put(clazz, copier);
+    }
+
+    private <T> DeepCopier<T> createCopier(Class<T> clazz) {
+        if (fieldWiseClasses.contains(clazz)) {
+            return new FieldDeepCopier<>(this, clazz);
+        }
+
+        return new JsonDeepCopier<>(mapper, clazz);
+    }
+}
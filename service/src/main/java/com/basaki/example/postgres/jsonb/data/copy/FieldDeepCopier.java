@@ -0,0 +1,132 @@
+package com.basaki.example.postgres.jsonb.data.copy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.hibernate.HibernateException;
+
+/**
+ * {@code FieldDeepCopier} copies a bean field by field using method handles
+ * which are resolved once per class. Immutable field values are shared, dates
+ * are cloned and any other field value is copied through the owning
+ * {@code DeepCopierRegistry}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class FieldDeepCopier<T> implements DeepCopier<T> {
+
+    private static final MethodType GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final DeepCopierRegistry registry;
+
+    private final MethodHandle constructor;
+
+    private final FieldHandle[] fields;
+
+    public FieldDeepCopier(DeepCopierRegistry registry, Class<T> clazz) {
+        this.registry = registry;
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            constructor = lookup.findConstructor(clazz,
+                    MethodType.methodType(void.class)).asType(
+                    MethodType.methodType(Object.class));
+
+            List<FieldHandle> handles = new ArrayList<>();
+            for (Class<?> c = clazz; c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers)
+                            || Modifier.isFinal(modifiers)
+                            || field.isSynthetic()) {
+                        continue;
+                    }
+
+                    field.setAccessible(true);
+                    handles.add(new FieldHandle(
+                            lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                            lookup.unreflectSetter(field).asType(SETTER_TYPE),
+                            FieldKind.of(field.getType())));
+                }
+            }
+            fields = handles.toArray(new FieldHandle[handles.size()]);
+        } catch (ReflectiveOperationException e) {
+            throw new HibernateException(
+                    "Failed to create field copier for " + clazz, e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T copy(T value) {
+        try {
+            Object copy = constructor.invokeExact();
+            for (FieldHandle field : fields) {
+                Object fieldValue = field.getter.invokeExact((Object) value);
+                if (fieldValue != null) {
+                    field.setter.invokeExact(copy,
+                            copyField(field.kind, fieldValue));
+                }
+            }
+
+            return (T) copy;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new HibernateException("Failed to deep copy " + value, t);
+        }
+    }
+
+    private Object copyField(FieldKind kind, Object value) {
+        switch (kind) {
+            case IMMUTABLE:
+                return value;
+            case DATE:
+                return ((Date) value).clone();
+            default:
+                return registry.copy(value);
+        }
+    }
+
+    private enum FieldKind {
+        IMMUTABLE, DATE, OBJECT;
+
+        static FieldKind of(Class<?> type) {
+            if (DeepCopierRegistry.isImmutable(type)) {
+                return IMMUTABLE;
+            }
+
+            if (Date.class.isAssignableFrom(type)) {
+                return DATE;
+            }
+
+            return OBJECT;
+        }
+    }
+
+    private static class FieldHandle {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final FieldKind kind;
+
+        FieldHandle(MethodHandle getter, MethodHandle setter, FieldKind kind) {
+            this.getter = getter;
+            this.setter = setter;
+            this.kind = kind;
+        }
+    }
+}
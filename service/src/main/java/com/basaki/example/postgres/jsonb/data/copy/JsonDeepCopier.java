@@ -0,0 +1,36 @@
+package com.basaki.example.postgres.jsonb.data.copy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.hibernate.HibernateException;
+
+/**
+ * {@code JsonDeepCopier} copies an object by serializing it to JSON and
+ * parsing it back. It's used as the fallback for types without a field-wise
+ * copier.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class JsonDeepCopier<T> implements DeepCopier<T> {
+
+    private final ObjectMapper mapper;
+
+    private final Class<T> clazz;
+
+    public JsonDeepCopier(ObjectMapper mapper, Class<T> clazz) {
+        this.mapper = mapper;
+        this.clazz = clazz;
+    }
+
+    @Override
+    public T copy(T value) {
+        try {
+            return mapper.readValue(mapper.writeValueAsBytes(value), clazz);
+        } catch (IOException e) {
+            throw new HibernateException(
+                    "Failed to deep copy object of " + clazz, e);
+        }
+    }
+}
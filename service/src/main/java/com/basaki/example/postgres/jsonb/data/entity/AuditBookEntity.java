@@ -8,6 +8,8 @@ import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,6 +30,32 @@ import org.hibernate.annotations.Type;
 @AllArgsConstructor
 @Entity
 @Table(name = "books", schema = "example_book_audit_schema")
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "auditBook.page",
+                query = "SELECT example_book_audit_schema.audit_view(" +
+                        "a.audit, a.made_at, ?4) AS audit " +
+                        "FROM example_book_audit_schema.books a " +
+                        "WHERE a.id = CAST(?1 AS UUID) " +
+                        "AND a.made_at >= CAST(?2 AS TIMESTAMPTZ) " +
+                        "AND a.made_at < CAST(?3 AS TIMESTAMPTZ) " +
+                        "AND a.made_at >= example_book_audit_schema.page_start(" +
+                        "CAST(?1 AS UUID), CAST(?2 AS TIMESTAMPTZ), " +
+                        "CAST(?3 AS TIMESTAMPTZ), ?5) " +
+                        "ORDER BY a.made_at DESC"),
+        @NamedNativeQuery(name = "auditBook.pageStates",
+                query = "SELECT example_book_audit_schema.audit_view(" +
+                        "a.audit_record, a.audit_time) AS audit " +
+                        "FROM example_book_audit_schema.find_audits(" +
+                        "CAST(?1 AS UUID), CAST(?2 AS TIMESTAMPTZ), " +
+                        "CAST(?3 AS TIMESTAMPTZ), ?4) a " +
+                        "ORDER BY a.audit_time DESC"),
+        @NamedNativeQuery(name = "auditBook.asOf",
+                query = "SELECT example_book_audit_schema.book_as_of(" +
+                        "CAST(?1 AS UUID), CAST(?2 AS TIMESTAMPTZ)) AS book, " +
+                        "EXISTS (SELECT 1 FROM example_book_audit_schema.books a " +
+                        "WHERE a.id = CAST(?1 AS UUID) " +
+                        "AND a.made_at <= CAST(?2 AS TIMESTAMPTZ)) AS recorded")
+})
 public class AuditBookEntity implements Serializable {
 
     @EmbeddedId
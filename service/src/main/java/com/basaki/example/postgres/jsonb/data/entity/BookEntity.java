@@ -1,11 +1,13 @@
 package com.basaki.example.postgres.jsonb.data.entity;
 
-import com.basaki.example.postgres.jsonb.data.strategy.DirtyStateIdentifiable;
+import com.basaki.example.postgres.jsonb.data.strategy.FingerprintIdentifiable;
+import com.basaki.example.postgres.jsonb.data.strategy.FingerprintListener;
 import com.basaki.example.postgres.jsonb.model.Book;
 import java.io.Serializable;
 import java.util.UUID;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
 import javax.persistence.NamedNativeQueries;
 import javax.persistence.NamedNativeQuery;
@@ -42,11 +44,73 @@ import org.hibernate.annotations.Type;
                 query = "SELECT example_book_schema.to_json(book, 'match', " +
                         "example_book_schema.find_match(b, ?1)) AS books " +
                         "FROM example_book_schema.books b " +
-                        "WHERE example_book_schema.search(b, ?1)")
+                        "WHERE LOWER(example_book_schema.extract_fields(b.book)) " +
+                        "LIKE example_book_schema.like_pattern(?1)"),
+        @NamedNativeQuery(name = "book.searchAll",
+                query = "SELECT example_book_schema.to_json(book, 'match', " +
+                        "example_book_schema.extract_fields(b.book)) AS books " +
+                        "FROM example_book_schema.books b"),
+        @NamedNativeQuery(name = "book.searchPage",
+                query = "SELECT example_book_schema.to_json(book, 'match', " +
+                        "example_book_schema.find_match(b, ?1)) AS books " +
+                        "FROM example_book_schema.books b " +
+                        "WHERE LOWER(example_book_schema.extract_fields(b.book)) " +
+                        "LIKE example_book_schema.like_pattern(?1) " +
+                        "AND b.id > CAST(?2 AS UUID) ORDER BY b.id"),
+        @NamedNativeQuery(name = "book.searchAllPage",
+                query = "SELECT example_book_schema.to_json(book, 'match', " +
+                        "example_book_schema.extract_fields(b.book)) AS books " +
+                        "FROM example_book_schema.books b " +
+                        "WHERE b.id > CAST(?1 AS UUID) ORDER BY b.id"),
+        @NamedNativeQuery(name = "book.fullTextSearch",
+                query = "SELECT example_book_schema.to_json(b.book, 'match', " +
+                        "example_book_schema.find_headline(b.book, q)) AS books " +
+                        "FROM example_book_schema.books b, " +
+                        "websearch_to_tsquery('simple', ?1) q " +
+                        "WHERE b.search_vector @@ q " +
+                        "ORDER BY ts_rank_cd(b.search_vector, q) DESC, b.id"),
+        @NamedNativeQuery(name = "book.readRaw",
+                query = "SELECT b.book AS books " +
+                        "FROM example_book_schema.books b " +
+                        "WHERE b.id = CAST(?1 AS UUID)"),
+        @NamedNativeQuery(name = "book.readVersioned",
+                query = "SELECT book, md5(CAST(book AS TEXT)) AS version " +
+                        "FROM example_book_schema.books " +
+                        "WHERE id = CAST(?1 AS UUID)"),
+        @NamedNativeQuery(name = "book.update",
+                query = "UPDATE example_book_schema.books " +
+                        "SET book = CAST(?2 AS JSONB) " +
+                        "WHERE id = CAST(?1 AS UUID) " +
+                        "AND book IS DISTINCT FROM CAST(?2 AS JSONB) " +
+                        "RETURNING book, md5(CAST(book AS TEXT)) AS version"),
+        @NamedNativeQuery(name = "book.updateIfMatch",
+                query = "UPDATE example_book_schema.books " +
+                        "SET book = CAST(?2 AS JSONB) " +
+                        "WHERE id = CAST(?1 AS UUID) " +
+                        "AND md5(CAST(book AS TEXT)) = ?3 " +
+                        "AND book IS DISTINCT FROM CAST(?2 AS JSONB) " +
+                        "RETURNING book, md5(CAST(book AS TEXT)) AS version"),
+        @NamedNativeQuery(name = "book.delete",
+                query = "DELETE FROM example_book_schema.books " +
+                        "WHERE id = CAST(?1 AS UUID) " +
+                        "RETURNING CAST(id AS TEXT) AS id"),
+        @NamedNativeQuery(name = "book.deleteChunk",
+                query = "DELETE FROM example_book_schema.books " +
+                        "WHERE id = ANY(ARRAY(SELECT id " +
+                        "FROM example_book_schema.books LIMIT ?1))"),
+        @NamedNativeQuery(name = "book.patch",
+                query = "UPDATE example_book_schema.books " +
+                        "SET book = book || CAST(?2 AS JSONB) " +
+                        "WHERE id = CAST(?1 AS UUID) RETURNING book"),
+        @NamedNativeQuery(name = "book.mergePatch",
+                query = "UPDATE example_book_schema.books " +
+                        "SET book = example_book_schema.merge_patch(book, CAST(?2 AS JSONB)) " +
+                        "WHERE id = CAST(?1 AS UUID) RETURNING book")
 })
 @Entity
+@EntityListeners(FingerprintListener.class)
 @Table(name = "books", schema = "example_book_schema")
-public class BookEntity implements Serializable, DirtyStateIdentifiable {
+public class BookEntity implements Serializable, FingerprintIdentifiable {
 
     @Id
     @Column(name = "id", nullable = false)
@@ -61,4 +125,12 @@ public class BookEntity implements Serializable, DirtyStateIdentifiable {
 
     @Transient
     private boolean dirty;
+
+    @Transient
+    private long fingerprint;
+
+    @Override
+    public Object getFingerprintedState() {
+        return book;
+    }
 }
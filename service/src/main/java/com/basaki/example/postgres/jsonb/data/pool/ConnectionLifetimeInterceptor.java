@@ -0,0 +1,54 @@
+package com.basaki.example.postgres.jsonb.data.pool;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.JdbcInterceptor;
+import org.apache.tomcat.jdbc.pool.PooledConnection;
+
+/**
+ * {@code ConnectionLifetimeInterceptor} is a Tomcat JDBC pool interceptor
+ * recording how long physical connections live before the pool closes them.
+ * The pool instantiates the interceptor by class name, so the lifetimes are
+ * kept in static counters.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class ConnectionLifetimeInterceptor extends JdbcInterceptor {
+
+    private static final LongAdder CLOSED = new LongAdder();
+
+    private static final LongAdder TOTAL_LIFETIME = new LongAdder();
+
+    private static final LongAccumulator MAX_LIFETIME =
+            new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void reset(ConnectionPool parent, PooledConnection con) {
+        // nothing to reset on borrow
+    }
+
+    @Override
+    public void disconnected(ConnectionPool parent, PooledConnection con,
+            boolean finalizing) {
+        long lifetime = System.currentTimeMillis() - con.getLastConnected();
+        CLOSED.increment();
+        TOTAL_LIFETIME.add(lifetime);
+        MAX_LIFETIME.accumulate(lifetime);
+        super.disconnected(parent, con, finalizing);
+    }
+
+    public static long getClosedCount() {
+        return CLOSED.sum();
+    }
+
+    public static long getTotalLifetime() {
+        return TOTAL_LIFETIME.sum();
+    }
+
+    public static long getMaxLifetime() {
+        return MAX_LIFETIME.get();
+    }
+}
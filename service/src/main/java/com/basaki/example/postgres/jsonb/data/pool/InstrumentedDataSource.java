@@ -0,0 +1,159 @@
+package com.basaki.example.postgres.jsonb.data.pool;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@code InstrumentedDataSource} wraps a pooled {@code DataSource} and
+ * measures how long callers wait to borrow a connection and how many are
+ * waiting, independently of the pool implementation. The active and idle
+ * counts are read from the pool.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class InstrumentedDataSource extends DelegatingDataSource
+        implements Closeable {
+
+    private final LongAdder borrowed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder totalWait = new LongAdder();
+
+    private final LongAccumulator maxWait = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder pending = new LongAdder();
+
+    public InstrumentedDataSource(DataSource pool) {
+        super(pool);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = begin();
+        boolean success = false;
+        try {
+            Connection connection = getTargetDataSource().getConnection();
+            success = true;
+
+            return connection;
+        } finally {
+            end(start, success);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username,
+            String password) throws SQLException {
+        long start = begin();
+        boolean success = false;
+        try {
+            Connection connection =
+                    getTargetDataSource().getConnection(username, password);
+            success = true;
+
+            return connection;
+        } finally {
+            end(start, success);
+        }
+    }
+
+    public long getBorrowedCount() {
+        return borrowed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the total time spent waiting for connections in microseconds
+     */
+    public long getTotalWait() {
+        return totalWait.sum();
+    }
+
+    /**
+     * @return the longest wait for a connection in microseconds
+     */
+    public long getMaxWait() {
+        return maxWait.get();
+    }
+
+    public long getPending() {
+        return pending.sum();
+    }
+
+    /**
+     * @return the number of borrowed connections, or -1 if the pool doesn't
+     * tell
+     */
+    public int getActive() {
+        DataSource pool = getTargetDataSource();
+        if (pool instanceof org.apache.tomcat.jdbc.pool.DataSource) {
+            return ((org.apache.tomcat.jdbc.pool.DataSource) pool).getActive();
+        } else if (pool instanceof BasicDataSource) {
+            return ((BasicDataSource) pool).getNumActive();
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the number of idle connections, or -1 if the pool doesn't tell
+     */
+    public int getIdle() {
+        DataSource pool = getTargetDataSource();
+        if (pool instanceof org.apache.tomcat.jdbc.pool.DataSource) {
+            return ((org.apache.tomcat.jdbc.pool.DataSource) pool).getIdle();
+        } else if (pool instanceof BasicDataSource) {
+            return ((BasicDataSource) pool).getNumIdle();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Closes the pool and its connections.
+     */
+    @Override
+    public void close() {
+        DataSource pool = getTargetDataSource();
+        if (pool instanceof org.apache.tomcat.jdbc.pool.DataSource) {
+            ((org.apache.tomcat.jdbc.pool.DataSource) pool).close();
+        } else if (pool instanceof BasicDataSource) {
+            try {
+                ((BasicDataSource) pool).close();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to close pool", e);
+            }
+        }
+    }
+
+    private long begin() {
+        pending.increment();
+
+        return System.nanoTime();
+    }
+
+    private void end(long start, boolean success) {
+        long wait = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        pending.decrement();
+        totalWait.add(wait);
+        maxWait.accumulate(wait);
+        if (success) {
+            borrowed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+}
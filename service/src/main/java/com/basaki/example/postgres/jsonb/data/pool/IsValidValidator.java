@@ -0,0 +1,32 @@
+package com.basaki.example.postgres.jsonb.data.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.apache.tomcat.jdbc.pool.Validator;
+
+/**
+ * {@code IsValidValidator} validates a pooled connection with
+ * {@code Connection.isValid}, which the PostgreSQL driver answers with an
+ * empty query instead of running a validation query.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class IsValidValidator implements Validator {
+
+    private final int timeoutSeconds;
+
+    public IsValidValidator(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public boolean validate(Connection connection, int validateAction) {
+        try {
+            return connection.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
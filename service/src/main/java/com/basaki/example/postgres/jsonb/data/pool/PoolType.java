@@ -0,0 +1,24 @@
+package com.basaki.example.postgres.jsonb.data.pool;
+
+/**
+ * {@code PoolType} represents the connection pool implementation behind the
+ * application's {@code DataSource}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum PoolType {
+
+    /**
+     * Tomcat JDBC pool. Connections are validated with
+     * {@code Connection.isValid} at most once per validation interval.
+     */
+    TOMCAT,
+
+    /**
+     * Commons DBCP 1.4 pool validating with the validation query. Kept for
+     * comparison with {@code TOMCAT}.
+     */
+    DBCP
+}
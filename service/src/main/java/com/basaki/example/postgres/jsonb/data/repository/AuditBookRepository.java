@@ -3,7 +3,9 @@ package com.basaki.example.postgres.jsonb.data.repository;
 import com.basaki.example.postgres.jsonb.data.entity.AuditBookEntity;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * {@code AuditBookRepository} exposes read operations on a data of type
@@ -18,4 +20,15 @@ public interface AuditBookRepository extends
         CustomJpaRepository<AuditBookEntity, AuditBookEntity.AuditBookId> {
 
     List<AuditBookEntity> findByIdId(UUID id);
+
+    @Transactional
+    @Query(value = "SELECT example_book_audit_schema.create_partitions(?1, ?2)", nativeQuery = true)
+    Integer createPartitions(String unit, int premake);
+
+    @Query(value = "SELECT CAST(count(*) AS INTEGER) FROM example_book_audit_schema.books_default", nativeQuery = true)
+    Integer countDefaultPartitionRecords();
+
+    @Transactional
+    @Query(value = "SELECT example_book_audit_schema.drop_partitions(CAST(?1 AS INTERVAL), ?2)", nativeQuery = true)
+    Integer dropPartitions(String retention, boolean detachOnly);
 }
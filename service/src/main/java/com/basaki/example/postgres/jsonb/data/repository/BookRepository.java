@@ -20,9 +20,17 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface BookRepository extends CustomJpaRepository<BookEntity, UUID> {
 
-    @Query(value = "SELECT DISTINCT b.book->>'publisher' FROM example_book_schema.books b WHERE b.book->>'publisher' ILIKE CONCAT('%', ?1, '%')", nativeQuery = true)
+    @Query(value = "SELECT DISTINCT b.book->>'publisher' FROM example_book_schema.books b WHERE LOWER(b.book->>'publisher') LIKE example_book_schema.like_pattern(?1)", nativeQuery = true)
     List<String> findDistinctPublisher(String publisher);
 
+    /**
+     * Sets the audit user with a stored procedure call.
+     *
+     * @param user the audit user
+     * @deprecated costs a round trip on every write, use {@link
+     * #setAuditUser(String)}
+     */
+    @Deprecated
     @Procedure(name = "book.setUser")
     void setUser(@Param("audit_user") String user);
 
@@ -18,4 +18,12 @@ import org.springframework.data.repository.NoRepositoryBean;
 public interface CustomJpaRepository<T, ID extends Serializable> extends JpaRepository<T, ID> {
 
     EntityManager getEntityManager();
+
+    /**
+     * Sets the user recorded by the audit triggers for the following writes
+     * of the current transaction.
+     *
+     * @param user the audit user
+     */
+    void setAuditUser(String user);
 }
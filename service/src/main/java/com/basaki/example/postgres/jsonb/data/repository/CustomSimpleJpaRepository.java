@@ -1,13 +1,26 @@
 package com.basaki.example.postgres.jsonb.data.repository;
 
+import com.basaki.example.postgres.jsonb.data.audit.AuditUserContext;
+import com.basaki.example.postgres.jsonb.data.routing.ReadYourWrites;
+import com.basaki.example.postgres.jsonb.metrics.Histogram;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
 import java.io.Serializable;
 import javax.persistence.EntityManager;
+import org.hibernate.Session;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * {@code CustomSimpleJpaRepository} implements the {@code CustomJpaRepository}
  * and extends {@code SimpleJpaRepository}.
+ * Calls of {@code findOne} and {@code save} are timed as
+ * {@code repository.<entity>.findOne.time} and
+ * {@code repository.<entity>.save.time}, e.g. {@code repository.book.save.time}
+ * for {@code BookEntity}. The time of {@code save} doesn't include the flush
+ * of the entity, which happens when the transaction commits.
  * <p/>
  *
  * @author Indra Basak
@@ -19,15 +32,64 @@ public class CustomSimpleJpaRepository<T, ID extends Serializable>
 
     private final EntityManager entityManager;
 
+    private final Histogram findOneTime;
+
+    private final Histogram findOneRows;
+
+    private final Histogram saveTime;
+
     public CustomSimpleJpaRepository(
             JpaEntityInformation<T, ?> entityInformation,
             EntityManager entityManager) {
         super(entityInformation, entityManager);
         this.entityManager = entityManager;
+
+        String prefix = "repository." + metricName(
+                entityInformation.getJavaType()) + ".";
+        findOneTime = Metrics.timer(prefix + "findOne.time");
+        findOneRows = Metrics.distribution(prefix + "findOne.rows");
+        saveTime = Metrics.timer(prefix + "save.time");
+    }
+
+    @Override
+    public T findOne(ID id) {
+        long started = System.nanoTime();
+        T entity = super.findOne(id);
+        findOneTime.record(System.nanoTime() - started);
+        findOneRows.record(entity == null ? 0 : 1);
+
+        return entity;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S save(S entity) {
+        long started = System.nanoTime();
+        S saved = super.save(entity);
+        saveTime.record(System.nanoTime() - started);
+
+        return saved;
     }
 
     @Override
     public EntityManager getEntityManager() {
         return entityManager;
     }
+
+    @Override
+    public void setAuditUser(String user) {
+        Assert.hasText(user, "User should not be empty.");
+        entityManager.unwrap(Session.class).doWork(
+                connection -> AuditUserContext.apply(connection, user));
+        ReadYourWrites.recordWrite(user);
+    }
+
+    private static String metricName(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.endsWith("Entity") && name.length() > "Entity".length()) {
+            name = name.substring(0, name.length() - "Entity".length());
+        }
+
+        return StringUtils.uncapitalize(name);
+    }
 }
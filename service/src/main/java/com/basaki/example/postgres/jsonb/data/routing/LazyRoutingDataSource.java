@@ -0,0 +1,47 @@
+package com.basaki.example.postgres.jsonb.data.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * {@code LazyRoutingDataSource} defers fetching a connection from a
+ * {@link ReplicaRoutingDataSource} until the first statement, when the
+ * transaction's read-only flag is known, and closes the routed pools on
+ * shutdown.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class LazyRoutingDataSource extends LazyConnectionDataSourceProxy
+        implements Closeable {
+
+    private final ReplicaRoutingDataSource routing;
+
+    /**
+     * Creates a lazy proxy with known connection defaults, so that no
+     * connection is fetched to determine them.
+     *
+     * @param routing              the routing data source
+     * @param transactionIsolation the default transaction isolation of the
+     *                             pools
+     */
+    public LazyRoutingDataSource(ReplicaRoutingDataSource routing,
+            int transactionIsolation) {
+        this.routing = routing;
+        setTargetDataSource(routing);
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(transactionIsolation);
+        afterPropertiesSet();
+    }
+
+    public ReplicaRoutingDataSource getRouting() {
+        return routing;
+    }
+
+    @Override
+    public void close() throws IOException {
+        routing.close();
+    }
+}
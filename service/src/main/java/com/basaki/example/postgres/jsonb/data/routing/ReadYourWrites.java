@@ -0,0 +1,107 @@
+package com.basaki.example.postgres.jsonb.data.routing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@code ReadYourWrites} keeps read-only transactions of an audit user on the
+ * primary database for a while after the user's last committed write, so
+ * that the user doesn't read a replica which hasn't replayed the write yet.
+ * The user of the current request is bound to the thread by
+ * {@link ReadYourWritesFilter}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class ReadYourWrites {
+
+    private static final int PRUNE_THRESHOLD = 10000;
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    // user -> System.nanoTime() until which the user reads from the primary
+    private static final Map<String, Long> PINNED = new ConcurrentHashMap<>();
+
+    private static volatile long windowNanos;
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Sets how long the reads of a user stay on the primary after a write.
+     * Zero disables read your writes.
+     *
+     * @param windowMillis the window in milliseconds
+     */
+    public static void setWindowMillis(long windowMillis) {
+        windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        PINNED.clear();
+    }
+
+    public static void setCurrentUser(String user) {
+        CURRENT_USER.set(user);
+    }
+
+    public static void clearCurrentUser() {
+        CURRENT_USER.remove();
+    }
+
+    /**
+     * Records a write of a user once the current transaction commits, or
+     * immediately without a transaction.
+     *
+     * @param user the audit user
+     */
+    public static void recordWrite(String user) {
+        if (windowNanos == 0 || user == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCommit() {
+                            pin(user);
+                        }
+                    });
+        } else {
+            pin(user);
+        }
+    }
+
+    /**
+     * Tells whether the user of the current thread wrote within the window.
+     *
+     * @return true if the reads of the current user should use the primary
+     */
+    public static boolean requiresPrimary() {
+        String user = CURRENT_USER.get();
+        if (windowNanos == 0 || user == null) {
+            return false;
+        }
+
+        Long until = PINNED.get(user);
+        if (until == null) {
+            return false;
+        } else if (until - System.nanoTime() > 0) {
+            return true;
+        }
+
+        PINNED.remove(user, until);
+
+        return false;
+    }
+
+    private static void pin(String user) {
+        long now = System.nanoTime();
+        if (PINNED.size() > PRUNE_THRESHOLD) {
+            PINNED.values().removeIf(until -> until - now <= 0);
+        }
+        PINNED.put(user, now + windowNanos);
+    }
+}
@@ -0,0 +1,35 @@
+package com.basaki.example.postgres.jsonb.data.routing;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * {@code ReadYourWritesFilter} binds the audit user of a request, taken from
+ * the {@code user} header, to the request thread for
+ * {@link ReadYourWrites}. Read requests only need to send the header to read
+ * their own writes.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String USER_HEADER = "user";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain) throws ServletException, IOException {
+        ReadYourWrites.setCurrentUser(request.getHeader(USER_HEADER));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clearCurrentUser();
+        }
+    }
+}
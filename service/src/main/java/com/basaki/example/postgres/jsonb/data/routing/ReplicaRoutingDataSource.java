@@ -0,0 +1,414 @@
+package com.basaki.example.postgres.jsonb.data.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@code ReplicaRoutingDataSource} sends the connections of read-only
+ * transactions to replicas, in round robin, and all other connections to the
+ * primary. A replica is ejected for a while when it fails to provide a
+ * connection, when a statement fails on one of its connections for a reason
+ * other than the statement itself, or when the periodic probe finds it down
+ * or lagging. The next replica is tried then. Without a healthy replica, or
+ * within the read your writes window of the current user, reads use the
+ * primary.
+ * <p/>
+ * The probe validates a connection of each replica and compares the time of
+ * the last replayed transaction with the current time, unless the replica
+ * has replayed everything it received. A healthy replica is put back in
+ * rotation by the probe.
+ * <p/>
+ * The routing decision depends on the transaction being marked read-only,
+ * which happens after the transaction manager asks for a connection, so the
+ * data source has to be wrapped in a {@code LazyConnectionDataSourceProxy}.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource
+        implements Closeable {
+
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - " +
+            "pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    /**
+     * SQL state classes of errors caused by the statement, not the replica:
+     * feature not supported, cardinality violation, data exception, integrity
+     * constraint violation, syntax error or access rule violation and
+     * PL/pgSQL errors
+     */
+    private static final Set<String> STATEMENT_ERROR_CLASSES =
+            Collections.unmodifiableSet(new HashSet<>(
+                    Arrays.asList("0A", "21", "22", "23", "42", "P0")));
+
+    private static final int PROBE_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final long ejectNanos;
+
+    private final long maxLagMillis;
+
+    private final ScheduledExecutorService prober;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder primaryReads = new LongAdder();
+
+    private final LongAdder replicaReads = new LongAdder();
+
+    private final LongAdder ejections = new LongAdder();
+
+    /**
+     * Creates a routing data source without a probe.
+     *
+     * @param primary     the primary data source
+     * @param replicas    the replica data sources
+     * @param ejectMillis how long a failed replica stays ejected
+     */
+    public ReplicaRoutingDataSource(DataSource primary,
+            List<DataSource> replicas, long ejectMillis) {
+        this(primary, replicas, ejectMillis, 0, 0);
+    }
+
+    /**
+     * Creates a routing data source.
+     *
+     * @param primary      the primary data source
+     * @param replicas     the replica data sources
+     * @param ejectMillis  how long a failed replica stays ejected
+     * @param probeMillis  the delay between probes of the replicas, 0
+     *                     disables the probe
+     * @param maxLagMillis the replay lag beyond which a replica is ejected, 0
+     *                     disables the lag check
+     */
+    public ReplicaRoutingDataSource(DataSource primary,
+            List<DataSource> replicas, long ejectMillis, long probeMillis,
+            long maxLagMillis) {
+        this.primary = primary;
+        List<Replica> nodes = new ArrayList<>(replicas.size());
+        for (DataSource replica : replicas) {
+            nodes.add(new Replica(replica));
+        }
+        this.replicas = Collections.unmodifiableList(nodes);
+        this.ejectNanos = TimeUnit.MILLISECONDS.toNanos(ejectMillis);
+        this.maxLagMillis = maxLagMillis;
+
+        if (probeMillis > 0) {
+            prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-probe");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            prober.scheduleWithFixedDelay(this::probe, probeMillis,
+                    probeMillis, TimeUnit.MILLISECONDS);
+        } else {
+            prober = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routes the same way as {@link #getConnection()} and passes the
+     * credentials to the chosen pool.
+     */
+    @Override
+    public Connection getConnection(String username,
+            String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username,
+                password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connector.connect(primary);
+        }
+
+        if (!ReadYourWrites.requiresPrimary()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                Connection connection = replica.getConnection(connector);
+                if (connection != null) {
+                    replicaReads.increment();
+                    return connection;
+                }
+            }
+        }
+
+        primaryReads.increment();
+
+        return connector.connect(primary);
+    }
+
+    /**
+     * Probes every replica, ejecting the ones which are down or lagging and
+     * putting the healthy ones back in rotation.
+     */
+    public void probe() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(PROBE_TIMEOUT_SECONDS)) {
+                    replica.eject("its connection isn't valid", null);
+                    continue;
+                }
+
+                if (maxLagMillis > 0) {
+                    long lag = lagMillis(connection);
+                    if (lag > maxLagMillis) {
+                        replica.eject("it lags " + lag + " ms behind", null);
+                        continue;
+                    }
+                }
+
+                replica.reinstate();
+            } catch (SQLException | RuntimeException e) {
+                replica.eject("its probe failed", e);
+            }
+        }
+    }
+
+    private static long lagMillis(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.setQueryTimeout(PROBE_TIMEOUT_SECONDS);
+            try (ResultSet rs = st.executeQuery(LAG_QUERY)) {
+                rs.next();
+
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * @return true if the error is caused by the replica or its connection
+     * rather than by the failed statement
+     */
+    static boolean isReplicaFailure(SQLException e) {
+        String state = e.getSQLState();
+
+        return state == null || state.length() < 2
+                || !STATEMENT_ERROR_CLASSES.contains(state.substring(0, 2));
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        List<DataSource> dataSources = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            dataSources.add(replica.dataSource);
+        }
+
+        return dataSources;
+    }
+
+    /**
+     * @return the number of replicas currently in rotation
+     */
+    public int getHealthyReplicaCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (!replica.isEjected(System.nanoTime())) {
+                healthy++;
+            }
+        }
+
+        return healthy;
+    }
+
+    public long getPrimaryReadCount() {
+        return primaryReads.sum();
+    }
+
+    public long getReplicaReadCount() {
+        return replicaReads.sum();
+    }
+
+    public long getEjectionCount() {
+        return ejections.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+        close(primary);
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+
+    /**
+     * {@code Connector} gets a connection from a data source.
+     */
+    @FunctionalInterface
+    private interface Connector {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * {@code Replica} is a replica data source with its ejection state.
+     */
+    private class Replica {
+
+        private final DataSource dataSource;
+
+        private volatile long ejectedUntil;
+
+        private volatile boolean ejected;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean isEjected(long now) {
+            return ejected && ejectedUntil - now > 0;
+        }
+
+        /**
+         * @return a connection or null if the replica is or gets ejected
+         */
+        Connection getConnection(Connector connector) {
+            if (isEjected(System.nanoTime())) {
+                return null;
+            }
+
+            try {
+                Connection connection = connector.connect(dataSource);
+                ejected = false;
+
+                return (Connection) wrap(connection, Connection.class);
+            } catch (SQLException | RuntimeException e) {
+                eject("it failed to provide a connection", e);
+
+                return null;
+            }
+        }
+
+        void eject(String reason, Throwable e) {
+            long now = System.nanoTime();
+            if (!isEjected(now)) {
+                ejections.increment();
+            }
+            ejectedUntil = now + ejectNanos;
+            ejected = true;
+            log.warn("Ejected replica for " +
+                    TimeUnit.NANOSECONDS.toMillis(ejectNanos) + " ms since "
+                    + reason, e);
+        }
+
+        void reinstate() {
+            ejected = false;
+        }
+
+        /**
+         * Wraps a connection, statement or result set of the replica, so
+         * that a failure of the replica ejects it.
+         */
+        Object wrap(Object target, Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(),
+                    new Class<?>[]{type}, new FailureHandler(target));
+        }
+
+        /**
+         * {@code FailureHandler} ejects the replica when a call fails for a
+         * reason other than the statement.
+         */
+        private class FailureHandler implements InvocationHandler {
+
+            private final Object target;
+
+            FailureHandler(Object target) {
+                this.target = target;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method,
+                    Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(target)) {
+                            return target;
+                        }
+                        break;
+                    case "isWrapperFor":
+                        if (((Class<?>) args[0]).isInstance(target)) {
+                            return true;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof SQLException
+                            && isReplicaFailure((SQLException) cause)) {
+                        eject("a statement failed", cause);
+                    }
+                    throw cause;
+                }
+
+                Class<?> type = method.getReturnType();
+                if (result != null && type.isInterface()
+                        && (Statement.class.isAssignableFrom(type)
+                        || type == ResultSet.class)) {
+                    return wrap(result, type);
+                }
+
+                return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.basaki.example.postgres.jsonb.data.strategy;
+
+/**
+ * {@code DirtinessMode} represents how {@code EntityDirtinessStrategy} decides
+ * if an entity is dirty during a flush cycle.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum DirtinessMode {
+
+    /**
+     * Trusts the dirty flag of a {@code DirtyStateIdentifiable} entity.
+     */
+    FLAG,
+
+    /**
+     * Compares the fingerprint of a {@code FingerprintIdentifiable} entity
+     * recorded during load with the fingerprint of its current state.
+     */
+    FINGERPRINT
+}
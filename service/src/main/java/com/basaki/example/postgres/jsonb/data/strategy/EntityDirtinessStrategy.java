@@ -1,5 +1,6 @@
 package com.basaki.example.postgres.jsonb.data.strategy;
 
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.CustomEntityDirtinessStrategy;
 import org.hibernate.Session;
@@ -12,6 +13,9 @@ import org.hibernate.persister.entity.EntityPersister;
  * creation of a new entity. During an update operation, the dirty flag should
  * be explicitly set to false.
  * <p/>
+ * In {@code FINGERPRINT} mode, a {@code FingerprintIdentifiable} entity is only
+ * dirty if the fingerprint of its current state differs from the one recorded
+ * during load. An unchanged entity is neither updated nor audited.
  *
  * @author Indra Basak
  * @since 4/13/17
@@ -19,6 +23,39 @@ import org.hibernate.persister.entity.EntityPersister;
 @Slf4j
 public class EntityDirtinessStrategy implements CustomEntityDirtinessStrategy {
 
+    private static final LongAdder CHECKED = new LongAdder();
+
+    private static final LongAdder SKIPPED = new LongAdder();
+
+    private static volatile DirtinessMode mode = DirtinessMode.FLAG;
+
+    public static DirtinessMode getMode() {
+        return mode;
+    }
+
+    public static void setMode(DirtinessMode dirtinessMode) {
+        mode = dirtinessMode;
+    }
+
+    /**
+     * Returns the number of fingerprint comparisons.
+     *
+     * @return number of entities checked by fingerprint
+     */
+    public static long getCheckedCount() {
+        return CHECKED.sum();
+    }
+
+    /**
+     * Returns the number of entities flagged dirty whose update was skipped
+     * since their fingerprint didn't change.
+     *
+     * @return number of skipped updates
+     */
+    public static long getSkippedCount() {
+        return SKIPPED.sum();
+    }
+
     @Override
     public boolean canDirtyCheck(Object entity, EntityPersister persister,
             Session session) {
@@ -35,6 +72,25 @@ public class EntityDirtinessStrategy implements CustomEntityDirtinessStrategy {
         DirtyStateIdentifiable identifiableEntity =
                 (DirtyStateIdentifiable) entity;
 
+        if (mode == DirtinessMode.FINGERPRINT
+                && entity instanceof FingerprintIdentifiable) {
+            FingerprintIdentifiable fingerprinted =
+                    (FingerprintIdentifiable) entity;
+            if (fingerprinted.getFingerprint() != 0) {
+                CHECKED.increment();
+                boolean dirty = fingerprinted.getFingerprint()
+                        != Fingerprints.of(
+                        fingerprinted.getFingerprintedState());
+                if (!dirty && identifiableEntity.isDirty()) {
+                    SKIPPED.increment();
+                    log.debug("Skipped update of unchanged entity "
+                            + persister.getEntityName());
+                }
+
+                return dirty;
+            }
+        }
+
         if (identifiableEntity.isDirty()) {
             return true;
         }
@@ -0,0 +1,31 @@
+package com.basaki.example.postgres.jsonb.data.strategy;
+
+/**
+ * {@code FingerprintIdentifiable} should be implemented by entities whose dirty
+ * state is identified by comparing the fingerprint of their serialized state.
+ * The fingerprint is recorded by {@code FingerprintListener} whenever the
+ * entity is loaded, persisted or updated.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public interface FingerprintIdentifiable extends DirtyStateIdentifiable {
+
+    /**
+     * Returns the fingerprint recorded during the last load, persist, or
+     * update. Zero means no fingerprint has been recorded.
+     *
+     * @return the recorded fingerprint
+     */
+    long getFingerprint();
+
+    void setFingerprint(long fingerprint);
+
+    /**
+     * Returns the part of the entity state covered by the fingerprint.
+     *
+     * @return the fingerprinted state
+     */
+    Object getFingerprintedState();
+}
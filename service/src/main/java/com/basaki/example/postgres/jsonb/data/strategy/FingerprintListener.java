@@ -0,0 +1,38 @@
+package com.basaki.example.postgres.jsonb.data.strategy;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@code FingerprintListener} is the JPA entity listener which records the
+ * fingerprint of a {@code FingerprintIdentifiable} entity whenever its state
+ * is synchronized with the database. Fingerprints are only recorded if the
+ * {@code EntityDirtinessStrategy} is in {@code FINGERPRINT} mode and never in
+ * read-only transactions, which aren't flushed. An entity without a
+ * fingerprint is dirty checked by its flag.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class FingerprintListener {
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void record(Object entity) {
+        if (EntityDirtinessStrategy.getMode() != DirtinessMode.FINGERPRINT
+                || !(entity instanceof FingerprintIdentifiable)
+                || TransactionSynchronizationManager
+                .isCurrentTransactionReadOnly()) {
+            return;
+        }
+
+        FingerprintIdentifiable identifiable =
+                (FingerprintIdentifiable) entity;
+        identifiable.setFingerprint(
+                Fingerprints.of(identifiable.getFingerprintedState()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.basaki.example.postgres.jsonb.data.strategy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.hibernate.HibernateException;
+
+/**
+ * {@code Fingerprints} computes a compact 64-bit FNV-1a hash of the JSON
+ * serialization of an object. The JSON is streamed into the hash and never
+ * materialized.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public final class Fingerprints {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final ThreadLocal<HashingOutputStream> STREAMS =
+            ThreadLocal.withInitial(HashingOutputStream::new);
+
+    private Fingerprints() {
+    }
+
+    /**
+     * Computes the fingerprint of an object.
+     *
+     * @param value the object to fingerprint, can be null
+     * @return the fingerprint, never zero
+     */
+    public static long of(Object value) {
+        if (value == null) {
+            return FNV_OFFSET_BASIS;
+        }
+
+        HashingOutputStream stream = STREAMS.get();
+        stream.hash = FNV_OFFSET_BASIS;
+        try {
+            MAPPER.writeValue(stream, value);
+        } catch (IOException e) {
+            throw new HibernateException(
+                    "Failed to fingerprint " + value.getClass(), e);
+        }
+
+        return stream.hash == 0 ? FNV_OFFSET_BASIS : stream.hash;
+    }
+
+    private static class HashingOutputStream extends OutputStream {
+
+        private long hash;
+
+        @Override
+        public void write(int b) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            long h = hash;
+            for (int i = off; i < off + len; i++) {
+                h ^= (b[i] & 0xff);
+                h *= FNV_PRIME;
+            }
+            hash = h;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.basaki.example.postgres.jsonb.data.type;
 
+import com.basaki.example.postgres.jsonb.data.copy.DeepCopierRegistry;
+import com.basaki.example.postgres.jsonb.metrics.Histogram;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
@@ -12,7 +15,9 @@ import org.hibernate.usertype.DynamicParameterizedType;
 
 /**
  * {@code JsonTypeDescriptor} is the descriptor for mapping of a JSON string to
- * a Java object and vice-versa.
+ * a Java object and vice-versa. Parse and serialize times and document sizes
+ * in characters are recorded in the {@code json.type.parse} and
+ * {@code json.type.serialize} metrics.
  * <p/>
  *
  * @author Indra Basak
@@ -22,6 +27,18 @@ public class JsonTypeDescriptor extends AbstractTypeDescriptor<Object> implement
 
     public static final String CLASS_NAME = "className";
 
+    private static final Histogram PARSE_TIME =
+            Metrics.timer("json.type.parse.time");
+
+    private static final Histogram PARSE_SIZE =
+            Metrics.distribution("json.type.parse.chars");
+
+    private static final Histogram SERIALIZE_TIME =
+            Metrics.timer("json.type.serialize.time");
+
+    private static final Histogram SERIALIZE_SIZE =
+            Metrics.distribution("json.type.serialize.chars");
+
     private final ObjectMapper objectMapper;
 
     private Class<?> clazz;
@@ -39,15 +56,12 @@ public class JsonTypeDescriptor extends AbstractTypeDescriptor<Object> implement
 
     protected JsonTypeDescriptor(final ObjectMapper objectMapper) {
         super(Object.class, new MutableMutabilityPlan<Object>() {
+            private final DeepCopierRegistry copiers =
+                    new DeepCopierRegistry(objectMapper);
+
             @Override
             protected Object deepCopyNotNull(Object value) {
-                try {
-                    String str = objectMapper.writeValueAsString(value);
-                    return objectMapper.readValue(str, value.getClass());
-                } catch (Exception e) {
-                    throw new RuntimeException(
-                            "Failed to transform " + value + " to JSON object.");
-                }
+                return copiers.copy(value);
             }
         });
         this.objectMapper = objectMapper;
@@ -59,8 +73,13 @@ public class JsonTypeDescriptor extends AbstractTypeDescriptor<Object> implement
 
     @Override
     public String toString(Object value) {
+        long started = System.nanoTime();
         try {
-            return objectMapper.writeValueAsString(value);
+            String string = objectMapper.writeValueAsString(value);
+            SERIALIZE_TIME.record(System.nanoTime() - started);
+            SERIALIZE_SIZE.record(string.length());
+
+            return string;
         } catch (JsonProcessingException e) {
             throw new RuntimeException(
                     "Failed to convert JSON object " + value + "to string.",
@@ -70,8 +89,13 @@ public class JsonTypeDescriptor extends AbstractTypeDescriptor<Object> implement
 
     @Override
     public Object fromString(String string) {
+        long started = System.nanoTime();
         try {
-            return objectMapper.readValue(string, clazz);
+            Object value = objectMapper.readValue(string, clazz);
+            PARSE_TIME.record(System.nanoTime() - started);
+            PARSE_SIZE.record(string.length());
+
+            return value;
         } catch (IOException e) {
             throw new RuntimeException(
                     "Failed to convert String to " + clazz + e.getMessage(),
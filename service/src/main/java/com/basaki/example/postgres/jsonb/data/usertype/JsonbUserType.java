@@ -1,10 +1,11 @@
 package com.basaki.example.postgres.jsonb.data.usertype;
 
+import com.basaki.example.postgres.jsonb.data.codec.JsonbCodec;
+import com.basaki.example.postgres.jsonb.data.copy.DeepCopierRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.io.Serializable;
-import java.io.StringWriter;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -26,6 +27,11 @@ public class JsonbUserType implements UserType, ParameterizedType {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    private static final JsonbCodec CODEC = new JsonbCodec(MAPPER);
+
+    private static final DeepCopierRegistry COPIERS =
+            new DeepCopierRegistry(MAPPER);
+
     private Class<?> clazz;
 
     @Override
@@ -66,51 +72,18 @@ public class JsonbUserType implements UserType, ParameterizedType {
     public Object nullSafeGet(ResultSet rs, String[] names,
             SessionImplementor session,
             Object owner) throws HibernateException, SQLException {
-        String json = rs.getString(names[0]);
-
-        if (json == null) {
-            return null;
-        }
-
-        try {
-            return MAPPER.readValue(json.getBytes("UTF-8"), returnedClass());
-        } catch (IOException e) {
-            throw new RuntimeException(
-                    "Failed to convert String to " + returnedClass() + e.getMessage(),
-                    e);
-        }
+        return CODEC.read(rs, names[0], returnedClass());
     }
 
     @Override
     public void nullSafeSet(PreparedStatement st, Object value, int index,
             SessionImplementor session) throws HibernateException, SQLException {
-        if (value == null) {
-            st.setNull(index, Types.OTHER);
-        } else {
-            try {
-                final StringWriter writer = new StringWriter();
-                MAPPER.writeValue(writer, value);
-                writer.flush();
-                st.setObject(index, writer.toString(), Types.OTHER);
-            } catch (IOException e) {
-                throw new RuntimeException(
-                        "Failed to convert " + returnedClass() + " to String " + e.getMessage(),
-                        e);
-            }
-        }
+        CODEC.write(st, value, index);
     }
 
     @Override
     public Object deepCopy(Object value) throws HibernateException {
-        if (value != null) {
-            try {
-                return MAPPER.readValue(MAPPER.writeValueAsString(value),
-                        returnedClass());
-            } catch (IOException e) {
-                throw new HibernateException("Failed to deep copy object", e);
-            }
-        }
-        return null;
+        return COPIERS.copy(value);
     }
 
     @Override
@@ -130,7 +103,15 @@ public class JsonbUserType implements UserType, ParameterizedType {
     @Override
     public Object assemble(Serializable cached,
             Object owner) throws HibernateException {
-        return deepCopy(cached);
+        if (cached == null) {
+            return null;
+        }
+
+        try {
+            return MAPPER.readValue((String) cached, returnedClass());
+        } catch (IOException e) {
+            throw new HibernateException("Failed to assemble object", e);
+        }
     }
 
     @Override
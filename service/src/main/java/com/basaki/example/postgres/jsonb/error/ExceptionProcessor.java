@@ -78,6 +78,44 @@ public class ExceptionProcessor {
         return info;
     }
 
+    /**
+     * Handles <tt>PreconditionFailedException</tt> exception.It unwraps the
+     * root case and coverts it into an <tt>ErrorInfo</tt> object.
+     *
+     * @param req HTTP request to extract the URL
+     * @param ex  exception to be processed
+     * @return ths error information that is sent to the client
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+    @ResponseBody
+    public ErrorInfo handlePreconditionFailedException(HttpServletRequest req,
+            PreconditionFailedException ex) {
+        ErrorInfo info = getErrorInfo(req, HttpStatus.PRECONDITION_FAILED);
+        info.setMessage(ex.getMessage());
+
+        return info;
+    }
+
+    /**
+     * Handles <tt>ServiceUnavailableException</tt> exception.It unwraps the
+     * root case and coverts it into an <tt>ErrorInfo</tt> object.
+     *
+     * @param req HTTP request to extract the URL
+     * @param ex  exception to be processed
+     * @return ths error information that is sent to the client
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ErrorInfo handleServiceUnavailableException(HttpServletRequest req,
+            ServiceUnavailableException ex) {
+        ErrorInfo info = getErrorInfo(req, HttpStatus.SERVICE_UNAVAILABLE);
+        info.setMessage(ex.getMessage());
+
+        return info;
+    }
+
     private ErrorInfo getErrorInfo(HttpServletRequest req,
             HttpStatus httpStatus) {
         ErrorInfo info = new ErrorInfo();
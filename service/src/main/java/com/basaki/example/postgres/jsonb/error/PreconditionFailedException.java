@@ -0,0 +1,24 @@
+package com.basaki.example.postgres.jsonb.error;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * {@code PreconditionFailedException} is a runtime exception if an entity has
+ * been modified since the version expected by a conditional write.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@NoArgsConstructor
+@ToString(callSuper = true)
+@Getter
+@Setter
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String s) {
+        super(s);
+    }
+}
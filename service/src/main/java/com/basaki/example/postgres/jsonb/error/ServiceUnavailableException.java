@@ -0,0 +1,24 @@
+package com.basaki.example.postgres.jsonb.error;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * {@code ServiceUnavailableException} is a runtime exception if a request
+ * can't be served now because a shared resource is exhausted.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@NoArgsConstructor
+@ToString(callSuper = true)
+@Getter
+@Setter
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String s) {
+        super(s);
+    }
+}
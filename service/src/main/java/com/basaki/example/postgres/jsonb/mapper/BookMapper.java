@@ -0,0 +1,66 @@
+package com.basaki.example.postgres.jsonb.mapper;
+
+import com.basaki.example.postgres.jsonb.data.entity.AuditBookEntity;
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.mapping.GeneratedMapper;
+import com.basaki.example.postgres.jsonb.model.mapping.Mapping;
+
+/**
+ * {@code BookMapper} maps between book requests, books and their entities.
+ * {@code BookMapperImpl} is generated from it at compile time, and
+ * {@code DozerBookMapper} implements it with Dozer for comparison.
+ * <p/>
+ * Identifiers, strings and enums are immutable and shared. An author is
+ * copied, so a book never shares it with the request it was created from.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@GeneratedMapper
+public interface BookMapper {
+
+    /**
+     * Creates a book from a request. The book doesn't have an identifier.
+     *
+     * @param request the book request
+     * @return the book
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "match", ignore = true)
+    Book toBook(BookRequest request);
+
+    /**
+     * Creates a book from an entity, identified by the entity's identifier.
+     *
+     * @param entity the book entity
+     * @return the book
+     */
+    @Mapping(target = ".", source = "book")
+    Book toBook(BookEntity entity);
+
+    /**
+     * Creates an entity holding a book.
+     *
+     * @param book the book
+     * @return the book entity
+     */
+    @Mapping(target = "book", source = ".")
+    @Mapping(target = "dirty", ignore = true)
+    @Mapping(target = "fingerprint", ignore = true)
+    BookEntity toEntity(Book book);
+
+    /**
+     * Creates an audit record from an audit entity.
+     *
+     * @param entity the audit entity
+     * @return the audit record
+     */
+    @Mapping(target = ".", source = "audit")
+    AuditBook toAudit(AuditBookEntity entity);
+
+    Author copy(Author author);
+}
@@ -0,0 +1,72 @@
+package com.basaki.example.postgres.jsonb.mapper;
+
+import com.basaki.example.postgres.jsonb.data.entity.AuditBookEntity;
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import org.dozer.Mapper;
+
+/**
+ * {@code DozerBookMapper} implements {@code BookMapper} with the reflective
+ * Dozer mapper. Dozer maps properties by name, so the nested book of an
+ * entity is mapped explicitly.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class DozerBookMapper implements BookMapper {
+
+    private final Mapper mapper;
+
+    public DozerBookMapper(Mapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Book toBook(BookRequest request) {
+        return request == null ? null : mapper.map(request, Book.class);
+    }
+
+    @Override
+    public Book toBook(BookEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        Book book = entity.getBook() == null ? new Book()
+                : mapper.map(entity.getBook(), Book.class);
+        book.setId(entity.getId());
+
+        return book;
+    }
+
+    @Override
+    public BookEntity toEntity(Book book) {
+        if (book == null) {
+            return null;
+        }
+
+        BookEntity entity = mapper.map(book, BookEntity.class);
+        entity.setBook(book);
+
+        return entity;
+    }
+
+    @Override
+    public AuditBook toAudit(AuditBookEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        return entity.getAudit() == null ? new AuditBook()
+                : mapper.map(entity.getAudit(), AuditBook.class);
+    }
+
+    @Override
+    public Author copy(Author author) {
+        return author == null ? null : mapper.map(author, Author.class);
+    }
+}
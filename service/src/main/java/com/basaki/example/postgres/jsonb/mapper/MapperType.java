@@ -0,0 +1,22 @@
+package com.basaki.example.postgres.jsonb.mapper;
+
+/**
+ * {@code MapperType} represents the implementation of {@code BookMapper}
+ * selected by {@code book.mapper}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public enum MapperType {
+
+    /**
+     * The mapper generated at compile time, {@code BookMapperImpl}.
+     */
+    GENERATED,
+
+    /**
+     * The reflective Dozer mapper, kept for comparison.
+     */
+    DOZER
+}
@@ -0,0 +1,138 @@
+package com.basaki.example.postgres.jsonb.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code Histogram} is a lock-free histogram of non-negative values with
+ * log-linear buckets. Each power of two is split into 16 linear sub-buckets,
+ * so a percentile is reported within 1/16 of its value. Recording only
+ * updates atomic counters and never allocates, so it is safe on the hot
+ * paths. Values above 2<sup>41</sup>, e.g. about 36 minutes in nanoseconds,
+ * are counted in the last bucket.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 40;
+
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private static final int BUCKETS =
+            (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong sum = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        long v = value < 0 ? 0 : value;
+        buckets.incrementAndGet(indexOf(Math.min(v, MAX_VALUE)));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMean() {
+        long n = count.get();
+
+        return n == 0 ? 0 : sum.get() / n;
+    }
+
+    /**
+     * Returns the value below or at which a percentage of the recorded values
+     * fall. The value is the upper bound of its bucket, capped at the maximum
+     * recorded value.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the value at the percentile or zero if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        double ratio = Math.min(Math.max(percentile, 0), 100) / 100;
+        long rank = Math.max(1, (long) Math.ceil(ratio * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                // the last bucket is unbounded
+                return i == BUCKETS - 1 ? max.get()
+                        : Math.min(upperBoundOf(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.basaki.example.postgres.jsonb.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code Metrics} is the registry of the per-operation timers, value
+ * distributions and counters. Metrics are looked up by name once, when the
+ * instrumented class is initialized, and kept in fields, so recording doesn't
+ * touch the registry. Timers record nanoseconds.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public final class Metrics {
+
+    private static final ConcurrentMap<String, Histogram> TIMERS =
+            new ConcurrentSkipListMap<>();
+
+    private static final ConcurrentMap<String, Histogram> DISTRIBUTIONS =
+            new ConcurrentSkipListMap<>();
+
+    private static final ConcurrentMap<String, AtomicLong> COUNTERS =
+            new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the timer with a name, creating it if needed.
+     *
+     * @param name the metric name
+     * @return the histogram of durations in nanoseconds
+     */
+    public static Histogram timer(String name) {
+        return TIMERS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Returns the distribution with a name, e.g. of rows or bytes, creating
+     * it if needed.
+     *
+     * @param name the metric name
+     * @return the histogram of values
+     */
+    public static Histogram distribution(String name) {
+        return DISTRIBUTIONS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Returns the counter with a name, creating it if needed.
+     *
+     * @param name the metric name
+     * @return the counter
+     */
+    public static AtomicLong counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new AtomicLong());
+    }
+
+    public static Map<String, Histogram> getTimers() {
+        return Collections.unmodifiableMap(TIMERS);
+    }
+
+    public static Map<String, Histogram> getDistributions() {
+        return Collections.unmodifiableMap(DISTRIBUTIONS);
+    }
+
+    public static Map<String, AtomicLong> getCounters() {
+        return Collections.unmodifiableMap(COUNTERS);
+    }
+}
@@ -0,0 +1,74 @@
+package com.basaki.example.postgres.jsonb.metrics;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * {@code OperationMetricsInterceptor} times the public methods of a class and
+ * counts the calls ending with an exception. Overloaded methods share the
+ * metrics of their name, {@code <prefix><method>.time} and
+ * {@code <prefix><method>.errors}. The metrics of each method are resolved
+ * when the interceptor is created, so a call only does a map lookup.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class OperationMetricsInterceptor implements MethodInterceptor {
+
+    private final Map<Method, Operation> operations = new HashMap<>();
+
+    /**
+     * Creates the interceptor of a class.
+     *
+     * @param prefix prefix of the metric names
+     * @param type   the instrumented class
+     */
+    public OperationMetricsInterceptor(String prefix, Class<?> type) {
+        Map<String, Operation> byName = new HashMap<>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers())
+                    && !Modifier.isStatic(method.getModifiers())
+                    && !method.isSynthetic()) {
+                operations.put(method, byName.computeIfAbsent(
+                        method.getName(),
+                        name -> new Operation(prefix + name)));
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Operation operation = operations.get(invocation.getMethod());
+        if (operation == null) {
+            return invocation.proceed();
+        }
+
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            operation.errors.incrementAndGet();
+            throw t;
+        } finally {
+            operation.time.record(System.nanoTime() - started);
+        }
+    }
+
+    private static class Operation {
+
+        private final Histogram time;
+
+        private final AtomicLong errors;
+
+        Operation(String name) {
+            time = Metrics.timer(name + ".time");
+            errors = Metrics.counter(name + ".errors");
+        }
+    }
+}
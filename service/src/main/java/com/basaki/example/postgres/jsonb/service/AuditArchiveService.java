@@ -0,0 +1,153 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.archive.AuditArchive;
+import com.basaki.example.postgres.jsonb.archive.AuditSegmentWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.UUID;
+import javax.sql.DataSource;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@code AuditArchiveService} moves audit records older than a cutoff from
+ * the audit table into a new segment of the {@link AuditArchive}. The records
+ * are archived with the full state of the book, and the oldest remaining
+ * record of each archived book becomes a snapshot, so that neither tier
+ * depends on the other to rebuild a state.
+ * <p/>
+ * The segment is committed before the database transaction. If the database
+ * commit fails, the records exist in both tiers until the next run, and reads
+ * prefer the live records.
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Service
+@Slf4j
+public class AuditArchiveService {
+
+    private static final String SELECT_ARCHIVED =
+            "SELECT CAST(h.id AS TEXT), h.made_at, " +
+                    "CAST(example_book_audit_schema.audit_view(h.audit - 'delta' || " +
+                    "jsonb_build_object('state', h.state), h.made_at) AS TEXT) " +
+                    "FROM (SELECT a.id, a.made_at, a.audit, " +
+                    "example_book_audit_schema.replay(a.audit) OVER (" +
+                    "PARTITION BY a.id ORDER BY a.made_at) AS state " +
+                    "FROM example_book_audit_schema.books a " +
+                    "WHERE a.made_at < CAST(? AS TIMESTAMPTZ)) h " +
+                    "ORDER BY h.id, h.made_at";
+
+    private static final String UPDATE_SNAPSHOTS =
+            "UPDATE example_book_audit_schema.books a " +
+                    "SET audit = a.audit - 'delta' || jsonb_build_object('state', " +
+                    "example_book_audit_schema.book_as_of(a.id, a.made_at)) " +
+                    "FROM (SELECT f.id, min(f.made_at) AS made_at " +
+                    "FROM example_book_audit_schema.books f " +
+                    "WHERE f.made_at >= CAST(? AS TIMESTAMPTZ) " +
+                    "AND f.id IN (SELECT o.id " +
+                    "FROM example_book_audit_schema.books o " +
+                    "WHERE o.made_at < CAST(? AS TIMESTAMPTZ)) " +
+                    "GROUP BY f.id) b " +
+                    "WHERE a.id = b.id AND a.made_at = b.made_at " +
+                    "AND a.audit->'state' IS NULL";
+
+    private static final String DELETE_ARCHIVED =
+            "DELETE FROM example_book_audit_schema.books " +
+                    "WHERE made_at < CAST(? AS TIMESTAMPTZ)";
+
+    private final DataSource dataSource;
+
+    private final AuditArchive archive;
+
+    @Setter
+    @Value("${audit.archive.fetchSize:1000}")
+    private int fetchSize;
+
+    @Autowired
+    public AuditArchiveService(DataSource dataSource, AuditArchive archive) {
+        this.dataSource = dataSource;
+        this.archive = archive;
+    }
+
+    /**
+     * Archives the audit records made before a cutoff in a single
+     * transaction.
+     *
+     * @param cutoff the cutoff time
+     * @return the number of archived records
+     * @throws IOException  if the segment can't be written
+     * @throws SQLException if the records can't be moved
+     */
+    public long archive(Date cutoff) throws IOException, SQLException {
+        String bound = cutoff.toInstant().toString();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            AuditSegmentWriter writer = archive.newSegment();
+            boolean committed = false;
+            try {
+                long records = copyOut(connection, bound, writer);
+                if (records == 0) {
+                    connection.rollback();
+                    return 0;
+                }
+
+                try (PreparedStatement st =
+                             connection.prepareStatement(UPDATE_SNAPSHOTS)) {
+                    st.setString(1, bound);
+                    st.setString(2, bound);
+                    st.executeUpdate();
+                }
+                try (PreparedStatement st =
+                             connection.prepareStatement(DELETE_ARCHIVED)) {
+                    st.setString(1, bound);
+                    st.executeUpdate();
+                }
+
+                archive.commit(writer);
+                committed = true;
+                connection.commit();
+
+                log.info("Archived " + records + " audit records before "
+                        + bound);
+
+                return records;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                if (!committed) {
+                    archive.discard(writer);
+                }
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private long copyOut(Connection connection, String bound,
+            AuditSegmentWriter writer) throws IOException, SQLException {
+        try (PreparedStatement st =
+                     connection.prepareStatement(SELECT_ARCHIVED)) {
+            st.setString(1, bound);
+            st.setFetchSize(fetchSize);
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    writer.append(UUID.fromString(rs.getString(1)),
+                            rs.getTimestamp(2).getTime(),
+                            rs.getString(3).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        return writer.getRecordCount();
+    }
+}
@@ -0,0 +1,47 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code AuditMaintenanceHealthIndicator} reports the audit maintenance job
+ * on the actuator {@code /health} endpoint. The service is {@code DEGRADED}
+ * while a maintenance step keeps failing or audit records are left in the
+ * default partition. Writes still succeed then, so the status doesn't take
+ * the service out of rotation like {@code DOWN} would.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Component
+public class AuditMaintenanceHealthIndicator extends AbstractHealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED",
+            "Audit maintenance is failing");
+
+    private final AuditMaintenanceService maintenance;
+
+    @Autowired
+    public AuditMaintenanceHealthIndicator(
+            AuditMaintenanceService maintenance) {
+        this.maintenance = maintenance;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Map<String, String> failures = maintenance.getFailures();
+        int records = maintenance.getDefaultPartitionRecords();
+
+        builder.status(failures.isEmpty() && records == 0
+                ? Status.UP : DEGRADED);
+        builder.withDetail("defaultPartitionRecords", records);
+        for (Map.Entry<String, String> failure : failures.entrySet()) {
+            builder.withDetail(failure.getKey(), failure.getValue());
+        }
+    }
+}
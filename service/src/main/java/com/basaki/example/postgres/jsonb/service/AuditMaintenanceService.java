@@ -0,0 +1,168 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.data.repository.AuditBookRepository;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code AuditMaintenanceService} maintains the partitions of the time
+ * partitioned audit table. It creates the partitions of the coming periods
+ * ahead of time, archives old audit records and removes the partitions past
+ * the retention period, on startup and then on a schedule. Each step runs in
+ * its own transaction and a failure doesn't prevent the service from
+ * starting. Audit records written while their partition is missing land in
+ * the default partition, so writes keep working, and are moved out once the
+ * partition is created.
+ * <p/>
+ * The failures of each step are counted in the
+ * {@code audit.maintenance.<step>.failures} metrics. The last failure of a
+ * step and the records left in the default partition are reported by
+ * {@code AuditMaintenanceHealthIndicator} until the step succeeds again.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Service
+@Slf4j
+public class AuditMaintenanceService {
+
+    static final String PARTITIONS = "partitions";
+
+    static final String ARCHIVE = "archive";
+
+    static final String RETENTION = "retention";
+
+    private static final Map<String, AtomicLong> FAILURE_COUNTERS =
+            failureCounters(PARTITIONS, ARCHIVE, RETENTION);
+
+    private final AuditBookRepository repo;
+
+    private final AuditArchiveService archiveService;
+
+    @Setter
+    @Value("${audit.partition.unit:month}")
+    private String unit;
+
+    @Setter
+    @Value("${audit.partition.premake:3}")
+    private int premake;
+
+    @Setter
+    @Value("${audit.archive.afterDays:0}")
+    private int archiveAfterDays;
+
+    @Setter
+    @Value("${audit.retention.period:}")
+    private String retention;
+
+    @Setter
+    @Value("${audit.retention.detachOnly:false}")
+    private boolean detachOnly;
+
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+
+    private volatile int defaultPartitionRecords;
+
+    @Autowired
+    public AuditMaintenanceService(AuditBookRepository repo,
+            AuditArchiveService archiveService) {
+        this.repo = repo;
+        this.archiveService = archiveService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.maintenance.cron:0 0 3 * * *}")
+    public void maintain() {
+        try {
+            int created = repo.createPartitions(unit, premake);
+            log.info("Created " + created + " audit partitions");
+            defaultPartitionRecords = repo.countDefaultPartitionRecords();
+            if (defaultPartitionRecords > 0) {
+                log.warn(defaultPartitionRecords
+                        + " audit records are left in the default partition");
+            }
+            succeeded(PARTITIONS);
+        } catch (RuntimeException e) {
+            failed(PARTITIONS, "Failed to create audit partitions", e);
+        }
+
+        // archive before the retention period removes the records
+        if (archiveAfterDays > 0) {
+            try {
+                archiveService.archive(new Date(System.currentTimeMillis()
+                        - TimeUnit.DAYS.toMillis(archiveAfterDays)));
+                succeeded(ARCHIVE);
+            } catch (IOException | SQLException | RuntimeException e) {
+                failed(ARCHIVE, "Failed to archive audit records", e);
+            }
+        }
+
+        if (StringUtils.hasText(retention)) {
+            try {
+                int removed = repo.dropPartitions(retention, detachOnly);
+                log.info((detachOnly ? "Detached " : "Dropped ") + removed
+                        + " audit partitions older than " + retention);
+                succeeded(RETENTION);
+            } catch (RuntimeException e) {
+                failed(RETENTION, "Failed to remove audit partitions", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the last failure of each step which hasn't succeeded since.
+     *
+     * @return the failure messages by step name
+     */
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(new TreeMap<>(failures));
+    }
+
+    /**
+     * Returns the number of audit records found in the default partition
+     * after the last partition creation.
+     *
+     * @return the number of records
+     */
+    public int getDefaultPartitionRecords() {
+        return defaultPartitionRecords;
+    }
+
+    private void succeeded(String step) {
+        failures.remove(step);
+    }
+
+    private void failed(String step, String message, Exception e) {
+        log.error(message, e);
+        failures.put(step, message + ": " + e.getMessage());
+        FAILURE_COUNTERS.get(step).incrementAndGet();
+    }
+
+    private static Map<String, AtomicLong> failureCounters(String... steps) {
+        Map<String, AtomicLong> counters = new TreeMap<>();
+        for (String step : steps) {
+            counters.put(step, Metrics.counter(
+                    "audit.maintenance." + step + ".failures"));
+        }
+
+        return counters;
+    }
+}
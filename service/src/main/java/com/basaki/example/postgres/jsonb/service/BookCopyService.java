@@ -0,0 +1,554 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.cache.LocalCache;
+import com.basaki.example.postgres.jsonb.data.routing.ReadYourWrites;
+import com.basaki.example.postgres.jsonb.error.ServiceUnavailableException;
+import com.basaki.example.postgres.jsonb.model.BatchStatus;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookBatchResult;
+import com.basaki.example.postgres.jsonb.model.BookImportResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.copy.CopyOut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * {@code BookCopyService} service provides bulk import and export of books
+ * over the PostgreSQL {@code COPY} protocol. Books are exchanged as newline
+ * delimited JSON, which is passed through {@code COPY} as single column CSV
+ * using control characters as quote and delimiter, since neither can appear
+ * unescaped in a JSON document.
+ * <p/>
+ * Exports share a budget of {@code datasource.maxActive - 1} connections of
+ * the pool. An export reserves all its connections, the coordinator's and
+ * the workers', before taking any, so concurrent exports can't starve each
+ * other or the rest of the service.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Service
+@Slf4j
+public class BookCopyService {
+
+    private static final String COPY_FORMAT =
+            "WITH (FORMAT csv, QUOTE e'\\x01', DELIMITER e'\\x02')";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final BigInteger UUID_RANGE = BigInteger.ONE.shiftLeft(128);
+
+    private final DataSource dataSource;
+
+    private final LocalCache<UUID, Book> cache;
+
+    private final ExecutorService exportExecutor;
+
+    private final Semaphore exportConnections;
+
+    @Setter
+    @Value("${book.import.maxRejections:100}")
+    private int maxRejections;
+
+    @Setter
+    @Value("${book.export.maxParallelism:1}")
+    private int maxParallelism;
+
+    /**
+     * Milliseconds an export waits for its connections.
+     */
+    @Setter
+    @Value("${datasource.maxWait:30000}")
+    private long maxWait;
+
+    @Autowired
+    public BookCopyService(DataSource dataSource,
+            LocalCache<UUID, Book> cache,
+            @Qualifier("exportExecutor") ExecutorService exportExecutor,
+            @Value("${datasource.maxActive:3}") int maxActive) {
+        this.dataSource = dataSource;
+        this.cache = cache;
+        this.exportExecutor = exportExecutor;
+        this.exportConnections = new Semaphore(Math.max(0, maxActive - 1),
+                true);
+    }
+
+    /**
+     * Returns the number of pool connections used by an export.
+     *
+     * @param parallelism the parallelism of the export
+     * @return the number of connections
+     */
+    public static int connectionsOf(int parallelism) {
+        // a parallel export also holds the coordinator connection
+        return parallelism == 1 ? 1 : parallelism + 1;
+    }
+
+    /**
+     * Imports books from newline delimited JSON in a single transaction. The
+     * lines are copied into a staging table, validated and inserted with set
+     * based statements. Invalid lines and books whose identifier already
+     * exists are rejected without affecting the rest of the import.
+     *
+     * @param in   the newline delimited JSON books
+     * @param user the audit user
+     * @return the number of imported and rejected books
+     * @throws IOException  if the books can't be read
+     * @throws SQLException if the books can't be imported
+     */
+    public BookImportResult importAll(InputStream in,
+            String user) throws IOException, SQLException {
+        Assert.hasText(user, "User should not be empty.");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                BookImportResult result = importAll(connection, in, user);
+                connection.commit();
+                cache.invalidateAll();
+                ReadYourWrites.recordWrite(user);
+
+                log.info("Imported " + result.getImported() + " books, rejected "
+                        + result.getRejected());
+
+                return result;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Exports all books as newline delimited JSON. With a parallelism greater
+     * than one, the identifier range is split across several connections
+     * sharing the same snapshot, and the books of each range are written in
+     * chunks as they arrive.
+     *
+     * @param parallelism the number of connections used for the export
+     * @param out         the stream where the books are written
+     * @return the number of exported books
+     * @throws IOException  if the books can't be written
+     * @throws SQLException if the books can't be exported
+     */
+    public long exportAll(int parallelism,
+            OutputStream out) throws IOException, SQLException {
+        Assert.isTrue(parallelism > 0 && parallelism <= maxParallelism,
+                "Parallelism should be between 1 and " + maxParallelism + ".");
+
+        int workers = parallelism == 1 ? 0 : parallelism;
+        reserveConnections(connectionsOf(parallelism));
+        // the permits of the workers are released by the workers once started
+        boolean started = false;
+        try (Connection coordinator = dataSource.getConnection()) {
+            if (workers == 0) {
+                return copyOut(coordinator, null, null, out,
+                        new AtomicBoolean());
+            }
+
+            coordinator.setAutoCommit(false);
+            try {
+                String snapshot = exportSnapshot(coordinator);
+                started = true;
+                long rows = exportAll(snapshot, splitRange(parallelism), out);
+                coordinator.commit();
+
+                log.info("Exported " + rows + " books over " + parallelism
+                        + " connections");
+
+                return rows;
+            } catch (IOException | SQLException | RuntimeException e) {
+                coordinator.rollback();
+                throw e;
+            } finally {
+                coordinator.setAutoCommit(true);
+            }
+        } finally {
+            exportConnections.release(started ? 1 : 1 + workers);
+        }
+    }
+
+    private BookImportResult importAll(Connection connection, InputStream in,
+            String user) throws IOException, SQLException {
+        try (PreparedStatement st = connection.prepareStatement(
+                "SELECT set_config('book.audit_user', ?, true)")) {
+            st.setString(1, user);
+            st.execute();
+        }
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE book_import (" +
+                    "line BIGSERIAL, doc TEXT, book JSONB, error TEXT) " +
+                    "ON COMMIT DROP");
+        }
+
+        connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY pg_temp.book_import (doc) FROM STDIN " + COPY_FORMAT,
+                in);
+
+        long imported;
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("UPDATE pg_temp.book_import SET (book, error) = " +
+                    "(SELECT r.book, r.error " +
+                    "FROM example_book_schema.import_book(doc) r) " +
+                    "WHERE doc IS NOT NULL");
+            st.executeUpdate("UPDATE pg_temp.book_import i " +
+                    "SET book = NULL, error = 'Book with id ' || " +
+                    "(i.book->>'id') || ' already exists.' " +
+                    "WHERE i.error IS NULL AND i.book IS NOT NULL AND (" +
+                    "EXISTS (SELECT 1 FROM example_book_schema.books b " +
+                    "WHERE b.id = CAST(i.book->>'id' AS UUID)) OR " +
+                    "EXISTS (SELECT 1 FROM pg_temp.book_import d " +
+                    "WHERE CAST(d.book->>'id' AS UUID) = " +
+                    "CAST(i.book->>'id' AS UUID) AND d.line < i.line))");
+            imported = st.executeUpdate(
+                    "INSERT INTO example_book_schema.books (id, book) " +
+                            "SELECT CAST(book->>'id' AS UUID), book " +
+                            "FROM pg_temp.book_import " +
+                            "WHERE book IS NOT NULL ORDER BY line");
+        }
+
+        long rejected = 0;
+        List<BookBatchResult> rejections = new ArrayList<>();
+        try (PreparedStatement st = connection.prepareStatement(
+                "SELECT line, error, COUNT(*) OVER () " +
+                        "FROM pg_temp.book_import " +
+                        "WHERE error IS NOT NULL ORDER BY line LIMIT ?")) {
+            st.setInt(1, maxRejections);
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    rejections.add(new BookBatchResult(
+                            (int) (rs.getLong(1) - 1), BatchStatus.REJECTED,
+                            null, rs.getString(2)));
+                    rejected = rs.getLong(3);
+                }
+            }
+        }
+
+        return new BookImportResult(imported, rejected, rejections);
+    }
+
+    private long exportAll(String snapshot, String[] bounds,
+            OutputStream out) throws IOException, SQLException {
+        int workers = bounds.length - 1;
+        AtomicBoolean aborted = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(workers);
+        List<ExportWorker> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(new ExportWorker(snapshot, bounds[i], bounds[i + 1],
+                    out, aborted, finished));
+        }
+
+        // results are taken as the workers finish, so a failure stops the
+        // export right away
+        CompletionService<Long> completion =
+                new ExecutorCompletionService<>(exportExecutor);
+        List<Future<Long>> futures = new ArrayList<>(workers);
+        boolean completed = false;
+        try {
+            for (ExportWorker task : tasks) {
+                futures.add(submit(completion, task));
+            }
+
+            long rows = 0;
+            for (int i = 0; i < workers; i++) {
+                rows += completion.take().get();
+            }
+            completed = true;
+
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new IOException("Export failed", cause);
+        } finally {
+            if (!completed) {
+                abort(tasks, futures, aborted, finished);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers of a failed export and waits until the started ones
+     * are done, so that none of them writes to the stream once the export
+     * returns.
+     */
+    private static void abort(List<ExportWorker> tasks,
+            List<Future<Long>> futures, AtomicBoolean aborted,
+            CountDownLatch finished) {
+        aborted.set(true);
+        for (ExportWorker task : tasks) {
+            task.abort();
+        }
+        for (Future<Long> future : futures) {
+            future.cancel(true);
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Submits a worker to the shared export executor.
+     */
+    private static Future<Long> submit(CompletionService<Long> completion,
+            ExportWorker worker) {
+        try {
+            return completion.submit(worker);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException(
+                    "Too many concurrent exports, try again later.");
+        }
+    }
+
+    private void reserveConnections(int connections) throws IOException {
+        try {
+            if (!exportConnections.tryAcquire(connections, maxWait,
+                    TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException(
+                        "Too many concurrent exports, try again later.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        }
+    }
+
+    private long copyOut(ExportWorker worker) throws IOException,
+            SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            worker.connection = connection;
+            if (worker.aborted.get()) {
+                throw new InterruptedIOException("Export aborted");
+            }
+            connection.setAutoCommit(false);
+            try {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("SET TRANSACTION ISOLATION LEVEL " +
+                            "REPEATABLE READ READ ONLY");
+                    st.execute("SET TRANSACTION SNAPSHOT '"
+                            + worker.snapshot + "'");
+                }
+                long rows = copyOut(connection, worker.lower, worker.upper,
+                        worker.out, worker.aborted);
+                connection.commit();
+
+                return rows;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static long copyOut(Connection connection, String lower,
+            String upper, OutputStream out,
+            AtomicBoolean aborted) throws IOException, SQLException {
+        StringBuilder sql = new StringBuilder(
+                "COPY (SELECT book FROM example_book_schema.books");
+        if (lower != null) {
+            sql.append(" WHERE id >= CAST('").append(lower).append("' AS UUID)");
+        }
+        if (upper != null) {
+            sql.append(lower != null ? " AND" : " WHERE");
+            sql.append(" id < CAST('").append(upper).append("' AS UUID)");
+        }
+        sql.append(") TO STDOUT ").append(COPY_FORMAT);
+
+        CopyOut copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyOut(sql.toString());
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE);
+        long rows = 0;
+        try {
+            byte[] row;
+            while ((row = copy.readFromCopy()) != null) {
+                chunk.write(row);
+                rows++;
+                if (chunk.size() >= CHUNK_SIZE) {
+                    write(chunk, out, aborted);
+                }
+            }
+            write(chunk, out, aborted);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+
+        return rows;
+    }
+
+    private static void write(ByteArrayOutputStream chunk,
+            OutputStream out, AtomicBoolean aborted) throws IOException {
+        // chunks hold whole rows, so rows of concurrent ranges never interleave
+        synchronized (out) {
+            if (aborted.get()) {
+                throw new InterruptedIOException("Export aborted");
+            }
+            chunk.writeTo(out);
+        }
+        chunk.reset();
+    }
+
+    private static String exportSnapshot(
+            Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("SET TRANSACTION ISOLATION LEVEL " +
+                    "REPEATABLE READ READ ONLY");
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT pg_export_snapshot()")) {
+                rs.next();
+                String snapshot = rs.getString(1);
+                Assert.state(snapshot.matches("[0-9A-Fa-f-]+"),
+                        "Unexpected snapshot identifier " + snapshot);
+
+                return snapshot;
+            }
+        }
+    }
+
+    /**
+     * Splits the identifier range into contiguous ranges of equal size.
+     *
+     * @param parts the number of ranges
+     * @return the range bounds, the first lower bound and the last upper
+     * bound are null
+     */
+    static String[] splitRange(int parts) {
+        String[] bounds = new String[parts + 1];
+        for (int i = 1; i < parts; i++) {
+            BigInteger bound = UUID_RANGE.multiply(BigInteger.valueOf(i))
+                    .divide(BigInteger.valueOf(parts));
+            bounds[i] = new UUID(bound.shiftRight(64).longValue(),
+                    bound.longValue()).toString();
+        }
+
+        return bounds;
+    }
+
+    /**
+     * {@code ExportWorker} exports a range of identifiers over its own
+     * connection and releases its reserved connection when it's done. A
+     * worker aborted before it starts never runs, a running one has its query
+     * cancelled.
+     */
+    private class ExportWorker implements Callable<Long> {
+
+        private final String snapshot;
+
+        private final String lower;
+
+        private final String upper;
+
+        private final OutputStream out;
+
+        private final AtomicBoolean aborted;
+
+        private final CountDownLatch finished;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private volatile Connection connection;
+
+        ExportWorker(String snapshot, String lower, String upper,
+                OutputStream out, AtomicBoolean aborted,
+                CountDownLatch finished) {
+            this.snapshot = snapshot;
+            this.lower = lower;
+            this.upper = upper;
+            this.out = out;
+            this.aborted = aborted;
+            this.finished = finished;
+        }
+
+        @Override
+        public Long call() throws IOException, SQLException {
+            if (!claimed.compareAndSet(false, true)) {
+                return 0L;
+            }
+
+            try {
+                return aborted.get() ? 0L : copyOut(this);
+            } finally {
+                done();
+            }
+        }
+
+        void abort() {
+            if (claimed.compareAndSet(false, true)) {
+                done();
+                return;
+            }
+
+            // the copy itself is cancelled by the worker, the connection
+            // can't be used by two threads
+            Connection current = connection;
+            if (current != null) {
+                try {
+                    current.unwrap(BaseConnection.class).cancelQuery();
+                } catch (SQLException | RuntimeException e) {
+                    log.warn("Failed to cancel export query", e);
+                }
+            }
+        }
+
+        private void done() {
+            exportConnections.release();
+            finished.countDown();
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.basaki.example.postgres.jsonb.service;
 
+import com.basaki.example.postgres.jsonb.archive.AuditArchive;
+import com.basaki.example.postgres.jsonb.archive.AuditRecord;
+import com.basaki.example.postgres.jsonb.cache.LocalCache;
+import com.basaki.example.postgres.jsonb.data.codec.JsonbCodec;
+import com.basaki.example.postgres.jsonb.data.copy.DeepCopierRegistry;
 import com.basaki.example.postgres.jsonb.data.entity.AuditBookEntity;
 import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
 import com.basaki.example.postgres.jsonb.data.repository.AuditBookRepository;
@@ -7,22 +12,58 @@ import com.basaki.example.postgres.jsonb.data.repository.BookRepository;
 import com.basaki.example.postgres.jsonb.data.type.JsonType;
 import com.basaki.example.postgres.jsonb.data.type.JsonTypeDescriptor;
 import com.basaki.example.postgres.jsonb.error.DataNotFoundException;
+import com.basaki.example.postgres.jsonb.error.PreconditionFailedException;
+import com.basaki.example.postgres.jsonb.mapper.BookMapper;
+import com.basaki.example.postgres.jsonb.metrics.Histogram;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
 import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditType;
+import com.basaki.example.postgres.jsonb.model.AuditView;
+import com.basaki.example.postgres.jsonb.model.BatchStatus;
 import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookBatchResult;
 import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import com.basaki.example.postgres.jsonb.model.SearchMode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.dozer.Mapper;
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * {@code BookService} service provides data access service for {@code Book}.
@@ -35,29 +76,94 @@ import org.springframework.util.Assert;
 @Slf4j
 public class BookService {
 
+    private static final String NIL_UUID =
+            "00000000-0000-0000-0000-000000000000";
+
+    private static final Set<String> AUTHOR_ATTRIBUTES =
+            Collections.unmodifiableSet(new HashSet<>(
+                    Arrays.asList("firstName", "lastName")));
+
+    private static final Histogram SEARCH_TIME =
+            Metrics.timer("repository.book.search.time");
+
+    private static final Histogram SEARCH_ROWS =
+            Metrics.distribution("repository.book.search.rows");
+
+    private static final Histogram PUBLISHER_TIME =
+            Metrics.timer("repository.book.findDistinctPublisher.time");
+
+    private static final Histogram PUBLISHER_ROWS =
+            Metrics.distribution("repository.book.findDistinctPublisher.rows");
+
     private final BookRepository repo;
 
     private final AuditBookRepository auditRepo;
 
-    private final Mapper mapper;
+    private final AuditArchive archive;
+
+    private final BookMapper mapper;
 
     private final ObjectMapper objectMapper;
 
+    private final LocalCache<UUID, Book> cache;
+
+    private final DeepCopierRegistry copiers;
+
+    private final TransactionTemplate transactions;
+
     private JsonType bookJsontype;
 
+    private JsonType auditJsontype;
+
+    @Setter
+    @Value("${book.stream.fetchSize:500}")
+    private int fetchSize;
+
+    @Setter
+    @Value("${book.batch.maxSize:1000}")
+    private int maxBatchSize;
+
+    @Setter
+    @Value("${jpa.jdbc.batchSize:50}")
+    private int batchSize;
+
+    @Setter
+    @Value("${book.delete.chunkSize:1000}")
+    private int deleteChunkSize;
+
+    @Setter
+    @Value("${audit.read.defaultLimit:100}")
+    private int defaultAuditLimit;
+
+    @Setter
+    @Value("${audit.read.maxLimit:1000}")
+    private int maxAuditLimit;
+
     @Autowired
     public BookService(BookRepository repo, AuditBookRepository auditRepo,
-            Mapper mapper, ObjectMapper objectMapper) {
+            AuditArchive archive, BookMapper mapper, ObjectMapper objectMapper,
+            LocalCache<UUID, Book> cache,
+            PlatformTransactionManager transactionManager) {
         this.repo = repo;
         this.auditRepo = auditRepo;
+        this.archive = archive;
         this.mapper = mapper;
         this.objectMapper = objectMapper;
+        this.cache = cache;
+        this.copiers = new DeepCopierRegistry(objectMapper);
+        this.transactions = new TransactionTemplate(transactionManager);
 
         Properties props = new Properties();
         props.setProperty(JsonTypeDescriptor.CLASS_NAME,
                 "com.basaki.example.postgres.jsonb.model.Book");
         bookJsontype = new JsonType(objectMapper);
         bookJsontype.setParameterValues(props);
+
+        Properties auditProps = new Properties();
+        auditProps.setProperty(JsonTypeDescriptor.CLASS_NAME,
+                "com.basaki.example.postgres.jsonb.model.AuditBook");
+        auditJsontype = new JsonType(objectMapper);
+        auditJsontype.setParameterValues(auditProps);
     }
 
     @Transactional
@@ -65,14 +171,13 @@ public class BookService {
         validate(request);
 
         UUID id = UUID.randomUUID();
-        Book book = mapper.map(request, Book.class);
+        Book book = mapper.toBook(request);
         book.setId(id);
-        BookEntity entity = new BookEntity();
-        entity.setId(id);
-        entity.setBook(book);
+        BookEntity entity = mapper.toEntity(book);
 
-        repo.setUser(user);
+        repo.setAuditUser(user);
         entity = repo.save(entity);
+        evict(id);
 
         book = entity.getBook();
 
@@ -81,87 +186,692 @@ public class BookService {
         return book;
     }
 
+    /**
+     * Creates a batch of books in a single transaction. The audit user is set
+     * once and the inserts are sent to the database in JDBC batches. Books
+     * failing validation are rejected without affecting the rest of the
+     * batch.
+     *
+     * @param requests the books to be created
+     * @param user     the audit user
+     * @return the result of each book in the order of the requests
+     */
+    @Transactional
+    public List<BookBatchResult> createAll(List<BookRequest> requests,
+            String user) {
+        Assert.notEmpty(requests, "Batch should not be empty.");
+        Assert.isTrue(requests.size() <= maxBatchSize,
+                "Batch should not contain more than " + maxBatchSize + " books.");
+
+        EntityManager em = repo.getEntityManager();
+        List<BookBatchResult> results = new ArrayList<>(requests.size());
+        int created = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            BookRequest request = requests.get(i);
+            try {
+                Assert.notNull(request, "Book should not be null.");
+                validate(request);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                results.add(new BookBatchResult(i, BatchStatus.REJECTED, null,
+                        e.getMessage()));
+                continue;
+            }
+
+            if (created == 0) {
+                repo.setAuditUser(user);
+            }
+
+            UUID id = UUID.randomUUID();
+            Book book = mapper.toBook(request);
+            book.setId(id);
+            BookEntity entity = mapper.toEntity(book);
+
+            // persist instead of save, which merges an entity with an
+            // assigned id and therefore selects it first
+            em.persist(entity);
+            results.add(new BookBatchResult(i, BatchStatus.CREATED, id, null));
+
+            if (++created % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+
+        // the ids are new and misses aren't cached, so nothing is evicted
+        em.flush();
+        em.clear();
+
+        log.info("Created " + created + " of " + requests.size()
+                + " books in batch");
+
+        return results;
+    }
+
+    /**
+     * Retrieves a book, from the cache if possible. A cache miss is loaded
+     * from the primary in a read-write transaction, since a lagging replica
+     * could return the state before a write and the cached book is served to
+     * every user until it expires.
+     *
+     * @param id the book identifier
+     * @return the book
+     */
     public Book read(UUID id) {
-        BookEntity entity = repo.findOne(id);
+        Book book = cache.get(id);
+        if (book != null) {
+            return copiers.copy(book);
+        }
+
+        long stamp = cache.stamp();
+        BookEntity entity = transactions.execute(status -> repo.findOne(id));
 
         if (entity == null) {
             throw new DataNotFoundException(
                     "Book with id " + id + " not found!");
         }
 
-        Book book = entity.getBook();
+        book = entity.getBook();
+        cache.put(id, copiers.copy(book), stamp);
 
         return book;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Book> readAll(String searchQuery) {
-        @SuppressWarnings("JpaQueryApiInspection")
-        Query query = repo.getEntityManager().createNamedQuery(
-                "book.search").setParameter(1, searchQuery);
-        query.unwrap(SQLQuery.class).addScalar("books", bookJsontype);
+        return readAll(searchQuery, SearchMode.SUBSTRING, null, null);
+    }
 
+    /**
+     * Retrieves the books matching a search string. In {@code FULL_TEXT}
+     * mode, the books are ordered by relevance and the matched words are
+     * highlighted in the {@code match} attribute. Otherwise, if a page is
+     * requested, the books are ordered by identifier and the page starts after
+     * the given book.
+     *
+     * @param searchQuery the search string, returns all books if empty
+     * @param mode        the search mode
+     * @param after       identifier of the last book of the previous page,
+     *                    can be null
+     * @param limit       maximum number of books returned, can be null
+     * @return the matching books
+     */
+    @Transactional(readOnly = true)
+    public List<Book> readAll(String searchQuery, SearchMode mode, UUID after,
+            Integer limit) {
+        Query query = createSearchQuery(searchQuery, mode, after, limit,
+                bookJsontype);
+
+        long started = System.nanoTime();
         @SuppressWarnings("unchecked")
         List<Book> books = query.getResultList();
+        SEARCH_TIME.record(System.nanoTime() - started);
+        SEARCH_ROWS.record(books.size());
 
         return books;
     }
 
-    @Transactional
-    public Book update(UUID id, BookRequest request, String user) {
-        BookEntity entity = repo.findOne(id);
+    /**
+     * Writes the books matching a search string as newline delimited JSON.
+     * Rows are fetched through a server-side cursor and written as they
+     * arrive, so memory use doesn't depend on the number of books.
+     *
+     * @param searchQuery the search string, returns all books if empty
+     * @param mode        the search mode
+     * @param after       identifier of the last book of the previous page,
+     *                    can be null
+     * @param limit       maximum number of books returned, can be null
+     * @param out         the stream where the books are written
+     * @throws IOException if the books can't be written
+     */
+    @Transactional(readOnly = true)
+    public void writeAll(String searchQuery, SearchMode mode, UUID after,
+            Integer limit, OutputStream out) throws IOException {
+        SQLQuery query = createSearchQuery(searchQuery, mode, after, limit,
+                bookJsontype).unwrap(SQLQuery.class);
+
+        ObjectWriter writer = objectMapper.writer().without(
+                SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator =
+                objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+
+        ScrollableResults results = scroll(query);
+        try {
+            while (results.next()) {
+                writer.writeValue(generator, results.get(0));
+                generator.writeRaw('\n');
+            }
+        } finally {
+            results.close();
+            generator.flush();
+        }
+    }
 
-        if (entity == null) {
+    /**
+     * Reads a book exactly as stored in the database. The JSONB bytes
+     * returned by the driver are returned without being parsed.
+     *
+     * @param id the book identifier
+     * @return the UTF-8 JSON text of the stored document
+     */
+    @Transactional(readOnly = true)
+    public byte[] readRaw(UUID id) {
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query = repo.getEntityManager()
+                .createNamedQuery("book.readRaw")
+                .setParameter(1, id.toString());
+        query.unwrap(SQLQuery.class).addScalar("books",
+                StandardBasicTypes.BINARY);
+
+        @SuppressWarnings("unchecked")
+        List<byte[]> documents = query.getResultList();
+        if (documents.isEmpty()) {
             throw new DataNotFoundException(
                     "Book with id " + id + " not found!");
         }
 
+        byte[] document = documents.get(0);
+        int offset = JsonbCodec.documentOffset(document);
+
+        return offset == 0 ? document
+                : Arrays.copyOfRange(document, offset, document.length);
+    }
+
+    /**
+     * Writes the books matching a search string as a JSON array. The JSONB
+     * bytes returned by the driver, including the {@code match} attribute
+     * computed in the query, are copied to the stream without being parsed.
+     *
+     * @param searchQuery the search string, returns all books if empty
+     * @param mode        the search mode
+     * @param after       identifier of the last book of the previous page,
+     *                    can be null
+     * @param limit       maximum number of books returned, can be null
+     * @param out         the stream where the books are written
+     * @throws IOException if the books can't be written
+     */
+    @Transactional(readOnly = true)
+    public void writeAllRaw(String searchQuery, SearchMode mode, UUID after,
+            Integer limit, OutputStream out) throws IOException {
+        SQLQuery query = createSearchQuery(searchQuery, mode, after, limit,
+                StandardBasicTypes.BINARY).unwrap(SQLQuery.class);
+
+        ScrollableResults results = scroll(query);
+        try {
+            out.write('[');
+            boolean first = true;
+            while (results.next()) {
+                if (!first) {
+                    out.write(',');
+                }
+                writeDocument((byte[]) results.get(0), out);
+                first = false;
+            }
+            out.write(']');
+        } finally {
+            results.close();
+        }
+    }
+
+    private ScrollableResults scroll(SQLQuery query) {
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+
+        return query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    private static void writeDocument(byte[] document,
+            OutputStream out) throws IOException {
+        int offset = JsonbCodec.documentOffset(document);
+        out.write(document, offset, document.length - offset);
+    }
+
+    private Query createSearchQuery(String searchQuery, SearchMode mode,
+            UUID after, Integer limit, Type type) {
+        Assert.isTrue(limit == null || limit > 0,
+                "Limit should be greater than 0.");
+
+        boolean paged = after != null || limit != null;
+        String lowerBound = after != null ? after.toString() : NIL_UUID;
+        EntityManager em = repo.getEntityManager();
+
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query;
+        if (StringUtils.isEmpty(searchQuery)) {
+            query = paged
+                    ? em.createNamedQuery("book.searchAllPage")
+                    .setParameter(1, lowerBound)
+                    : em.createNamedQuery("book.searchAll");
+        } else if (mode == SearchMode.FULL_TEXT) {
+            Assert.isNull(after,
+                    "Paging after a book is not supported in full-text search.");
+            query = em.createNamedQuery("book.fullTextSearch")
+                    .setParameter(1, searchQuery);
+        } else {
+            query = paged
+                    ? em.createNamedQuery("book.searchPage")
+                    .setParameter(1, searchQuery)
+                    .setParameter(2, lowerBound)
+                    : em.createNamedQuery("book.search")
+                    .setParameter(1, searchQuery);
+        }
+        query.unwrap(SQLQuery.class).addScalar("books", type);
+
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+
+        return query;
+    }
+
+    @Transactional
+    public Book update(UUID id, BookRequest request, String user) {
+        return update(id, request, user, null).getBook();
+    }
+
+    /**
+     * Replaces a book with a single {@code UPDATE} statement, without reading
+     * the book first. If a version is given, the book is only updated if its
+     * stored document still has that version. A book whose stored document
+     * equals the new one isn't written, so it keeps its version and no audit
+     * record is added.
+     *
+     * @param id      the book identifier
+     * @param request the new content of the book
+     * @param user    the audit user
+     * @param version the expected version of the stored document, can be null
+     * @return the updated book and its new version
+     */
+    @Transactional
+    public VersionedBook update(UUID id, BookRequest request, String user,
+            String version) {
         validate(request);
-        Book book = mapper.map(request, Book.class);
+        Book book = mapper.toBook(request);
         book.setId(id);
-        entity.setBook(book);
-        entity.setDirty(true);
 
-        repo.setUser(user);
-        entity = repo.save(entity);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid book.", e);
+        }
 
-        book = entity.getBook();
+        repo.setAuditUser(user);
+        evict(id);
 
-        log.info("Updated book with id " + book.getId());
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query = repo.getEntityManager().createNamedQuery(
+                version == null ? "book.update" : "book.updateIfMatch")
+                .setParameter(1, id.toString())
+                .setParameter(2, json);
+        if (version != null) {
+            query.setParameter(3, version);
+        }
+        query.unwrap(SQLQuery.class)
+                .addScalar("book", bookJsontype)
+                .addScalar("version", StandardBasicTypes.STRING);
 
-        return book;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        if (rows.isEmpty()) {
+            // not found, modified since the version or unchanged
+            VersionedBook current = readVersioned(id);
+            if (current == null) {
+                throw new DataNotFoundException(
+                        "Book with id " + id + " not found!");
+            }
+            if (version != null && !version.equals(current.getVersion())) {
+                throw new PreconditionFailedException(
+                        "Book with id " + id + " has been modified!");
+            }
+
+            log.info("Skipped update of unchanged book with id " + id);
+
+            return current;
+        }
+
+        log.info("Updated book with id " + id);
+
+        return new VersionedBook((Book) rows.get(0)[0],
+                (String) rows.get(0)[1]);
     }
 
+    private VersionedBook readVersioned(UUID id) {
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query = repo.getEntityManager()
+                .createNamedQuery("book.readVersioned")
+                .setParameter(1, id.toString());
+        query.unwrap(SQLQuery.class)
+                .addScalar("book", bookJsontype)
+                .addScalar("version", StandardBasicTypes.STRING);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        return rows.isEmpty() ? null : new VersionedBook(
+                (Book) rows.get(0)[0], (String) rows.get(0)[1]);
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a book with a single update
+     * statement without loading the book first. A flat patch is merged with
+     * the JSONB concatenation operator, while a patch with nested objects or
+     * removals goes through the {@code merge_patch} database function.
+     *
+     * @param id    the book identifier
+     * @param patch the merge patch
+     * @param user  the audit user
+     * @return the patched book
+     */
     @Transactional
-    public void delete(UUID id, String user) {
+    public Book patch(UUID id, Map<String, Object> patch, String user) {
+        Map<String, Object> document = validatePatch(id, patch);
+        if (document.isEmpty()) {
+            return read(id);
+        }
+
+        String json;
         try {
-            repo.delete(id);
-        } catch (Exception e) {
+            json = objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid patch document.", e);
+        }
+
+        repo.setAuditUser(user);
+        evict(id);
+
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query = repo.getEntityManager().createNamedQuery(
+                isFlat(document) ? "book.patch" : "book.mergePatch")
+                .setParameter(1, id.toString())
+                .setParameter(2, json);
+        query.unwrap(SQLQuery.class).addScalar("book", bookJsontype);
+
+        @SuppressWarnings("unchecked")
+        List<Book> books = query.getResultList();
+
+        if (books.isEmpty()) {
             throw new DataNotFoundException(
                     "Book with id " + id + " not found!");
         }
+
+        log.info("Patched book with id " + id);
+
+        return books.get(0);
     }
 
     @Transactional
+    public void delete(UUID id, String user) {
+        evict(id);
+        repo.setAuditUser(user);
+
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query = repo.getEntityManager()
+                .createNamedQuery("book.delete")
+                .setParameter(1, id.toString());
+        query.unwrap(SQLQuery.class).addScalar("id",
+                StandardBasicTypes.STRING);
+
+        if (query.getResultList().isEmpty()) {
+            throw new DataNotFoundException(
+                    "Book with id " + id + " not found!");
+        }
+
+        log.info("Deleted book with id " + id);
+    }
+
+    /**
+     * Deletes all books with set based statements, each deleting a bounded
+     * chunk of books in its own transaction. Books are never loaded, so
+     * neither memory use nor lock duration depends on the number of books.
+     *
+     * @param user the audit user
+     */
     public void deleteAll(String user) {
-        repo.deleteAll();
+        evictAll();
+
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactions.execute(status -> {
+                repo.setAuditUser(user);
+
+                @SuppressWarnings("JpaQueryApiInspection")
+                Query query = repo.getEntityManager()
+                        .createNamedQuery("book.deleteChunk")
+                        .setParameter(1, deleteChunkSize);
+
+                return query.executeUpdate();
+            });
+            cache.invalidateAll();
+
+            total += deleted;
+            log.info("Deleted " + total + " books so far");
+        } while (deleted == deleteChunkSize);
+
+        log.info("Deleted all " + total + " books");
     }
 
+    @Transactional(readOnly = true)
     public List<String> getPublisher(String publisher) {
-        return repo.findDistinctPublisher(publisher);
+        long started = System.nanoTime();
+        List<String> publishers = repo.findDistinctPublisher(publisher);
+        PUBLISHER_TIME.record(System.nanoTime() - started);
+        PUBLISHER_ROWS.record(publishers.size());
+
+        return publishers;
     }
 
     public List<AuditBook> readAudits(UUID id) {
-        List<AuditBookEntity> entities = auditRepo.findByIdId(id);
+        return readAudits(id, null, null, null, null, AuditView.FULL);
+    }
+
+    /**
+     * Retrieves a page of audit records of a book, newest first. The page is
+     * selected and projected in the database, so its cost doesn't depend on
+     * the size of the book's history. A page not filled by the live records
+     * is completed from the audit archive. Times have millisecond precision,
+     * so a page ends with a whole millisecond and may hold more records than
+     * the limit when several were made within its last millisecond. The time
+     * of its last record is then a safe cursor for the next page.
+     *
+     * @param id     the book identifier
+     * @param from   earliest time of a record, inclusive, can be null
+     * @param to     latest time of a record, exclusive, can be null
+     * @param before time of the last record of the previous page, can be null
+     * @param limit  maximum number of records returned, can be null
+     * @param view   whether the state of the book is returned
+     * @return the audit records
+     */
+    @Transactional(readOnly = true)
+    public List<AuditBook> readAudits(UUID id, Date from, Date to,
+            Date before, Integer limit, AuditView view) {
+        Assert.isTrue(limit == null || (limit > 0 && limit <= maxAuditLimit),
+                "Limit should be between 1 and " + maxAuditLimit + ".");
+
+        Date upper = to;
+        if (before != null && (upper == null || before.before(upper))) {
+            upper = before;
+        }
+
+        String lowerBound = from != null
+                ? from.toInstant().toString() : "-infinity";
+        String upperBound = upper != null
+                ? upper.toInstant().toString() : "infinity";
+        int maxRows = limit != null ? limit : defaultAuditLimit;
+
+        EntityManager em = auditRepo.getEntityManager();
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query;
+        if (view == AuditView.SUMMARY) {
+            query = em.createNamedQuery("auditBook.page")
+                    .setParameter(1, id.toString())
+                    .setParameter(2, lowerBound)
+                    .setParameter(3, upperBound)
+                    .setParameter(4, true)
+                    .setParameter(5, maxRows);
+        } else {
+            // the states are rebuilt from the nearest snapshot in the database
+            query = em.createNamedQuery("auditBook.pageStates")
+                    .setParameter(1, id.toString())
+                    .setParameter(2, lowerBound)
+                    .setParameter(3, upperBound)
+                    .setParameter(4, maxRows);
+        }
+        query.unwrap(SQLQuery.class).addScalar("audit", auditJsontype);
+
+        @SuppressWarnings("unchecked")
+        List<AuditBook> audits = query.getResultList();
+
+        if (audits.size() < maxRows) {
+            audits = appendArchived(id, audits,
+                    from != null ? from.getTime() : Long.MIN_VALUE,
+                    upper != null ? upper.getTime() : Long.MAX_VALUE,
+                    maxRows, view);
+        }
 
-        if (entities == null || entities.size() == 0) {
+        if (audits.isEmpty() && from == null && to == null && before == null) {
             throw new DataNotFoundException(
                     "No audits for for book with id " + id + "!");
         }
 
-        return entities.stream().map(
-                e -> e.getAudit()).collect(
-                Collectors.toList());
+        return audits;
+    }
+
+    /**
+     * Completes a page of live audit records with archived ones. Archived
+     * records are older than any live record, so they follow the live
+     * records of the page.
+     */
+    private List<AuditBook> appendArchived(UUID id, List<AuditBook> audits,
+            long from, long upper, int maxRows, AuditView view) {
+        if (!audits.isEmpty()) {
+            upper = Math.min(upper,
+                    audits.get(audits.size() - 1).getMadeAt().getTime());
+        }
+
+        List<AuditRecord> records =
+                archive.find(id, from, upper, maxRows - audits.size());
+        if (records.isEmpty()) {
+            return audits;
+        }
+
+        List<AuditBook> merged = new ArrayList<>(audits);
+        for (AuditRecord record : records) {
+            try {
+                AuditBook audit = objectMapper.readValue(record.getDocument(),
+                        AuditBook.class);
+                if (view == AuditView.SUMMARY) {
+                    audit.setState(null);
+                }
+                merged.add(audit);
+            } catch (IOException e) {
+                throw new UncheckedIOException(
+                        "Failed to read archived audit of book " + id, e);
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Retrieves the state of a book at a point in time. The state is rebuilt
+     * from the audit records, starting with the nearest snapshot. Without a
+     * live record at or before that time, the state is taken from the newest
+     * archived record at or before it.
+     *
+     * @param id   the book identifier
+     * @param asOf the point in time
+     * @return the book as it was at that time
+     */
+    @Transactional(readOnly = true)
+    public Book readAsOf(UUID id, Date asOf) {
+        @SuppressWarnings("JpaQueryApiInspection")
+        Query query = auditRepo.getEntityManager()
+                .createNamedQuery("auditBook.asOf")
+                .setParameter(1, id.toString())
+                .setParameter(2, asOf.toInstant().toString());
+        query.unwrap(SQLQuery.class)
+                .addScalar("book", bookJsontype)
+                .addScalar("recorded", StandardBasicTypes.BOOLEAN);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        Book book = null;
+        boolean recorded = false;
+        if (!rows.isEmpty()) {
+            book = (Book) rows.get(0)[0];
+            recorded = Boolean.TRUE.equals(rows.get(0)[1]);
+        }
+        if (!recorded) {
+            book = readArchivedAsOf(id, asOf);
+        }
+
+        if (book == null) {
+            throw new DataNotFoundException("Book with id " + id
+                    + " didn't exist at " + asOf.toInstant() + "!");
+        }
+
+        return book;
+    }
+
+    /**
+     * @return the state of the newest archived record at or before a point
+     * in time, null if there's none or the book was deleted
+     */
+    private Book readArchivedAsOf(UUID id, Date asOf) {
+        List<AuditRecord> records =
+                archive.find(id, Long.MIN_VALUE, asOf.getTime() + 1, 1);
+        if (records.isEmpty()) {
+            return null;
+        }
+
+        try {
+            AuditBook audit = objectMapper.readValue(
+                    records.get(0).getDocument(), AuditBook.class);
+
+            return audit.getChange() == AuditType.DELETE
+                    ? null : audit.getState();
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Failed to read archived audit of book " + id, e);
+        }
+    }
+
+    /**
+     * Removes a book from the cache immediately and once more after the
+     * current transaction completes, so that a concurrent read can't cache
+     * the state before the write.
+     *
+     * @param id the book identifier
+     */
+    private void evict(UUID id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            cache.invalidate(id);
+                        }
+                    });
+        }
+    }
+
+    private void evictAll() {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            cache.invalidateAll();
+                        }
+                    });
+        }
     }
 
     private void validate(BookRequest request) {
@@ -173,14 +883,98 @@ public class BookService {
                 "Star should be between 1 and 5");
     }
 
+    /**
+     * Validates a JSON Merge Patch of a book. Every value has to have the
+     * type of its attribute, since the stored book is read back into a
+     * {@code Book}.
+     *
+     * @param id    the book identifier
+     * @param patch the patch
+     * @return the patch without the attributes which can't be changed
+     */
+    static Map<String, Object> validatePatch(UUID id,
+            Map<String, Object> patch) {
+        Assert.notNull(patch, "Patch should not be null.");
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+
+            switch (key) {
+                case "id":
+                    Assert.isTrue(value == null || id.toString().equals(
+                            value.toString()),
+                            "Book id should not be changed.");
+                    break;
+                case "match":
+                    break;
+                case "genre":
+                    Assert.notNull(value, "Genre should not be null.");
+                    document.put(key,
+                            Genre.fromValue(value.toString()).name());
+                    break;
+                case "star":
+                    Assert.notNull(value, "Star should not be null.");
+                    Assert.state((value instanceof Integer
+                                    && (Integer) value > 0 && (Integer) value <= 5),
+                            "Star should be between 1 and 5");
+                    document.put(key, value);
+                    break;
+                case "author":
+                    Assert.notNull(value, "Author should not be null.");
+                    Assert.isTrue(value instanceof Map,
+                            "Author should be an object.");
+                    for (Map.Entry<?, ?> attr :
+                            ((Map<?, ?>) value).entrySet()) {
+                        Object name = attr.getKey();
+                        Assert.isTrue(AUTHOR_ATTRIBUTES.contains(name),
+                                "Unknown author attribute " + name + ".");
+                        // null removes the attribute
+                        Assert.isTrue(attr.getValue() == null
+                                        || attr.getValue() instanceof String,
+                                "Author " + name + " should be a string.");
+                    }
+                    document.put(key, value);
+                    break;
+                case "title":
+                case "publisher":
+                    Assert.notNull(value, StringUtils.capitalize(key)
+                            + " should not be null.");
+                    Assert.isTrue(value instanceof String,
+                            StringUtils.capitalize(key) + " should be a string.");
+                    document.put(key, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                            "Unknown book attribute " + key + ".");
+            }
+        }
+
+        return document;
+    }
+
+    /**
+     * @return true if no attribute of the patch is removed or merged, so that
+     * the patch can be applied by concatenation
+     */
+    static boolean isFlat(Map<String, Object> patch) {
+        for (Object value : patch.values()) {
+            if (value == null || value instanceof Map) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private List<Book> map(List<BookEntity> entities) {
         if (entities == null || entities.isEmpty()) {
             throw new DataNotFoundException(
                     "No books found with the search criteria!");
         }
 
-        return entities.stream().map(
-                r -> mapper.map(r, Book.class)).collect(
+        return entities.stream().map(mapper::toBook).collect(
                 Collectors.toList());
     }
 }
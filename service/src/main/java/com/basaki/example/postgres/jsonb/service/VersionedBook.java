@@ -0,0 +1,24 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@code VersionedBook} is a book together with the version of its stored
+ * document. The version is the MD5 digest of the document's JSONB text.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedBook {
+
+    private Book book;
+
+    private String version;
+}
@@ -0,0 +1,26 @@
+-- **********************************************
+-- Row-level audit mode
+--
+-- Restores the per-row audit triggers of create-db.sql after
+-- audit-statement-triggers.sql has been run.
+-- **********************************************
+BEGIN;
+
+DROP TRIGGER IF EXISTS audit_books_insert ON example_book_schema.books;
+DROP TRIGGER IF EXISTS audit_books_update ON example_book_schema.books;
+DROP TRIGGER IF EXISTS audit_books_delete ON example_book_schema.books;
+
+DROP TRIGGER IF EXISTS audit_book_insert ON example_book_schema.books;
+DROP TRIGGER IF EXISTS audit_book_update ON example_book_schema.books;
+DROP TRIGGER IF EXISTS audit_book_delete ON example_book_schema.books;
+
+CREATE TRIGGER audit_book_insert AFTER INSERT ON example_book_schema.books
+   FOR EACH ROW EXECUTE PROCEDURE example_book_schema.audit_book_insert();
+
+CREATE TRIGGER audit_book_update AFTER UPDATE ON example_book_schema.books
+   FOR EACH ROW EXECUTE PROCEDURE example_book_schema.audit_book_update();
+
+CREATE TRIGGER audit_book_delete AFTER DELETE ON example_book_schema.books
+   FOR EACH ROW EXECUTE PROCEDURE example_book_schema.audit_book_delete();
+
+COMMIT;
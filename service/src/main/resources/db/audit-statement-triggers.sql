@@ -0,0 +1,97 @@
+-- **********************************************
+-- Statement-level audit mode
+--
+-- Replaces the per-row audit triggers of create-db.sql with statement-level
+-- triggers reading the transition tables of each statement, so that a bulk
+-- INSERT, UPDATE or DELETE writes all its audit rows with a single INSERT.
+-- The audit documents are identical to the ones written by the per-row
+-- triggers, including the deltas of the delta audit mode.
+-- Run audit-row-triggers.sql to switch back to the per-row triggers.
+-- Requires PostgreSQL 10 or later.
+-- **********************************************
+BEGIN;
+
+CREATE OR REPLACE FUNCTION example_book_schema.audit_books_insert(
+) RETURNS TRIGGER SECURITY DEFINER LANGUAGE plpgsql AS $$
+DECLARE
+    made_by TEXT := current_setting('book.audit_user');
+    made_at TEXT := example_book_audit_schema.json_time(statement_timestamp());
+BEGIN
+    INSERT INTO example_book_audit_schema.books (id, audit)
+    SELECT n.id, jsonb_build_object(
+        'change',  'CREATE',
+        'state',   n.book,
+        'madeBy',  made_by,
+        'madeAt',  made_at)
+    FROM new_books n;
+    RETURN NULL;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.audit_books_insert() FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.audit_books_insert() TO owner_example_jpa;
+
+CREATE OR REPLACE FUNCTION example_book_schema.audit_books_update(
+) RETURNS TRIGGER SECURITY DEFINER LANGUAGE plpgsql AS $$
+DECLARE
+    made_by TEXT := current_setting('book.audit_user');
+    made_at TEXT := example_book_audit_schema.json_time(statement_timestamp());
+BEGIN
+    INSERT INTO example_book_audit_schema.books (id, audit)
+    SELECT n.id, CASE WHEN example_book_audit_schema.is_snapshot(n.audit_version)
+        THEN jsonb_build_object(
+            'change',  'UPDATE',
+            'state',   n.book,
+            'madeBy',  made_by,
+            'madeAt',  made_at)
+        ELSE jsonb_build_object(
+            'change',  'UPDATE',
+            'delta',   example_book_schema.merge_diff(o.book, n.book),
+            'madeBy',  made_by,
+            'madeAt',  made_at) END
+    FROM new_books n
+    JOIN old_books o ON o.id = n.id;
+    RETURN NULL;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.audit_books_update() FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.audit_books_update() TO owner_example_jpa;
+
+CREATE OR REPLACE FUNCTION example_book_schema.audit_books_delete(
+) RETURNS TRIGGER SECURITY DEFINER LANGUAGE plpgsql AS $$
+DECLARE
+    made_by TEXT := current_setting('book.audit_user');
+    made_at TEXT := example_book_audit_schema.json_time(statement_timestamp());
+BEGIN
+    INSERT INTO example_book_audit_schema.books (id, audit)
+    SELECT o.id, jsonb_build_object(
+        'change',  'DELETE',
+        'state',   '{}'::JSONB,
+        'madeBy',  made_by,
+        'madeAt',  made_at)
+    FROM old_books o;
+    RETURN NULL;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.audit_books_delete() FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.audit_books_delete() TO owner_example_jpa;
+
+DROP TRIGGER IF EXISTS audit_book_insert ON example_book_schema.books;
+DROP TRIGGER IF EXISTS audit_book_update ON example_book_schema.books;
+DROP TRIGGER IF EXISTS audit_book_delete ON example_book_schema.books;
+
+CREATE TRIGGER audit_books_insert AFTER INSERT ON example_book_schema.books
+   REFERENCING NEW TABLE AS new_books
+   FOR EACH STATEMENT EXECUTE PROCEDURE example_book_schema.audit_books_insert();
+
+CREATE TRIGGER audit_books_update AFTER UPDATE ON example_book_schema.books
+   REFERENCING OLD TABLE AS old_books NEW TABLE AS new_books
+   FOR EACH STATEMENT EXECUTE PROCEDURE example_book_schema.audit_books_update();
+
+CREATE TRIGGER audit_books_delete AFTER DELETE ON example_book_schema.books
+   REFERENCING OLD TABLE AS old_books
+   FOR EACH STATEMENT EXECUTE PROCEDURE example_book_schema.audit_books_delete();
+
+COMMIT;
@@ -22,6 +22,9 @@ CREATE SCHEMA example_book_audit_schema AUTHORIZATION owner_example_jpa;
 
 GRANT ALL ON SCHEMA example_book_audit_schema TO owner_example_jpa;
 
+-- Trigram operator classes used by the substring search indexes
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- **********************************************
 -- example_book_audit_schema database creation
 -- **********************************************
@@ -33,15 +36,155 @@ CREATE TYPE example_book_audit_schema.operation AS ENUM (
 
 ALTER TYPE  example_book_audit_schema.operation OWNER TO owner_example_jpa;
 
+-- Audit records are range partitioned by time, old partitions are dropped
+-- as a whole by drop_partitions instead of deleting their rows
 CREATE TABLE example_book_audit_schema.books (
     id          UUID         NOT NULL,
     audit       JSONB        NOT NULL,
     made_at     TIMESTAMPTZ  NOT NULL DEFAULT statement_timestamp(),
     PRIMARY KEY (id, made_at)
-);
+) PARTITION BY RANGE (made_at);
 
 ALTER TABLE example_book_audit_schema.books OWNER to owner_example_jpa;
 
+-- Audit records are appended in time order, so a BRIN index stays tiny and
+-- serves time range scans
+CREATE INDEX books_made_at_brin_idx ON example_book_audit_schema.books
+    USING BRIN (made_at);
+
+-- Records outside the range of every partition land in the default partition,
+-- so writes don't fail while partitions are missing, e.g. if the maintenance
+-- job hasn't run for a while. create_partitions moves them out again.
+CREATE TABLE example_book_audit_schema.books_default
+    PARTITION OF example_book_audit_schema.books DEFAULT;
+
+ALTER TABLE example_book_audit_schema.books_default OWNER to owner_example_jpa;
+
+-- Creates a partition unless it exists. The records of its range are moved
+-- out of the default partition before the partition is attached, since
+-- attaching fails while the default partition holds any of them.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.create_partition(
+    lower_bound  TIMESTAMP,
+    upper_bound  TIMESTAMP
+) RETURNS INTEGER LANGUAGE PLPGSQL AS $$
+DECLARE
+    part_name  TEXT := 'books_p' || to_char(lower_bound, 'YYYYMMDD');
+BEGIN
+    IF to_regclass('example_book_audit_schema.' || part_name) IS NOT NULL THEN
+        RETURN 0;
+    END IF;
+
+    -- no more records of the range are written to the default partition
+    -- until the partition is attached
+    LOCK TABLE example_book_audit_schema.books_default IN SHARE ROW EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE example_book_audit_schema.%I ' ||
+        '(LIKE example_book_audit_schema.books INCLUDING DEFAULTS)', part_name);
+    EXECUTE format('ALTER TABLE example_book_audit_schema.%I ' ||
+        'OWNER TO owner_example_jpa', part_name);
+    EXECUTE format('WITH moved AS (' ||
+        'DELETE FROM example_book_audit_schema.books_default ' ||
+        'WHERE made_at >= %L AND made_at < %L ' ||
+        'RETURNING id, audit, made_at) ' ||
+        'INSERT INTO example_book_audit_schema.%I (id, audit, made_at) ' ||
+        'SELECT id, audit, made_at FROM moved',
+        lower_bound AT TIME ZONE 'UTC', upper_bound AT TIME ZONE 'UTC',
+        part_name);
+    EXECUTE format('ALTER TABLE example_book_audit_schema.books ' ||
+        'ATTACH PARTITION example_book_audit_schema.%I ' ||
+        'FOR VALUES FROM (%L) TO (%L)', part_name,
+        lower_bound AT TIME ZONE 'UTC', upper_bound AT TIME ZONE 'UTC');
+
+    RETURN 1;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.create_partition(TIMESTAMP, TIMESTAMP) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.create_partition(TIMESTAMP, TIMESTAMP) TO owner_example_jpa;
+
+-- Creates the partition containing the current time and the given number of
+-- following partitions unless they exist. A partition covers one unit
+-- ('day', 'week' or 'month') starting at a UTC boundary. The records in the
+-- default partition are first moved to partitions created for their periods.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.create_partitions(
+    unit     TEXT DEFAULT 'month',
+    premake  INTEGER DEFAULT 3
+) RETURNS INTEGER LANGUAGE PLPGSQL AS $$
+DECLARE
+    period       INTERVAL := CAST('1 ' || unit AS INTERVAL);
+    lower_bound  TIMESTAMP;
+    created      INTEGER := 0;
+BEGIN
+    IF unit NOT IN ('day', 'week', 'month') THEN
+        RAISE invalid_parameter_value USING
+            MESSAGE = format('Partition unit “%s” is not one of day, week, month', unit);
+    END IF;
+
+    FOR lower_bound IN
+        SELECT DISTINCT date_trunc(unit, made_at AT TIME ZONE 'UTC')
+        FROM example_book_audit_schema.books_default
+        ORDER BY 1
+    LOOP
+        created := created + example_book_audit_schema.create_partition(
+            lower_bound, lower_bound + period);
+    END LOOP;
+
+    lower_bound := date_trunc(unit, now() AT TIME ZONE 'UTC');
+    FOR i IN 0..premake LOOP
+        created := created + example_book_audit_schema.create_partition(
+            lower_bound, lower_bound + period);
+        lower_bound := lower_bound + period;
+    END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.create_partitions(TEXT, INTEGER) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.create_partitions(TEXT, INTEGER) TO owner_example_jpa;
+
+-- Detaches the partitions whose records are all older than the retention
+-- period and drops them unless only detaching is requested. The default
+-- partition has no bounds, sorts last and is never removed. The first record
+-- of a book after a removed partition is rewritten as a snapshot beforehand,
+-- since the snapshot its state is replayed from may be removed.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.drop_partitions(
+    retention    INTERVAL,
+    detach_only  BOOLEAN DEFAULT FALSE
+) RETURNS INTEGER LANGUAGE PLPGSQL AS $$
+DECLARE
+    part     RECORD;
+    dropped  INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname AS name,
+            CAST(substring(pg_get_expr(c.relpartbound, c.oid)
+                FROM 'TO \(''([^'']+)''\)') AS TIMESTAMPTZ) AS upper
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = CAST('example_book_audit_schema.books' AS REGCLASS)
+        ORDER BY 2
+    LOOP
+        EXIT WHEN part.upper IS NULL OR part.upper > now() - retention;
+
+        PERFORM example_book_audit_schema.rebase_audits(part.upper);
+        EXECUTE format('ALTER TABLE example_book_audit_schema.books ' ||
+            'DETACH PARTITION example_book_audit_schema.%I', part.name);
+        IF NOT detach_only THEN
+            EXECUTE format('DROP TABLE example_book_audit_schema.%I', part.name);
+        END IF;
+        dropped := dropped + 1;
+    END LOOP;
+
+    RETURN dropped;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.drop_partitions(INTERVAL, BOOLEAN) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.drop_partitions(INTERVAL, BOOLEAN) TO owner_example_jpa;
+
+SELECT example_book_audit_schema.create_partitions();
+
 CREATE OR REPLACE FUNCTION example_book_audit_schema.json_time(
     ts TIMESTAMPTZ DEFAULT NOW()
 ) RETURNS TEXT LANGUAGE SQL IMMUTABLE STRICT AS $$
@@ -68,6 +211,40 @@ $$;
 REVOKE EXECUTE ON FUNCTION example_book_audit_schema.create_audit(example_book_audit_schema.operation, jsonb) FROM public;
 GRANT EXECUTE ON FUNCTION example_book_audit_schema.create_audit(example_book_audit_schema.operation, jsonb) TO owner_example_jpa;
 
+-- Delta audit mode. An update audit record keeps the full state of the book
+-- only every book.audit_snapshot_interval versions and a JSON Merge Patch
+-- from the previous state otherwise, e.g.
+--   ALTER DATABASE postgres SET book.audit_snapshot_interval = 16;
+-- Without the setting, or with an interval of 1, every record is a snapshot.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.is_snapshot(
+    version BIGINT
+) RETURNS BOOLEAN STABLE LANGUAGE SQL AS $$
+    SELECT s.snapshot_interval IS NULL OR s.snapshot_interval <= 1
+        OR version % s.snapshot_interval = 0
+    FROM (SELECT CAST(NULLIF(current_setting('book.audit_snapshot_interval', true), '')
+        AS INTEGER) AS snapshot_interval) s;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.is_snapshot(BIGINT) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.is_snapshot(BIGINT) TO owner_example_jpa;
+
+-- Returns an audit record as read by the service, optionally without the
+-- state of the book. A delta is never returned. The time is taken from the made_at column with
+-- millisecond precision, so a page of audit records is extended to whole milliseconds (see
+-- page_start) for the time of its last record to work as the cursor of the next page.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.audit_view(
+    audit    JSONB,
+    made_at  TIMESTAMPTZ,
+    summary  BOOLEAN DEFAULT FALSE
+) RETURNS JSONB LANGUAGE SQL IMMUTABLE AS $$
+    SELECT (CASE WHEN summary THEN audit - 'state' ELSE audit END) - 'delta' ||
+        jsonb_build_object('madeAt',
+            to_char(made_at AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.MS"Z"'));
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.audit_view(JSONB, TIMESTAMPTZ, BOOLEAN) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.audit_view(JSONB, TIMESTAMPTZ, BOOLEAN) TO owner_example_jpa;
+
 -- **********************************************
 -- example_book_schema database creation
 -- **********************************************
@@ -142,9 +319,17 @@ GRANT EXECUTE ON FUNCTION example_book_schema.audit_book_insert() TO owner_examp
 
 CREATE OR REPLACE FUNCTION example_book_schema.audit_book_update(
 ) RETURNS TRIGGER SECURITY DEFINER LANGUAGE plpgsql AS $$
+DECLARE
+    audit JSONB;
 BEGIN
-    INSERT INTO example_book_audit_schema.books VALUES (
-        NEW.id, example_book_audit_schema.create_audit('UPDATE', NEW.book));
+    IF example_book_audit_schema.is_snapshot(NEW.audit_version) THEN
+        audit := example_book_audit_schema.create_audit('UPDATE', NEW.book);
+    ELSE
+        audit := example_book_audit_schema.create_audit('UPDATE') - 'state' ||
+            jsonb_build_object('delta', example_book_schema.merge_diff(OLD.book, NEW.book));
+    END IF;
+
+    INSERT INTO example_book_audit_schema.books VALUES (NEW.id, audit);
     RETURN NEW;
 END;
 $$;
@@ -164,6 +349,19 @@ $$;
 REVOKE EXECUTE ON FUNCTION example_book_schema.audit_book_delete() FROM public;
 GRANT EXECUTE ON FUNCTION example_book_schema.audit_book_delete() TO owner_example_jpa;
 
+-- Counts the updates of a book, the audit triggers use the count to decide
+-- whether an update is audited as a snapshot or a delta
+CREATE OR REPLACE FUNCTION example_book_schema.version_book(
+) RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.audit_version := OLD.audit_version + 1;
+    RETURN NEW;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.version_book() FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.version_book() TO owner_example_jpa;
+
 CREATE OR REPLACE FUNCTION example_book_schema.set_user(
     audit_user TEXT
 ) RETURNS BOOLEAN STABLE LANGUAGE SQL AS $$
@@ -185,12 +383,16 @@ ALTER TYPE example_book_schema.genre OWNER TO owner_example_jpa;
 CREATE TABLE example_book_schema.books
 (
   id      UUID PRIMARY KEY CHECK(id = (book->>'id')::UUID),
-  book    JSONB NOT NULL CHECK (example_book_schema.validate_book(book))
+  book    JSONB NOT NULL CHECK (example_book_schema.validate_book(book)),
+  audit_version BIGINT NOT NULL DEFAULT 0
 );
 
 ALTER TABLE example_book_schema.books OWNER to owner_example_jpa;
 
 -- Create audit triggers
+CREATE TRIGGER version_book BEFORE UPDATE ON example_book_schema.books
+   FOR EACH ROW EXECUTE PROCEDURE example_book_schema.version_book();
+
 CREATE TRIGGER audit_book_insert AFTER INSERT ON example_book_schema.books
    FOR EACH ROW EXECUTE PROCEDURE example_book_schema.audit_book_insert();
 
@@ -212,11 +414,48 @@ $$;
 REVOKE EXECUTE ON FUNCTION example_book_schema.extract_fields(JSONB) FROM public;
 GRANT EXECUTE ON FUNCTION example_book_schema.extract_fields(JSONB) TO owner_example_jpa;
 
+-- Full-text search support
+ALTER TABLE example_book_schema.books
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        to_tsvector('simple', example_book_schema.extract_fields(book))) STORED;
+
+CREATE INDEX books_search_vector_idx ON example_book_schema.books
+    USING GIN (search_vector);
+
+CREATE OR REPLACE FUNCTION example_book_schema.find_headline(
+    book     JSONB,
+    query    TSQUERY
+) RETURNS TEXT LANGUAGE SQL IMMUTABLE AS $$
+    SELECT ts_headline('simple', example_book_schema.extract_fields(book), query,
+        'StartSel={, StopSel=}, HighlightAll=TRUE');
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.find_headline(JSONB, TSQUERY) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.find_headline(JSONB, TSQUERY) TO owner_example_jpa;
+
+-- Substring search support
+CREATE OR REPLACE FUNCTION example_book_schema.like_pattern(
+    substr   TEXT
+) RETURNS TEXT LANGUAGE SQL IMMUTABLE STRICT AS $$
+    SELECT '%' || replace(replace(replace(LOWER(substr), '\', '\\'), '%', '\%'), '_', '\_') || '%';
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.like_pattern(TEXT) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.like_pattern(TEXT) TO owner_example_jpa;
+
+CREATE INDEX books_search_trgm_idx ON example_book_schema.books
+    USING GIN (LOWER(example_book_schema.extract_fields(book)) gin_trgm_ops);
+
+CREATE INDEX books_publisher_trgm_idx ON example_book_schema.books
+    USING GIN (LOWER(book->>'publisher') gin_trgm_ops);
+
+-- Kept for compatibility, queries should inline the predicate so that
+-- books_search_trgm_idx can be used
 CREATE OR REPLACE FUNCTION example_book_schema.search(
     tuple    example_book_schema.books,
     substr   TEXT
 ) RETURNS BOOLEAN LANGUAGE SQL IMMUTABLE STRICT AS $$
-    SELECT LOWER(example_book_schema.extract_fields(tuple.book)) ~ LOWER('***=' || substr);
+    SELECT LOWER(example_book_schema.extract_fields(tuple.book)) LIKE example_book_schema.like_pattern(substr);
 $$;
 
 REVOKE EXECUTE ON FUNCTION example_book_schema.search(example_book_schema.books, TEXT) FROM public;
@@ -249,4 +488,315 @@ $$;
 REVOKE EXECUTE ON FUNCTION example_book_schema.to_json(JSONB, TEXT, ANYELEMENT) FROM public;
 GRANT EXECUTE ON FUNCTION example_book_schema.to_json(JSONB, TEXT, ANYELEMENT) TO owner_example_jpa;
 
+CREATE OR REPLACE FUNCTION example_book_schema.merge_patch(
+    target JSONB,
+    patch  JSONB
+) RETURNS JSONB IMMUTABLE LANGUAGE PLPGSQL AS $$
+DECLARE
+    result JSONB;
+    item   RECORD;
+BEGIN
+    -- Applies a JSON Merge Patch (RFC 7396) to the target document
+    IF patch IS NULL OR jsonb_typeof(patch) <> 'object' THEN
+        RETURN patch;
+    END IF;
+
+    IF target IS NULL OR jsonb_typeof(target) <> 'object' THEN
+        result := '{}';
+    ELSE
+        result := target;
+    END IF;
+
+    FOR item IN SELECT key, value FROM jsonb_each(patch) LOOP
+        IF jsonb_typeof(item.value) = 'null' THEN
+            result := result - item.key;
+        ELSE
+            result := result || jsonb_build_object(item.key,
+                example_book_schema.merge_patch(result->item.key, item.value));
+        END IF;
+    END LOOP;
+
+    RETURN result;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.merge_patch(JSONB, JSONB) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.merge_patch(JSONB, JSONB) TO owner_example_jpa;
+
+-- Returns the JSON Merge Patch turning the source document into the target
+-- document. Book documents have no null attributes, so no change is lost.
+CREATE OR REPLACE FUNCTION example_book_schema.merge_diff(
+    source JSONB,
+    target JSONB
+) RETURNS JSONB IMMUTABLE LANGUAGE PLPGSQL AS $$
+DECLARE
+    result JSONB := '{}';
+    item   RECORD;
+BEGIN
+    IF source IS NULL OR target IS NULL OR jsonb_typeof(source) <> 'object'
+        OR jsonb_typeof(target) <> 'object' THEN
+        RETURN target;
+    END IF;
+
+    FOR item IN SELECT key, value FROM jsonb_each(target) LOOP
+        IF source->item.key IS DISTINCT FROM item.value THEN
+            result := result || jsonb_build_object(item.key,
+                example_book_schema.merge_diff(source->item.key, item.value));
+        END IF;
+    END LOOP;
+
+    FOR item IN SELECT key FROM jsonb_each(source) LOOP
+        IF target->item.key IS NULL THEN
+            result := result || jsonb_build_object(item.key, 'null'::JSONB);
+        END IF;
+    END LOOP;
+
+    RETURN result;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.merge_diff(JSONB, JSONB) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.merge_diff(JSONB, JSONB) TO owner_example_jpa;
+
+-- **********************************************
+-- Audit state reconstruction
+-- **********************************************
+
+-- Replays an audit record on the state of the book before it
+CREATE OR REPLACE FUNCTION example_book_audit_schema.apply_audit(
+    state  JSONB,
+    audit  JSONB
+) RETURNS JSONB LANGUAGE SQL IMMUTABLE AS $$
+    SELECT CASE WHEN audit->'state' IS NOT NULL THEN audit->'state'
+        ELSE example_book_schema.merge_patch(state, audit->'delta') END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.apply_audit(JSONB, JSONB) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.apply_audit(JSONB, JSONB) TO owner_example_jpa;
+
+-- Rebuilds the state of a book from audit records in time order, starting
+-- with a snapshot. Used as a window function, it returns the state after
+-- each record.
+CREATE AGGREGATE example_book_audit_schema.replay(JSONB) (
+    SFUNC = example_book_audit_schema.apply_audit,
+    STYPE = JSONB
+);
+
+ALTER AGGREGATE example_book_audit_schema.replay(JSONB) OWNER TO owner_example_jpa;
+
+-- Raises an error for audit records of a book not preceded by a snapshot,
+-- their state can't be replayed. Returns null if there are no records.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.missing_snapshot(
+    book_id  UUID,
+    made_at  TIMESTAMPTZ
+) RETURNS TIMESTAMPTZ STABLE STRICT LANGUAGE PLPGSQL AS $$
+BEGIN
+    RAISE data_corrupted USING
+        MESSAGE = format('No audit snapshot of book %s precedes %s', book_id,
+            example_book_audit_schema.json_time(made_at));
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.missing_snapshot(UUID, TIMESTAMPTZ) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.missing_snapshot(UUID, TIMESTAMPTZ) TO owner_example_jpa;
+
+-- Returns the start of a page of audit records of a book: the millisecond of the oldest of the
+-- newest max_rows records within the bounds. The page holds every record from that millisecond
+-- on, so no record is skipped by the next page, whose exclusive upper bound is that millisecond.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.page_start(
+    book_id      UUID,
+    lower_bound  TIMESTAMPTZ,
+    upper_bound  TIMESTAMPTZ,
+    max_rows     INTEGER
+) RETURNS TIMESTAMPTZ LANGUAGE SQL STABLE AS $$
+    SELECT date_trunc('milliseconds', min(p.made_at))
+    FROM (SELECT a.made_at FROM example_book_audit_schema.books a
+        WHERE a.id = book_id AND a.made_at >= lower_bound
+        AND a.made_at < upper_bound
+        ORDER BY a.made_at DESC LIMIT max_rows) p;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.page_start(UUID, TIMESTAMPTZ, TIMESTAMPTZ, INTEGER) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.page_start(UUID, TIMESTAMPTZ, TIMESTAMPTZ, INTEGER) TO owner_example_jpa;
+
+-- Returns a page of audit records of a book, newest first, each with the
+-- full state of the book. The states are replayed in a single pass from the
+-- nearest snapshot preceding the page. Fails if there is no such snapshot. The page ends with a
+-- whole millisecond, so it holds more than max_rows records when several were made within it.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.find_audits(
+    book_id      UUID,
+    lower_bound  TIMESTAMPTZ,
+    upper_bound  TIMESTAMPTZ,
+    max_rows     INTEGER
+) RETURNS TABLE (audit_record JSONB, audit_time TIMESTAMPTZ) LANGUAGE SQL STABLE AS $$
+    WITH page AS (
+        SELECT min(p.made_at) AS first_at, max(p.made_at) AS last_at
+        FROM example_book_audit_schema.books p
+        WHERE p.id = book_id AND p.made_at >= lower_bound
+        AND p.made_at < upper_bound
+        AND p.made_at >= example_book_audit_schema.page_start(
+            book_id, lower_bound, upper_bound, max_rows)
+    ), base AS (
+        SELECT COALESCE(max(s.made_at), example_book_audit_schema.missing_snapshot(
+            book_id, (SELECT g.first_at FROM page g))) AS made_at
+        FROM example_book_audit_schema.books s
+        WHERE s.id = book_id AND s.made_at <= (SELECT g.first_at FROM page g)
+        AND s.audit->'state' IS NOT NULL
+    ), history AS (
+        SELECT h.audit, h.made_at, example_book_audit_schema.replay(h.audit)
+            OVER (ORDER BY h.made_at) AS state
+        FROM example_book_audit_schema.books h
+        WHERE h.id = book_id
+        AND h.made_at >= (SELECT b.made_at FROM base b)
+        AND h.made_at <= (SELECT g.last_at FROM page g)
+    )
+    SELECT h.audit - 'delta' || jsonb_build_object('state', h.state), h.made_at
+    FROM history h
+    WHERE h.made_at >= (SELECT g.first_at FROM page g);
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.find_audits(UUID, TIMESTAMPTZ, TIMESTAMPTZ, INTEGER) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.find_audits(UUID, TIMESTAMPTZ, TIMESTAMPTZ, INTEGER) TO owner_example_jpa;
+
+-- Returns the state of a book at the given time, or null if the book
+-- didn't exist at that time. Fails if no snapshot precedes the time.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.book_as_of(
+    book_id  UUID,
+    as_of    TIMESTAMPTZ
+) RETURNS JSONB LANGUAGE SQL STABLE AS $$
+    WITH target AS (
+        SELECT t.made_at, t.audit->>'change' AS change
+        FROM example_book_audit_schema.books t
+        WHERE t.id = book_id AND t.made_at <= as_of
+        ORDER BY t.made_at DESC LIMIT 1
+    ), base AS (
+        SELECT COALESCE(max(s.made_at), example_book_audit_schema.missing_snapshot(
+            book_id, (SELECT t.made_at FROM target t))) AS made_at
+        FROM example_book_audit_schema.books s
+        WHERE s.id = book_id AND s.made_at <= (SELECT t.made_at FROM target t)
+        AND s.audit->'state' IS NOT NULL
+    )
+    SELECT CASE WHEN (SELECT t.change FROM target t) = 'DELETE' THEN NULL
+        ELSE example_book_audit_schema.replay(h.audit ORDER BY h.made_at) END
+    FROM example_book_audit_schema.books h
+    WHERE h.id = book_id
+    AND h.made_at >= (SELECT b.made_at FROM base b)
+    AND h.made_at <= (SELECT t.made_at FROM target t);
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.book_as_of(UUID, TIMESTAMPTZ) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.book_as_of(UUID, TIMESTAMPTZ) TO owner_example_jpa;
+
+-- Rewrites the first audit record of each book at or after the bound as a
+-- snapshot if it's a delta and the book has older records. Once the older
+-- records are removed, the state is still replayed from a snapshot. Returns
+-- the number of rewritten records.
+CREATE OR REPLACE FUNCTION example_book_audit_schema.rebase_audits(
+    bound  TIMESTAMPTZ
+) RETURNS INTEGER LANGUAGE SQL AS $$
+    WITH rebased AS (
+        UPDATE example_book_audit_schema.books a
+        SET audit = a.audit - 'delta' || jsonb_build_object('state',
+            example_book_audit_schema.book_as_of(a.id, a.made_at))
+        FROM (SELECT f.id, min(f.made_at) AS made_at
+            FROM example_book_audit_schema.books f
+            WHERE f.made_at >= bound
+            AND f.id IN (SELECT o.id FROM example_book_audit_schema.books o
+                WHERE o.made_at < bound)
+            GROUP BY f.id) b
+        WHERE a.id = b.id AND a.made_at = b.made_at
+        AND a.audit->'state' IS NULL
+        RETURNING a.id
+    )
+    SELECT CAST(count(*) AS INTEGER) FROM rebased;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_audit_schema.rebase_audits(TIMESTAMPTZ) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_audit_schema.rebase_audits(TIMESTAMPTZ) TO owner_example_jpa;
+
+-- Bulk import support, converts a line of an NDJSON import into a book
+-- document or the reason it was rejected. Besides validate_book, the types
+-- of the attributes are checked like the API does, so that every imported
+-- book can be read back. The id is written in its canonical form.
+-- gen_random_uuid() is built in since PostgreSQL 13
+CREATE OR REPLACE FUNCTION example_book_schema.import_book(
+    doc       TEXT,
+    OUT book  JSONB,
+    OUT error TEXT
+) LANGUAGE PLPGSQL VOLATILE AS $$
+DECLARE
+    detail  TEXT;
+    errors  TEXT[] := '{}';
+    attr    TEXT;
+    item    RECORD;
+BEGIN
+    book := doc::JSONB;
+
+    IF jsonb_typeof(book) <> 'object' THEN
+        book := NULL;
+        error := 'Book is not a JSON object!';
+        RETURN;
+    END IF;
+
+    book := book - 'match';
+    IF book->>'id' IS NULL THEN
+        book := book || jsonb_build_object('id', gen_random_uuid());
+    ELSE
+        book := book || jsonb_build_object('id', CAST(book->>'id' AS UUID));
+    END IF;
+    IF jsonb_typeof(book->'genre') = 'string' THEN
+        book := book || jsonb_build_object('genre', UPPER(book->>'genre'));
+    END IF;
+
+    PERFORM example_book_schema.validate_book(book);
+
+    FOR attr IN SELECT jsonb_object_keys(book) LOOP
+        IF attr NOT IN ('id', 'title', 'genre', 'publisher', 'author', 'star') THEN
+            errors := errors || format('Unknown attribute “%s”', attr);
+        END IF;
+    END LOOP;
+
+    FOREACH attr IN ARRAY ARRAY['title', 'publisher'] LOOP
+        IF jsonb_typeof(book->attr) <> 'string' THEN
+            errors := errors || format('Attribute “%s” must be a string', attr);
+        END IF;
+    END LOOP;
+
+    IF jsonb_typeof(book->'star') <> 'number' THEN
+        errors := errors || 'Attribute “star” must be an integer between 1 and 5'::TEXT;
+    ELSIF CAST(book->>'star' AS NUMERIC) NOT IN (1, 2, 3, 4, 5) THEN
+        errors := errors || 'Attribute “star” must be an integer between 1 and 5'::TEXT;
+    END IF;
+
+    IF jsonb_typeof(book->'author') <> 'object' THEN
+        errors := errors || 'Attribute “author” must be an object'::TEXT;
+    ELSE
+        FOR item IN SELECT key, value FROM jsonb_each(book->'author') LOOP
+            IF item.key NOT IN ('firstName', 'lastName') THEN
+                errors := errors || format('Unknown author attribute “%s”', item.key);
+            ELSIF jsonb_typeof(item.value) NOT IN ('string', 'null') THEN
+                errors := errors || format('Author attribute “%s” must be a string', item.key);
+            END IF;
+        END LOOP;
+    END IF;
+
+    IF array_length(errors, 1) > 0 THEN
+        RAISE check_violation USING
+            MESSAGE = 'Book document violates check constraint',
+            DETAIL = array_to_string(errors, E'\n');
+    END IF;
+EXCEPTION
+    WHEN check_violation THEN
+        GET STACKED DIAGNOSTICS error = MESSAGE_TEXT, detail = PG_EXCEPTION_DETAIL;
+        book := NULL;
+        error := concat_ws(': ', error, NULLIF(detail, ''));
+    WHEN data_exception THEN
+        book := NULL;
+        error := SQLERRM;
+END;
+$$;
+
+REVOKE EXECUTE ON FUNCTION example_book_schema.import_book(TEXT) FROM public;
+GRANT EXECUTE ON FUNCTION example_book_schema.import_book(TEXT) TO owner_example_jpa;
+
 COMMIT;
@@ -0,0 +1,117 @@
+package com.basaki.example.postgres.jsonb.archive;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@code AuditArchiveUnitTests} unit test class for {@code AuditArchive}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class AuditArchiveUnitTests {
+
+    private static final UUID FIRST =
+            UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static final UUID SECOND =
+            UUID.fromString("f0000000-0000-0000-0000-000000000000");
+
+    private static final UUID MISSING =
+            UUID.fromString("80000000-0000-0000-0000-000000000000");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFind() throws IOException {
+        AuditArchive archive = new AuditArchive(folder.getRoot().toPath());
+        AuditSegmentWriter writer = archive.newSegment();
+        // a high identifier first, the index is sorted as unsigned numbers
+        append(writer, SECOND, 10, 20);
+        append(writer, FIRST, 10, 20, 30);
+        archive.commit(writer);
+
+        List<AuditRecord> records =
+                archive.find(FIRST, Long.MIN_VALUE, Long.MAX_VALUE, 10);
+        assertEquals(3, records.size());
+        assertEquals(30, records.get(0).getMadeAt());
+        assertEquals(10, records.get(2).getMadeAt());
+        assertEquals(FIRST + "@30", new String(records.get(0).getDocument(),
+                StandardCharsets.UTF_8));
+
+        records = archive.find(FIRST, 15, 30, 10);
+        assertEquals(1, records.size());
+        assertEquals(20, records.get(0).getMadeAt());
+
+        assertEquals(2, archive.find(SECOND, 0, 100, 10).size());
+        assertTrue(archive.find(MISSING, 0, 100, 10).isEmpty());
+    }
+
+    @Test
+    public void testFindAcrossSegments() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        AuditArchive archive = new AuditArchive(directory);
+        AuditSegmentWriter writer = archive.newSegment();
+        append(writer, FIRST, 10, 20);
+        archive.commit(writer);
+        writer = archive.newSegment();
+        append(writer, FIRST, 30, 40);
+        archive.commit(writer);
+
+        AuditArchive reopened = new AuditArchive(directory);
+        assertEquals(2, reopened.getSegmentCount());
+
+        List<AuditRecord> records =
+                reopened.find(FIRST, Long.MIN_VALUE, Long.MAX_VALUE, 3);
+        assertEquals(3, records.size());
+        assertEquals(40, records.get(0).getMadeAt());
+        assertEquals(30, records.get(1).getMadeAt());
+        assertEquals(20, records.get(2).getMadeAt());
+    }
+
+    @Test
+    public void testDiscard() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        AuditArchive archive = new AuditArchive(directory);
+        AuditSegmentWriter writer = archive.newSegment();
+        append(writer, FIRST, 10);
+        archive.discard(writer);
+
+        assertFalse(Files.list(directory).findAny().isPresent());
+        assertEquals(0, new AuditArchive(directory).getSegmentCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppendNotContiguous() throws IOException {
+        AuditArchive archive = new AuditArchive(folder.getRoot().toPath());
+        AuditSegmentWriter writer = archive.newSegment();
+        try {
+            append(writer, FIRST, 10);
+            append(writer, SECOND, 10);
+            append(writer, FIRST, 20);
+        } finally {
+            archive.discard(writer);
+        }
+    }
+
+    private static void append(AuditSegmentWriter writer, UUID id,
+            long... times) throws IOException {
+        for (long time : times) {
+            writer.append(id, time,
+                    (id + "@" + time).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.basaki.example.postgres.jsonb.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@code TinyLfuLocalCacheUnitTests} unit test class for {@code
+ * TinyLfuLocalCache}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class TinyLfuLocalCacheUnitTests {
+
+    private AtomicLong time;
+
+    private TinyLfuLocalCache<Integer, String> cache;
+
+    @Before
+    public void setUp() {
+        time = new AtomicLong();
+        cache = new TinyLfuLocalCache<>(100, 10, TimeUnit.SECONDS, time::get);
+    }
+
+    @Test
+    public void testGetAndPut() {
+        assertNull(cache.get(1));
+        cache.put(1, "one", cache.stamp());
+        assertEquals("one", cache.get(1));
+
+        assertEquals(1, cache.getStatistics().getHits());
+        assertEquals(1, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void testSizeBound() {
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "value" + i, cache.stamp());
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "hot" + i, cache.stamp());
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get(i);
+            }
+        }
+
+        for (int i = 1000; i < 5000; i++) {
+            cache.put(i, "cold" + i, cache.stamp());
+        }
+
+        int retained = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(i) != null) {
+                retained++;
+            }
+        }
+        assertTrue("Only " + retained + " hot entries retained",
+                retained >= 45);
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        cache.put(1, "one", cache.stamp());
+        time.addAndGet(TimeUnit.SECONDS.toNanos(11));
+
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStatistics().getExpirations());
+    }
+
+    @Test
+    public void testStalePutIgnored() {
+        long stamp = cache.stamp();
+        cache.invalidate(1);
+        cache.put(1, "stale", stamp);
+
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        cache.put(1, "one", cache.stamp());
+        cache.put(2, "two", cache.stamp());
+        cache.invalidateAll();
+
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(0, cache.size());
+    }
+}
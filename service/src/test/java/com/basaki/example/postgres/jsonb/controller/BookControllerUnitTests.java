@@ -1,24 +1,40 @@
 package com.basaki.example.postgres.jsonb.controller;
 
 import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditView;
 import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.BatchStatus;
 import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookBatchResult;
 import com.basaki.example.postgres.jsonb.model.BookRequest;
 import com.basaki.example.postgres.jsonb.model.Genre;
+import com.basaki.example.postgres.jsonb.model.SearchMode;
 import com.basaki.example.postgres.jsonb.service.BookService;
+import com.basaki.example.postgres.jsonb.service.VersionedBook;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.DigestUtils;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 
@@ -66,22 +82,119 @@ public class BookControllerUnitTests {
         Book book = getBook();
         List<Book> books = new ArrayList<>();
         books.add(book);
-        when(service.readAll(any(String.class))).thenReturn(books);
+        when(service.readAll(any(String.class), any(SearchMode.class),
+                any(UUID.class), any(Integer.class))).thenReturn(books);
 
         List<Book> returnedObjs =
-                controller.readAll("search");
+                controller.readAll("search", SearchMode.SUBSTRING,
+                        UUID.randomUUID(), 10);
         assertEquals(1, returnedObjs.size());
         validate(book, returnedObjs.get(0));
     }
 
+    @Test
+    public void testReadAsOf() {
+        Book book = getBook();
+        when(service.readAsOf(any(UUID.class), any(Date.class))).thenReturn(
+                book);
+
+        Book returnedObj = controller.readAsOf(book.getId(), new Date());
+        validate(book, returnedObj);
+    }
+
+    @Test
+    public void testStreamAll() throws IOException {
+        doAnswer(invocation -> {
+            OutputStream out = (OutputStream) invocation.getArguments()[4];
+            out.write("{}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(service).writeAll(any(String.class), any(SearchMode.class),
+                any(UUID.class), any(Integer.class), any(OutputStream.class));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.streamAll("search", SearchMode.SUBSTRING, null, null,
+                response);
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals("{}\n", response.getContentAsString());
+    }
+
+    @Test
+    public void testReadRaw() throws IOException {
+        byte[] document = "{\"title\": \"Title\"}".getBytes(
+                StandardCharsets.UTF_8);
+        when(service.readRaw(any(UUID.class))).thenReturn(document);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.readRaw(UUID.randomUUID(), true, response);
+        assertEquals(MediaType.APPLICATION_JSON_UTF8_VALUE,
+                response.getContentType());
+        assertEquals("\"" + DigestUtils.md5DigestAsHex(document) + "\"",
+                response.getHeader(HttpHeaders.ETAG));
+        assertEquals("{\"title\": \"Title\"}",
+                response.getContentAsString());
+    }
+
+    @Test
+    public void testCreateAll() {
+        List<BookBatchResult> results = new ArrayList<>();
+        results.add(new BookBatchResult(0, BatchStatus.CREATED,
+                UUID.randomUUID(), null));
+        results.add(new BookBatchResult(1, BatchStatus.REJECTED, null,
+                "Title should not be null."));
+        when(service.createAll(any(List.class), any(String.class))).thenReturn(
+                results);
+
+        List<BookRequest> requests = new ArrayList<>();
+        requests.add(new BookRequest());
+        requests.add(new BookRequest());
+        List<BookBatchResult> returnedObjs =
+                controller.createAll("user", requests);
+        assertNotNull(returnedObjs);
+        assertEquals(2, returnedObjs.size());
+        assertEquals(BatchStatus.CREATED, returnedObjs.get(0).getStatus());
+        assertEquals(BatchStatus.REJECTED, returnedObjs.get(1).getStatus());
+    }
+
     @Test
     public void testUpdate() {
         Book book = getBook();
-        when(service.update(any(UUID.class),
-                any(BookRequest.class), any(String.class))).thenReturn(book);
+        when(service.update(any(UUID.class), any(BookRequest.class),
+                any(String.class), any(String.class))).thenReturn(
+                new VersionedBook(book, "v2"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Book returnedObj =
+                controller.update("Neil", UUID.randomUUID(), null,
+                        new BookRequest(), response);
+        validate(book, returnedObj);
+        assertEquals("\"v2\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testUpdateIfMatch() {
+        Book book = getBook();
+        when(service.update(any(UUID.class), any(BookRequest.class),
+                any(String.class), eq("v1"))).thenReturn(
+                new VersionedBook(book, "v2"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Book returnedObj =
+                controller.update("Neil", UUID.randomUUID(), "W/\"v1\"",
+                        new BookRequest(), response);
+        validate(book, returnedObj);
+        assertEquals("\"v2\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testPatch() {
+        Book book = getBook();
+        when(service.patch(any(UUID.class), any(Map.class),
+                any(String.class))).thenReturn(book);
 
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("star", 4);
         Book returnedObj =
-                controller.update("Neil", UUID.randomUUID(), new BookRequest());
+                controller.patch("Neil", book.getId(), patch);
         validate(book, returnedObj);
     }
 
@@ -119,10 +232,13 @@ public class BookControllerUnitTests {
         audit.setMadeAt(new Date());
         List<AuditBook> audits = new ArrayList<>();
         audits.add(audit);
-        when(service.readAudits(any(UUID.class))).thenReturn(audits);
+        when(service.readAudits(any(UUID.class), any(Date.class),
+                any(Date.class), any(Date.class), any(Integer.class),
+                any(AuditView.class))).thenReturn(audits);
 
         List<AuditBook> returnedObjs =
-                controller.readAudits(book.getId());
+                controller.readAudits(book.getId(), null, null, null, null,
+                        AuditView.FULL);
         assertEquals(1, returnedObjs.size());
         validate(book, returnedObjs.get(0).getState());
 
@@ -0,0 +1,73 @@
+package com.basaki.example.postgres.jsonb.data.codec;
+
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@code JsonbCodecUnitTests} unit test class for {@code JsonbCodec}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class JsonbCodecUnitTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private CodecMode mode;
+
+    @Before
+    public void setUp() {
+        mode = JsonbCodec.getDefaultMode();
+        JsonbCodec.getStatistics().reset();
+    }
+
+    @After
+    public void tearDown() {
+        JsonbCodec.setDefaultMode(mode);
+        JsonbCodec.getStatistics().reset();
+    }
+
+    @Test
+    public void testWriteBytesSameInBothModes() throws Exception {
+        Book book = new Book();
+        // Jackson's byte generator escapes supplementary characters, so
+        // the modes only write the same document for BMP characters
+        book.setTitle("Les Mis\u00E9rables \u2014 \u4E2D");
+        int expected = mapper.writeValueAsBytes(book).length;
+
+        assertEquals(expected, bytesWritten(CodecMode.STRING, book));
+        assertEquals(expected, bytesWritten(CodecMode.STREAMING, book));
+    }
+
+    @Test
+    public void testUtf8Length() {
+        String[] strings = {"", "ascii", "\u00E9", "\u2014",
+                "\uD83D\uDCD6", "a\u00E9\u4E2D\uD83D\uDE00z"};
+        for (String string : strings) {
+            assertEquals(string,
+                    string.getBytes(StandardCharsets.UTF_8).length,
+                    JsonbCodec.utf8Length(string));
+        }
+        // a lone surrogate is encoded as '?'
+        assertEquals(1, JsonbCodec.utf8Length("\uD83D"));
+    }
+
+    private long bytesWritten(CodecMode codecMode,
+            Book book) throws SQLException {
+        JsonbCodec.setDefaultMode(codecMode);
+        JsonbCodec.getStatistics().reset();
+        new JsonbCodec(mapper).write(mock(PreparedStatement.class), book, 1);
+
+        return JsonbCodec.getStatistics().getBytesWritten();
+    }
+}
@@ -0,0 +1,86 @@
+package com.basaki.example.postgres.jsonb.data.copy;
+
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditType;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@code DeepCopierRegistryUnitTests} unit test class for {@code
+ * DeepCopierRegistry}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class DeepCopierRegistryUnitTests {
+
+    private DeepCopierRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new DeepCopierRegistry(new ObjectMapper());
+    }
+
+    @Test
+    public void testCopyBook() {
+        Book book = getBook();
+
+        Book copy = registry.copy(book);
+        assertEquals(book, copy);
+        assertNotSame(book, copy);
+        assertNotSame(book.getAuthor(), copy.getAuthor());
+        assertSame(book.getId(), copy.getId());
+        assertTrue(registry.getCopier(
+                Book.class) instanceof FieldDeepCopier);
+    }
+
+    @Test
+    public void testCopyAuditBook() {
+        AuditBook audit =
+                new AuditBook(AuditType.UPDATE, new Date(), "Neil", getBook());
+
+        AuditBook copy = registry.copy(audit);
+        assertEquals(audit, copy);
+        assertNotSame(audit.getMadeAt(), copy.getMadeAt());
+        assertNotSame(audit.getState(), copy.getState());
+        assertNotSame(audit.getState().getAuthor(),
+                copy.getState().getAuthor());
+    }
+
+    @Test
+    public void testCopyUnknownType() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("title", "Ethan Frome");
+
+        Map<String, Object> copy = registry.copy(map);
+        assertEquals(map, copy);
+        assertNotSame(map, copy);
+        assertTrue(registry.getCopier(
+                HashMap.class) instanceof JsonDeepCopier);
+    }
+
+    @Test
+    public void testCopyNull() {
+        assertNull(registry.copy(null));
+    }
+
+    private Book getBook() {
+        return new Book(UUID.randomUUID(), "Ethan Frome", Genre.DRAMA,
+                "Scribner's", 5, new Author("Edith", "Wharton"), null);
+    }
+}
@@ -0,0 +1,254 @@
+package com.basaki.example.postgres.jsonb.data.routing;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@code ReplicaRoutingDataSourceUnitTests} unit test class for {@code
+ * ReplicaRoutingDataSource}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class ReplicaRoutingDataSourceUnitTests {
+
+    private DataSource primary;
+
+    private DataSource first;
+
+    private DataSource second;
+
+    private Connection primaryConnection;
+
+    private Connection firstConnection;
+
+    private Connection secondConnection;
+
+    private ReplicaRoutingDataSource routing;
+
+    @Before
+    public void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        first = mock(DataSource.class);
+        second = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        firstConnection = mock(Connection.class);
+        secondConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+
+        routing = new ReplicaRoutingDataSource(primary,
+                Arrays.asList(first, second), 60000);
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWrites.clearCurrentUser();
+        ReadYourWrites.setWindowMillis(0);
+    }
+
+    @Test
+    public void testWritesUsePrimary() throws SQLException {
+        assertSame(primaryConnection, target(routing.getConnection()));
+        assertEquals(0, routing.getPrimaryReadCount());
+    }
+
+    @Test
+    public void testReadsRoundRobin() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(firstConnection, target(routing.getConnection()));
+        assertSame(secondConnection, target(routing.getConnection()));
+        assertSame(firstConnection, target(routing.getConnection()));
+        assertEquals(3, routing.getReplicaReadCount());
+    }
+
+    @Test
+    public void testFailedReplicaIsEjected() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLException("down"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(secondConnection, target(routing.getConnection()));
+        assertSame(secondConnection, target(routing.getConnection()));
+        assertSame(secondConnection, target(routing.getConnection()));
+        verify(first, times(1)).getConnection();
+        assertEquals(1, routing.getEjectionCount());
+        assertEquals(1, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void testReadsFallBackToPrimary() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLException("down"));
+        when(second.getConnection()).thenThrow(new SQLException("down"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, target(routing.getConnection()));
+        assertEquals(1, routing.getPrimaryReadCount());
+        assertEquals(0, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void testReadYourWrites() throws SQLException {
+        ReadYourWrites.setWindowMillis(60000);
+        ReadYourWrites.recordWrite("writer");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReadYourWrites.setCurrentUser("writer");
+        assertSame(primaryConnection, target(routing.getConnection()));
+
+        ReadYourWrites.setCurrentUser("reader");
+        assertSame(firstConnection, target(routing.getConnection()));
+    }
+
+    @Test
+    public void testCredentialsPassedToRoutedPool() throws SQLException {
+        Connection primaryUserConnection = mock(Connection.class);
+        Connection firstUserConnection = mock(Connection.class);
+        when(primary.getConnection("indra", "secret")).thenReturn(
+                primaryUserConnection);
+        when(first.getConnection("indra", "secret")).thenReturn(
+                firstUserConnection);
+        when(second.getConnection("indra", "secret")).thenThrow(
+                new SQLException("down"));
+
+        assertSame(primaryUserConnection,
+                target(routing.getConnection("indra", "secret")));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(firstUserConnection,
+                target(routing.getConnection("indra", "secret")));
+        assertSame(firstUserConnection,
+                target(routing.getConnection("indra", "secret")));
+        assertEquals(1, routing.getEjectionCount());
+        assertEquals(2, routing.getReplicaReadCount());
+
+        // the lazy proxy routes once the read-only flag is known
+        LazyRoutingDataSource lazy = new LazyRoutingDataSource(routing,
+                Connection.TRANSACTION_READ_COMMITTED);
+        Connection connection = lazy.getConnection("indra", "secret");
+        connection.createStatement();
+        verify(first, times(3)).getConnection("indra", "secret");
+        verify(primary, never()).getConnection();
+        verify(first, never()).getConnection();
+    }
+
+    @Test
+    public void testProbeEjectsInvalidReplica() throws SQLException {
+        when(firstConnection.isValid(1)).thenReturn(false);
+        when(secondConnection.isValid(1)).thenReturn(true);
+
+        routing.probe();
+        assertEquals(1, routing.getHealthyReplicaCount());
+        assertEquals(1, routing.getEjectionCount());
+        verify(firstConnection).close();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(secondConnection, target(routing.getConnection()));
+        assertSame(secondConnection, target(routing.getConnection()));
+
+        // a healthy replica is put back in rotation
+        when(firstConnection.isValid(1)).thenReturn(true);
+        routing.probe();
+        assertEquals(2, routing.getHealthyReplicaCount());
+        assertEquals(1, routing.getEjectionCount());
+    }
+
+    @Test
+    public void testProbeEjectsLaggingReplica() throws SQLException {
+        routing = new ReplicaRoutingDataSource(primary,
+                Arrays.asList(first, second), 60000, 0, 5000);
+        when(firstConnection.isValid(1)).thenReturn(true);
+        when(secondConnection.isValid(1)).thenReturn(true);
+        lag(firstConnection, 12000);
+        lag(secondConnection, 100);
+
+        routing.probe();
+        assertEquals(1, routing.getHealthyReplicaCount());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(secondConnection, target(routing.getConnection()));
+        assertSame(secondConnection, target(routing.getConnection()));
+    }
+
+    @Test
+    public void testFailedStatementEjectsReplica() throws SQLException {
+        PreparedStatement st = mock(PreparedStatement.class);
+        when(firstConnection.prepareStatement("SELECT book")).thenReturn(st);
+        when(st.executeQuery()).thenThrow(
+                new SQLException("canceling statement due to conflict " +
+                        "with recovery", "40001"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection connection = routing.getConnection();
+        try {
+            connection.prepareStatement("SELECT book").executeQuery();
+            fail("SQLException expected");
+        } catch (SQLException e) {
+            assertEquals("40001", e.getSQLState());
+        }
+
+        assertEquals(1, routing.getEjectionCount());
+        assertSame(secondConnection, target(routing.getConnection()));
+        assertSame(secondConnection, target(routing.getConnection()));
+    }
+
+    @Test
+    public void testStatementErrorKeepsReplica() throws SQLException {
+        PreparedStatement st = mock(PreparedStatement.class);
+        when(firstConnection.prepareStatement("SELECT book")).thenReturn(st);
+        when(st.executeQuery()).thenThrow(
+                new SQLException("invalid input syntax for type uuid",
+                        "22P02"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try {
+            routing.getConnection().prepareStatement("SELECT book")
+                    .executeQuery();
+            fail("SQLException expected");
+        } catch (SQLException e) {
+            assertEquals("22P02", e.getSQLState());
+        }
+
+        assertEquals(0, routing.getEjectionCount());
+        assertEquals(2, routing.getHealthyReplicaCount());
+    }
+
+    private static void lag(Connection connection,
+            long millis) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong(1)).thenReturn(millis);
+        Statement st = mock(Statement.class);
+        when(st.executeQuery(anyString())).thenReturn(rs);
+        when(connection.createStatement()).thenReturn(st);
+    }
+
+    private static Connection target(Connection connection)
+            throws SQLException {
+        return Proxy.isProxyClass(connection.getClass())
+                ? connection.unwrap(Connection.class) : connection;
+    }
+}
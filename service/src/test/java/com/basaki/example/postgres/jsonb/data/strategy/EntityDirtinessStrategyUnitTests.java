@@ -0,0 +1,152 @@
+package com.basaki.example.postgres.jsonb.data.strategy;
+
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import java.util.UUID;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@code EntityDirtinessStrategyUnitTests} unit test class for {@code
+ * EntityDirtinessStrategy}, {@code FingerprintListener} and {@code
+ * Fingerprints}. Hibernate doesn't update an entity the strategy reports as
+ * not dirty.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class EntityDirtinessStrategyUnitTests {
+
+    private final EntityDirtinessStrategy strategy =
+            new EntityDirtinessStrategy();
+
+    private final FingerprintListener listener = new FingerprintListener();
+
+    private final EntityPersister persister = mock(EntityPersister.class);
+
+    private DirtinessMode mode;
+
+    @Before
+    public void setUp() {
+        mode = EntityDirtinessStrategy.getMode();
+    }
+
+    @After
+    public void tearDown() {
+        EntityDirtinessStrategy.setMode(mode);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testUnchangedEntityNotUpdated() {
+        EntityDirtinessStrategy.setMode(DirtinessMode.FINGERPRINT);
+        BookEntity entity = load();
+
+        // an update with the same document flags the entity dirty
+        entity.setBook(book());
+        entity.setDirty(true);
+
+        long skipped = EntityDirtinessStrategy.getSkippedCount();
+        assertTrue(strategy.canDirtyCheck(entity, persister, null));
+        assertFalse(strategy.isDirty(entity, persister, null));
+        assertEquals(skipped + 1, EntityDirtinessStrategy.getSkippedCount());
+    }
+
+    @Test
+    public void testNestedChangeDetected() {
+        EntityDirtinessStrategy.setMode(DirtinessMode.FINGERPRINT);
+        BookEntity entity = load();
+
+        // even without the dirty flag
+        entity.getBook().getAuthor().setFirstName("Jane");
+        assertTrue(strategy.isDirty(entity, persister, null));
+
+        strategy.resetDirty(entity, persister, null);
+        listener.record(entity);
+        assertFalse(strategy.isDirty(entity, persister, null));
+    }
+
+    @Test
+    public void testReadOnlyLoadNotFingerprinted() {
+        EntityDirtinessStrategy.setMode(DirtinessMode.FINGERPRINT);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        BookEntity entity = load();
+
+        // the flag decides
+        assertEquals(0, entity.getFingerprint());
+        assertFalse(strategy.isDirty(entity, persister, null));
+        entity.setDirty(true);
+        assertTrue(strategy.isDirty(entity, persister, null));
+    }
+
+    @Test
+    public void testFlagModeFallback() {
+        EntityDirtinessStrategy.setMode(DirtinessMode.FLAG);
+        BookEntity entity = load();
+
+        // no fingerprint is recorded, the flag decides
+        assertEquals(0, entity.getFingerprint());
+        entity.getBook().setTitle("Changed");
+        assertFalse(strategy.isDirty(entity, persister, null));
+
+        entity.setBook(book());
+        entity.setDirty(true);
+        assertTrue(strategy.isDirty(entity, persister, null));
+    }
+
+    @Test
+    public void testNewEntityFallsBackToFlag() {
+        EntityDirtinessStrategy.setMode(DirtinessMode.FINGERPRINT);
+        BookEntity entity = new BookEntity();
+        entity.setBook(book());
+
+        assertFalse(strategy.isDirty(entity, persister, null));
+        entity.setDirty(true);
+        assertTrue(strategy.isDirty(entity, persister, null));
+    }
+
+    @Test
+    public void testFingerprints() {
+        assertEquals(Fingerprints.of(book()), Fingerprints.of(book()));
+        assertNotEquals(0, Fingerprints.of(null));
+
+        Book changed = book();
+        changed.getAuthor().setLastName("Smith");
+        assertNotEquals(Fingerprints.of(book()), Fingerprints.of(changed));
+    }
+
+    private BookEntity load() {
+        BookEntity entity = new BookEntity();
+        entity.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        entity.setBook(book());
+        listener.record(entity);
+
+        return entity;
+    }
+
+    private static Book book() {
+        Book book = new Book();
+        book.setTitle("Indra's Chronicle");
+        book.setGenre(Genre.DRAMA);
+        book.setPublisher("Rahu Press");
+        book.setStar(5);
+        Author author = new Author();
+        author.setFirstName("Indra");
+        author.setLastName("Basak");
+        book.setAuthor(author);
+
+        return book;
+    }
+}
@@ -0,0 +1,100 @@
+package com.basaki.example.postgres.jsonb.mapper;
+
+import com.basaki.example.postgres.jsonb.config.SpringConfiguration;
+import com.basaki.example.postgres.jsonb.data.entity.AuditBookEntity;
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditType;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@code BookMapperUnitTests} unit test class for the generated {@code
+ * BookMapperImpl}, compared with {@code DozerBookMapper}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class BookMapperUnitTests {
+
+    private BookMapper generated;
+
+    private BookMapper dozer;
+
+    private Book book;
+
+    @Before
+    public void setUp() {
+        generated = new BookMapperImpl();
+        dozer = new DozerBookMapper(SpringConfiguration.getMapper());
+        book = new Book(UUID.randomUUID(), "Ethan Frome", Genre.DRAMA,
+                "Scribner's", 5, new Author("Edith", "Wharton"), "Frome");
+    }
+
+    @Test
+    public void testToBookFromRequest() {
+        BookRequest request = new BookRequest();
+        request.setTitle(book.getTitle());
+        request.setGenre(book.getGenre());
+        request.setPublisher(book.getPublisher());
+        request.setStar(book.getStar());
+        request.setAuthor(book.getAuthor());
+
+        Book mapped = generated.toBook(request);
+        assertEquals(dozer.toBook(request), mapped);
+        assertNull(mapped.getId());
+        assertEquals("Wharton", mapped.getAuthor().getLastName());
+        assertNotSame(request.getAuthor(), mapped.getAuthor());
+        assertNull(generated.toBook((BookRequest) null));
+    }
+
+    @Test
+    public void testToBookFromEntity() {
+        UUID id = UUID.randomUUID();
+        BookEntity entity = new BookEntity();
+        entity.setId(id);
+        entity.setBook(book);
+
+        Book mapped = generated.toBook(entity);
+        assertEquals(dozer.toBook(entity), mapped);
+        assertEquals(id, mapped.getId());
+        assertEquals(book.getTitle(), mapped.getTitle());
+        assertEquals(book.getMatch(), mapped.getMatch());
+    }
+
+    @Test
+    public void testToEntity() {
+        BookEntity entity = generated.toEntity(book);
+
+        assertEquals(book.getId(), entity.getId());
+        assertSame(book, entity.getBook());
+        assertFalse(entity.isDirty());
+        assertEquals(dozer.toEntity(book).getId(), entity.getId());
+    }
+
+    @Test
+    public void testToAudit() {
+        AuditBookEntity entity = new AuditBookEntity();
+        entity.setAudit(new AuditBook(AuditType.UPDATE, new Date(), "Neil",
+                book));
+
+        AuditBook mapped = generated.toAudit(entity);
+        assertEquals(dozer.toAudit(entity), mapped);
+        assertEquals(AuditType.UPDATE, mapped.getChange());
+        assertEquals("Neil", mapped.getMadeBy());
+        assertEquals(book, mapped.getState());
+    }
+}
@@ -0,0 +1,83 @@
+package com.basaki.example.postgres.jsonb.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@code HistogramUnitTests} unit test class for {@code Histogram}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class HistogramUnitTests {
+
+    @Test
+    public void testRecord() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(11, histogram.getCount());
+        assertEquals(55, histogram.getSum());
+        assertEquals(10, histogram.getMax());
+        assertEquals(5, histogram.getMean());
+        // values below 16 have exact buckets
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(0, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testPercentileAccuracy() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertWithin(50_000_000, histogram.getValueAtPercentile(50));
+        assertWithin(99_000_000, histogram.getValueAtPercentile(99));
+        assertWithin(99_900_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = Histogram.indexOf(value);
+            long upper = Histogram.upperBoundOf(index);
+            assertTrue(value <= upper);
+            assertTrue(index == 0 || Histogram.upperBoundOf(index - 1) < value);
+            assertTrue(upper >= previous);
+            previous = upper;
+        }
+        long last = (1L << 41) - 1;
+        assertEquals(last, Histogram.upperBoundOf(Histogram.indexOf(last)));
+    }
+
+    @Test
+    public void testEmptyAndReset() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMean());
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " not within 1/16 of " + expected,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
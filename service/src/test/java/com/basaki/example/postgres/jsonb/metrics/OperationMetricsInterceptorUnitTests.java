@@ -0,0 +1,68 @@
+package com.basaki.example.postgres.jsonb.metrics;
+
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@code OperationMetricsInterceptorUnitTests} unit test class for
+ * {@code OperationMetricsInterceptor}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class OperationMetricsInterceptorUnitTests {
+
+    private static final String PREFIX = "test.interceptor.";
+
+    @Test
+    public void testInvoke() {
+        Operations operations = proxy();
+        assertEquals("a", operations.find("a"));
+        assertEquals("a", operations.find("a", 1));
+        try {
+            operations.fail();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // overloads share the metrics of their name
+        assertEquals(2, Metrics.timer(PREFIX + "find.time").getCount());
+        assertEquals(0, Metrics.counter(PREFIX + "find.errors").get());
+        assertEquals(1, Metrics.timer(PREFIX + "fail.time").getCount());
+        assertEquals(1, Metrics.counter(PREFIX + "fail.errors").get());
+        assertEquals(0, Metrics.timer(PREFIX + "hidden.time").getCount());
+    }
+
+    private static Operations proxy() {
+        ProxyFactory factory = new ProxyFactory(new Operations());
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(
+                new OperationMetricsInterceptor(PREFIX, Operations.class));
+
+        return (Operations) factory.getProxy();
+    }
+
+    public static class Operations {
+
+        public String find(String name) {
+            return hidden(name);
+        }
+
+        public String find(String name, int count) {
+            return name;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        String hidden(String name) {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.data.repository.AuditBookRepository;
+import com.basaki.example.postgres.jsonb.metrics.Metrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@code AuditMaintenanceServiceUnitTests} unit test class for {@code
+ * AuditMaintenanceService} and {@code AuditMaintenanceHealthIndicator}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class AuditMaintenanceServiceUnitTests {
+
+    private AuditBookRepository repo;
+
+    private AuditMaintenanceService service;
+
+    private AuditMaintenanceHealthIndicator indicator;
+
+    @Before
+    public void setUp() {
+        repo = mock(AuditBookRepository.class);
+        service = new AuditMaintenanceService(repo,
+                mock(AuditArchiveService.class));
+        service.setUnit("month");
+        service.setPremake(3);
+        service.setRetention("");
+        indicator = new AuditMaintenanceHealthIndicator(service);
+    }
+
+    @Test
+    public void testHealthy() {
+        when(repo.createPartitions("month", 3)).thenReturn(1);
+        when(repo.countDefaultPartitionRecords()).thenReturn(0);
+        service.maintain();
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    public void testFailureReported() {
+        long failures = Metrics.counter(
+                "audit.maintenance.partitions.failures").get();
+        when(repo.createPartitions("month", 3)).thenThrow(
+                new DataAccessResourceFailureException("connection refused"));
+        service.maintain();
+
+        Health health = indicator.health();
+        assertEquals(AuditMaintenanceHealthIndicator.DEGRADED,
+                health.getStatus());
+        assertTrue(((String) health.getDetails().get(
+                AuditMaintenanceService.PARTITIONS)).contains(
+                "connection refused"));
+        assertEquals(failures + 1, Metrics.counter(
+                "audit.maintenance.partitions.failures").get());
+
+        // a later success clears the failure
+        doReturn(0).when(repo).createPartitions("month", 3);
+        when(repo.countDefaultPartitionRecords()).thenReturn(0);
+        service.maintain();
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    public void testRecordsLeftInDefaultPartition() {
+        when(repo.createPartitions("month", 3)).thenReturn(0);
+        when(repo.countDefaultPartitionRecords()).thenReturn(5);
+        service.maintain();
+
+        Health health = indicator.health();
+        assertEquals(AuditMaintenanceHealthIndicator.DEGRADED,
+                health.getStatus());
+        assertEquals(5, health.getDetails().get("defaultPartitionRecords"));
+    }
+}
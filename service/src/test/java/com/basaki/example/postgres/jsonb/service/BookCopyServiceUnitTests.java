@@ -0,0 +1,223 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.config.CopyConfiguration;
+import com.basaki.example.postgres.jsonb.error.ServiceUnavailableException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@code BookCopyServiceUnitTests} unit test class for {@code
+ * BookCopyService}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class BookCopyServiceUnitTests {
+
+    @Test
+    public void testSplitRangeSingle() {
+        assertArrayEquals(new String[]{null, null},
+                BookCopyService.splitRange(1));
+    }
+
+    @Test
+    public void testSplitRange() {
+        String[] bounds = BookCopyService.splitRange(4);
+        assertEquals(5, bounds.length);
+        assertNull(bounds[0]);
+        assertEquals("40000000-0000-0000-0000-000000000000", bounds[1]);
+        assertEquals("80000000-0000-0000-0000-000000000000", bounds[2]);
+        assertEquals("c0000000-0000-0000-0000-000000000000", bounds[3]);
+        assertNull(bounds[4]);
+    }
+
+    @Test
+    public void testSplitRangeIsOrdered() {
+        String[] bounds = BookCopyService.splitRange(7);
+        for (int i = 2; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i - 1].compareTo(bounds[i]) < 0);
+        }
+    }
+
+    @Test
+    public void testConnectionsOf() {
+        assertEquals(1, BookCopyService.connectionsOf(1));
+        assertEquals(3, BookCopyService.connectionsOf(2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParallelismAboveConnectionBudget() {
+        CopyConfiguration configuration = new CopyConfiguration();
+        configuration.setMaxActive(3);
+        configuration.setMaxParallelism(2);
+        configuration.exportExecutor();
+    }
+
+    @Test
+    public void testExportWaitsForConnectionBudget() throws Exception {
+        CountDownLatch borrowed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).then(invocation -> {
+            borrowed.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            throw new SQLException("closed");
+        });
+
+        // a budget of a single connection
+        BookCopyService service = new BookCopyService(dataSource, null,
+                mock(ExecutorService.class), 2);
+        service.setMaxParallelism(1);
+        service.setMaxWait(0);
+
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = client.submit(() ->
+                    service.exportAll(1, new ByteArrayOutputStream()));
+            assertTrue(borrowed.await(10, TimeUnit.SECONDS));
+
+            try {
+                service.exportAll(1, new ByteArrayOutputStream());
+                fail("ServiceUnavailableException expected");
+            } catch (ServiceUnavailableException e) {
+                // expected
+            }
+
+            release.countDown();
+            try {
+                first.get(10, TimeUnit.SECONDS);
+                fail("SQLException expected");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+            }
+
+            // the connection is returned to the budget after a failure
+            doReturn(mock(Connection.class)).when(dataSource).getConnection();
+            try {
+                service.exportAll(1, new ByteArrayOutputStream());
+            } catch (NullPointerException e) {
+                // the mocked connection has no copy API
+            }
+        } finally {
+            client.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedExportWaitsForRunningWorkers() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Connection coordinator = coordinator();
+        Connection workerConnection = mock(Connection.class);
+        AtomicInteger calls = new AtomicInteger();
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).then(invocation -> {
+            switch (calls.incrementAndGet()) {
+                case 1:
+                    return coordinator;
+                case 2:
+                    // fails while the other worker is running
+                    assertTrue(running.await(10, TimeUnit.SECONDS));
+                    throw new SQLException("down");
+                default:
+                    // like a socket read, ignores the interrupt of the abort
+                    running.countDown();
+                    awaitUninterruptibly(release);
+                    return workerConnection;
+            }
+        });
+
+        CopyConfiguration configuration = new CopyConfiguration();
+        configuration.setMaxActive(4);
+        configuration.setMaxParallelism(2);
+        ExecutorService executor = configuration.exportExecutor();
+        BookCopyService service = new BookCopyService(dataSource, null,
+                executor, 4);
+        service.setMaxParallelism(2);
+        service.setMaxWait(0);
+
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> export = client.submit(() ->
+                    service.exportAll(2, new ByteArrayOutputStream()));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            // the export doesn't return while a worker may still write
+            Thread.sleep(200);
+            assertFalse(export.isDone());
+
+            release.countDown();
+            try {
+                export.get(10, TimeUnit.SECONDS);
+                fail("SQLException expected");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+            }
+            // the aborted worker stopped before copying
+            verify(workerConnection).close();
+            verify(workerConnection, never()).setAutoCommit(false);
+
+            // all connections are returned to the budget
+            calls.set(0);
+            doReturn(coordinator).when(dataSource).getConnection();
+            try {
+                service.exportAll(2, new ByteArrayOutputStream());
+            } catch (NullPointerException | IOException e) {
+                // the mocked connection has no copy API
+            }
+        } finally {
+            client.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (latch.getCount() > 0 && System.nanoTime() < deadline) {
+            try {
+                latch.await(10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // ignored
+            }
+        }
+    }
+
+    private static Connection coordinator() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString(1)).thenReturn("00000003-1");
+        Statement st = mock(Statement.class);
+        when(st.executeQuery(anyString())).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(st);
+
+        return connection;
+    }
+}
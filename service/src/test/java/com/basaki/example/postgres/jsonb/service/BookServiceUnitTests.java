@@ -0,0 +1,347 @@
+package com.basaki.example.postgres.jsonb.service;
+
+import com.basaki.example.postgres.jsonb.archive.AuditArchive;
+import com.basaki.example.postgres.jsonb.archive.AuditRecord;
+import com.basaki.example.postgres.jsonb.cache.LocalCache;
+import com.basaki.example.postgres.jsonb.data.entity.BookEntity;
+import com.basaki.example.postgres.jsonb.data.repository.AuditBookRepository;
+import com.basaki.example.postgres.jsonb.data.repository.BookRepository;
+import com.basaki.example.postgres.jsonb.error.DataNotFoundException;
+import com.basaki.example.postgres.jsonb.error.PreconditionFailedException;
+import com.basaki.example.postgres.jsonb.mapper.BookMapperImpl;
+import com.basaki.example.postgres.jsonb.model.AuditBook;
+import com.basaki.example.postgres.jsonb.model.AuditType;
+import com.basaki.example.postgres.jsonb.model.Author;
+import com.basaki.example.postgres.jsonb.model.BatchStatus;
+import com.basaki.example.postgres.jsonb.model.Book;
+import com.basaki.example.postgres.jsonb.model.BookBatchResult;
+import com.basaki.example.postgres.jsonb.model.BookRequest;
+import com.basaki.example.postgres.jsonb.model.Genre;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.Query;
+import org.hibernate.SQLQuery;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@code BookServiceUnitTests} unit test class for {@code BookService}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/17/26
+ */
+public class BookServiceUnitTests {
+
+    private static final UUID ID =
+            UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static final String USER = "Indra";
+
+    private EntityManager em;
+
+    private BookRepository repo;
+
+    private AuditArchive archive;
+
+    private LocalCache<UUID, Book> cache;
+
+    private PlatformTransactionManager transactionManager;
+
+    private BookService service;
+
+    @Before
+    public void setUp() {
+        repo = mock(BookRepository.class);
+        em = mock(EntityManager.class);
+        when(repo.getEntityManager()).thenReturn(em);
+        AuditBookRepository auditRepo = mock(AuditBookRepository.class);
+        when(auditRepo.getEntityManager()).thenReturn(em);
+        archive = mock(AuditArchive.class);
+
+        @SuppressWarnings("unchecked")
+        LocalCache<UUID, Book> localCache = mock(LocalCache.class);
+        cache = localCache;
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new BookService(repo, auditRepo, archive,
+                new BookMapperImpl(), new ObjectMapper(), cache,
+                transactionManager);
+    }
+
+    @Test
+    public void testReadMissLoadedFromPrimary() {
+        BookEntity entity = new BookEntity();
+        entity.setId(ID);
+        entity.setBook(book());
+        when(cache.stamp()).thenReturn(7L);
+        when(repo.findOne(ID)).thenAnswer(invocation -> {
+            // the cache is filled from a read-write transaction, which the
+            // routing data source sends to the primary
+            ArgumentCaptor<TransactionDefinition> definition =
+                    ArgumentCaptor.forClass(TransactionDefinition.class);
+            verify(transactionManager).getTransaction(definition.capture());
+            assertFalse(definition.getValue().isReadOnly());
+
+            return entity;
+        });
+
+        Book book = service.read(ID);
+        assertEquals("Indra's Chronicle", book.getTitle());
+        verify(cache).put(eq(ID), any(Book.class), eq(7L));
+    }
+
+    @Test
+    public void testUpdateQueriesSkipUnchangedDocument() {
+        for (NamedNativeQuery query : BookEntity.class.getAnnotation(
+                NamedNativeQueries.class).value()) {
+            if (query.name().startsWith("book.update")) {
+                assertTrue(query.name(), query.query().contains(
+                        "book IS DISTINCT FROM CAST(?2 AS JSONB)"));
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateChanged() {
+        Book updated = book();
+        Query update = query("book.update", row(updated, "v2"));
+        Query current = query("book.readVersioned", row(book(), "v1"));
+
+        VersionedBook result = service.update(ID, request(), USER, null);
+        assertSame(updated, result.getBook());
+        assertEquals("v2", result.getVersion());
+        verify(update).getResultList();
+        verify(current, never()).getResultList();
+    }
+
+    @Test
+    public void testUpdateUnchanged() {
+        Book stored = book();
+        query("book.update");
+        query("book.readVersioned", row(stored, "v1"));
+
+        // the stored book and its version are returned
+        VersionedBook result = service.update(ID, request(), USER, null);
+        assertSame(stored, result.getBook());
+        assertEquals("v1", result.getVersion());
+    }
+
+    @Test
+    public void testUpdateIfMatchUnchanged() {
+        Book stored = book();
+        query("book.updateIfMatch");
+        query("book.readVersioned", row(stored, "v1"));
+
+        VersionedBook result = service.update(ID, request(), USER, "v1");
+        assertSame(stored, result.getBook());
+        assertEquals("v1", result.getVersion());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void testUpdateIfMatchModified() {
+        query("book.updateIfMatch");
+        query("book.readVersioned", row(book(), "v2"));
+
+        service.update(ID, request(), USER, "v1");
+    }
+
+    @Test(expected = DataNotFoundException.class)
+    public void testUpdateNotFound() {
+        query("book.update");
+        query("book.readVersioned");
+
+        service.update(ID, request(), USER, null);
+    }
+
+    @Test
+    public void testCreateAllKeepsCache() {
+        service.setMaxBatchSize(10);
+        service.setBatchSize(2);
+
+        List<BookBatchResult> results = service.createAll(
+                Arrays.asList(request(), request(), request()), USER);
+        assertEquals(3, results.size());
+        assertEquals(BatchStatus.CREATED, results.get(2).getStatus());
+        verify(em, times(3)).persist(any(BookEntity.class));
+        verifyZeroInteractions(cache);
+    }
+
+    @Test
+    public void testReadAsOfFromArchive() throws JsonProcessingException {
+        Date asOf = new Date(1000L);
+        query("auditBook.asOf", new Object[]{null, false});
+        when(archive.find(ID, Long.MIN_VALUE, 1001L, 1)).thenReturn(
+                Collections.singletonList(archived(AuditType.UPDATE, 900L)));
+
+        Book book = service.readAsOf(ID, asOf);
+        assertEquals("Indra's Chronicle", book.getTitle());
+    }
+
+    @Test(expected = DataNotFoundException.class)
+    public void testReadAsOfDeletedInArchive() throws JsonProcessingException {
+        query("auditBook.asOf", new Object[]{null, false});
+        when(archive.find(ID, Long.MIN_VALUE, 1001L, 1)).thenReturn(
+                Collections.singletonList(archived(AuditType.DELETE, 900L)));
+
+        service.readAsOf(ID, new Date(1000L));
+    }
+
+    @Test
+    public void testReadAsOfDeletedLive() {
+        query("auditBook.asOf", new Object[]{null, true});
+
+        try {
+            service.readAsOf(ID, new Date(1000L));
+            fail("a deleted book should not be found");
+        } catch (DataNotFoundException e) {
+            // the live delete record hides the archived states
+            verify(archive, never()).find(any(UUID.class), anyLong(),
+                    anyLong(), anyInt());
+        }
+    }
+
+    @Test
+    public void testValidatePatch() {
+        Map<String, Object> author = new LinkedHashMap<>();
+        author.put("firstName", "Jane");
+        author.put("lastName", null);
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("id", ID.toString());
+        patch.put("match", "<b>Indra</b>");
+        patch.put("title", "Jane's Chronicle");
+        patch.put("publisher", "Ketu Press");
+        patch.put("genre", "romance");
+        patch.put("star", 4);
+        patch.put("author", author);
+
+        Map<String, Object> document = BookService.validatePatch(ID, patch);
+        assertEquals(Arrays.asList("title", "publisher", "genre", "star",
+                "author"), new ArrayList<>(document.keySet()));
+        assertEquals("ROMANCE", document.get("genre"));
+        assertSame(author, document.get("author"));
+    }
+
+    @Test
+    public void testValidatePatchRejectsInvalidValues() {
+        assertRejected("title", null);
+        assertRejected("title", Collections.singletonMap("a", 1));
+        assertRejected("publisher", 5);
+        assertRejected("star", 6);
+        assertRejected("star", "5");
+        assertRejected("genre", null);
+        assertRejected("author", "Indra Basak");
+        assertRejected("author", Collections.singletonMap("middleName", "K"));
+        assertRejected("author", Collections.singletonMap("firstName",
+                Collections.singletonList(1)));
+        assertRejected("id", UUID.randomUUID().toString());
+        assertRejected("isbn", "0-00-000000-0");
+    }
+
+    @Test
+    public void testIsFlat() {
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("title", "Jane's Chronicle");
+        patch.put("star", 4);
+        assertTrue(BookService.isFlat(patch));
+
+        patch.put("author", Collections.singletonMap("firstName", "Jane"));
+        assertFalse(BookService.isFlat(patch));
+
+        patch.remove("author");
+        patch.put("publisher", null);
+        assertFalse(BookService.isFlat(patch));
+    }
+
+    private static void assertRejected(String key, Object value) {
+        try {
+            BookService.validatePatch(ID, Collections.singletonMap(key, value));
+            fail(key + " " + value + " should be rejected");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private Query query(String name, Object[]... rows) {
+        Query query = mock(Query.class);
+        SQLQuery sqlQuery = mock(SQLQuery.class);
+        when(em.createNamedQuery(name)).thenReturn(query);
+        when(query.setParameter(anyInt(), any())).thenReturn(query);
+        when(query.unwrap(SQLQuery.class)).thenReturn(sqlQuery);
+        when(sqlQuery.addScalar(anyString(), any())).thenReturn(sqlQuery);
+
+        List<Object[]> result = new ArrayList<>();
+        Collections.addAll(result, rows);
+        when(query.getResultList()).thenReturn(result);
+
+        return query;
+    }
+
+    private static AuditRecord archived(AuditType change,
+            long madeAt) throws JsonProcessingException {
+        AuditBook audit = new AuditBook();
+        audit.setChange(change);
+        audit.setMadeAt(new Date(madeAt));
+        audit.setMadeBy(USER);
+        audit.setState(book());
+
+        return new AuditRecord(ID, madeAt,
+                new ObjectMapper().writeValueAsBytes(audit));
+    }
+
+    private static Object[] row(Book book, String version) {
+        return new Object[]{book, version};
+    }
+
+    private static BookRequest request() {
+        BookRequest request = new BookRequest();
+        request.setTitle("Indra's Chronicle");
+        request.setGenre(Genre.DRAMA);
+        request.setPublisher("Rahu Press");
+        request.setStar(5);
+        Author author = new Author();
+        author.setFirstName("Indra");
+        author.setLastName("Basak");
+        request.setAuthor(author);
+
+        return request;
+    }
+
+    private static Book book() {
+        Book book = new Book();
+        book.setId(ID);
+        book.setTitle("Indra's Chronicle");
+
+        return book;
+    }
+}
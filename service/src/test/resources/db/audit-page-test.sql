@@ -0,0 +1,57 @@
+-- Tests paging through the audit records of a book with the millisecond
+-- cursor read by the service. Run it with psql after create-db.sql, e.g.
+--   psql -v ON_ERROR_STOP=1 -f audit-page-test.sql postgres
+-- Everything is rolled back at the end.
+BEGIN;
+
+SELECT example_book_audit_schema.create_partition(
+    TIMESTAMP '2000-01-01', TIMESTAMP '2000-02-01');
+
+-- Three records within the same millisecond, between two others
+INSERT INTO example_book_audit_schema.books (id, audit, made_at)
+SELECT '00000000-0000-0000-0000-000000000001',
+    jsonb_build_object('change', 'UPDATE', 'madeBy', 'Indra',
+        'state', jsonb_build_object('title', t.title)), t.made_at
+FROM (VALUES
+    ('A', TIMESTAMPTZ '2000-01-10 00:00:00.000100+00'),
+    ('B', TIMESTAMPTZ '2000-01-10 00:00:00.001100+00'),
+    ('C', TIMESTAMPTZ '2000-01-10 00:00:00.001500+00'),
+    ('D', TIMESTAMPTZ '2000-01-10 00:00:00.001900+00'),
+    ('E', TIMESTAMPTZ '2000-01-10 00:00:00.002100+00')) t (title, made_at);
+
+DO $$
+DECLARE
+    book_id  UUID := '00000000-0000-0000-0000-000000000001';
+    upper    TIMESTAMPTZ := 'infinity';
+    titles   TEXT[] := '{}';
+    page     TEXT[];
+    summary  TEXT[];
+BEGIN
+    ASSERT example_book_audit_schema.page_start(book_id, '-infinity', 'infinity', 2)
+        = '2000-01-10 00:00:00.001+00', 'the page starts with a whole millisecond';
+
+    -- the service passes the time of the last record, as rendered by
+    -- audit_view, as the exclusive upper bound of the next page
+    LOOP
+        SELECT array_agg(f.audit_record->'state'->>'title' ORDER BY f.audit_time DESC),
+            min(CAST(example_book_audit_schema.audit_view(f.audit_record,
+                f.audit_time)->>'madeAt' AS TIMESTAMPTZ))
+        INTO page, upper
+        FROM example_book_audit_schema.find_audits(book_id, '-infinity', upper, 2) f;
+
+        EXIT WHEN page IS NULL;
+        titles := titles || page;
+    END LOOP;
+
+    ASSERT titles = '{E,D,C,B,A}', 'every record is paged once: ' || titles::TEXT;
+
+    SELECT array_agg(a.audit->'state'->>'title' ORDER BY a.made_at DESC) INTO summary
+    FROM example_book_audit_schema.books a
+    WHERE a.id = book_id AND a.made_at < 'infinity'
+    AND a.made_at >= example_book_audit_schema.page_start(book_id, '-infinity', 'infinity', 2);
+
+    ASSERT summary = '{E,D,C,B}', 'the summary page ends with a whole millisecond';
+END;
+$$;
+
+ROLLBACK;
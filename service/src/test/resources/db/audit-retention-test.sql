@@ -0,0 +1,91 @@
+-- Tests the replay of audit records after partitions are dropped. Run it with
+-- psql after create-db.sql, e.g.
+--   psql -v ON_ERROR_STOP=1 -f audit-retention-test.sql postgres
+-- Everything is rolled back at the end.
+BEGIN;
+
+SELECT example_book_audit_schema.create_partition(
+    TIMESTAMP '2000-01-01', TIMESTAMP '2000-02-01');
+SELECT example_book_audit_schema.create_partition(
+    TIMESTAMP '2000-02-01', TIMESTAMP '2000-03-01');
+
+-- The only snapshot of the book is in the January partition
+INSERT INTO example_book_audit_schema.books (id, audit, made_at) VALUES
+    ('00000000-0000-0000-0000-000000000001', '{"change": "CREATE", "madeBy": "Indra",
+        "state": {"id": "00000000-0000-0000-0000-000000000001", "title": "A",
+        "genre": "DRAMA", "publisher": "Rahu Press", "star": 1,
+        "author": {"firstName": "Indra", "lastName": "Basak"}}}',
+        '2000-01-10 00:00:00+00'),
+    ('00000000-0000-0000-0000-000000000001', '{"change": "UPDATE", "madeBy": "Indra",
+        "delta": {"title": "B"}}', '2000-01-20 00:00:00+00'),
+    ('00000000-0000-0000-0000-000000000001', '{"change": "UPDATE", "madeBy": "Indra",
+        "delta": {"star": 2}}', '2000-02-10 00:00:00+00'),
+    ('00000000-0000-0000-0000-000000000001', '{"change": "UPDATE", "madeBy": "Indra",
+        "delta": {"title": "C"}}', '2000-02-20 00:00:00+00');
+
+-- Dropping the partition holding the snapshot keeps the history readable
+DO $$
+DECLARE
+    book_id  UUID := '00000000-0000-0000-0000-000000000001';
+    before   JSONB[];
+    after    JSONB[];
+BEGIN
+    SELECT array_agg(f.audit_record->'state' ORDER BY f.audit_time) INTO before
+    FROM example_book_audit_schema.find_audits(book_id, '-infinity', 'infinity', 10) f
+    WHERE f.audit_time >= '2000-02-01 00:00:00+00';
+
+    ASSERT example_book_audit_schema.drop_partitions(
+        now() - TIMESTAMPTZ '2000-02-15 00:00:00+00') = 1,
+        'the January partition is dropped';
+    ASSERT to_regclass('example_book_audit_schema.books_p20000101') IS NULL,
+        'the January partition is removed';
+
+    SELECT array_agg(f.audit_record->'state' ORDER BY f.audit_time) INTO after
+    FROM example_book_audit_schema.find_audits(book_id, '-infinity', 'infinity', 10) f;
+
+    ASSERT array_length(after, 1) = 2, 'the February records are left';
+    ASSERT after = before, 'the February states are unchanged';
+    ASSERT after[1]->>'title' = 'B' AND after[1]->>'star' = '2'
+        AND after[1]->'author'->>'lastName' = 'Basak',
+        'the first state is complete';
+    ASSERT after[2]->>'title' = 'C', 'the second state is complete';
+
+    ASSERT (SELECT a.audit->'state' IS NOT NULL AND a.audit->'delta' IS NULL
+        FROM example_book_audit_schema.books a
+        WHERE a.id = book_id AND a.made_at = '2000-02-10 00:00:00+00'),
+        'the first February record is a snapshot';
+    ASSERT example_book_audit_schema.book_as_of(book_id, '2000-02-25 00:00:00+00')
+        = after[2], 'the state as of a time is complete';
+END;
+$$;
+
+-- A history starting with a delta fails instead of returning partial states
+INSERT INTO example_book_audit_schema.books (id, audit, made_at) VALUES
+    ('00000000-0000-0000-0000-000000000002', '{"change": "UPDATE", "madeBy": "Indra",
+        "delta": {"title": "D"}}', '2000-02-12 00:00:00+00');
+
+DO $$
+DECLARE
+    book_id  UUID := '00000000-0000-0000-0000-000000000002';
+BEGIN
+    BEGIN
+        PERFORM example_book_audit_schema.find_audits(book_id, '-infinity', 'infinity', 10);
+        RAISE EXCEPTION 'find_audits returned a partial state';
+    EXCEPTION WHEN data_corrupted THEN
+        NULL;
+    END;
+
+    BEGIN
+        PERFORM example_book_audit_schema.book_as_of(book_id, 'infinity');
+        RAISE EXCEPTION 'book_as_of returned a partial state';
+    EXCEPTION WHEN data_corrupted THEN
+        NULL;
+    END;
+
+    ASSERT NOT EXISTS (SELECT 1 FROM example_book_audit_schema.find_audits(
+        '00000000-0000-0000-0000-000000000003', '-infinity', 'infinity', 10)),
+        'a book without records has no history';
+END;
+$$;
+
+ROLLBACK;
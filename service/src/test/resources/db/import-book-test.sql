@@ -0,0 +1,58 @@
+-- Tests the validation of imported books. Run it with psql after
+-- create-db.sql, e.g.
+--   psql -v ON_ERROR_STOP=1 -f import-book-test.sql postgres
+DO $$
+DECLARE
+    valid  TEXT := '{"id": "0A0B0C0D-0000-0000-0000-000000000001", '
+        '"title": "Indra''s Chronicle", "genre": "drama", "publisher": "Rahu Press", '
+        '"star": 5, "author": {"firstName": "Indra", "lastName": "Basak"}}';
+    result RECORD;
+BEGIN
+    SELECT * INTO result FROM example_book_schema.import_book(valid);
+    ASSERT result.error IS NULL, result.error;
+    ASSERT result.book->>'id' = '0a0b0c0d-0000-0000-0000-000000000001',
+        'the id is canonical';
+    ASSERT result.book->>'genre' = 'DRAMA', 'the genre is upper case';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) - 'id' AS TEXT));
+    ASSERT result.error IS NULL AND result.book->>'id' IS NOT NULL,
+        'a missing id is generated';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"star": 99}' AS TEXT));
+    ASSERT result.book IS NULL AND result.error LIKE '%“star”%',
+        'a star out of range is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"star": 2.5}' AS TEXT));
+    ASSERT result.book IS NULL, 'a fractional star is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"title": {"a": 1}}' AS TEXT));
+    ASSERT result.book IS NULL AND result.error LIKE '%“title” must be a string%',
+        'an object title is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"publisher": 5}' AS TEXT));
+    ASSERT result.book IS NULL, 'a number publisher is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"author": {"firstName": [1]}}' AS TEXT));
+    ASSERT result.book IS NULL AND result.error LIKE '%“firstName” must be a string%',
+        'an array author name is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"author": {"middleName": "K"}}' AS TEXT));
+    ASSERT result.book IS NULL, 'an unknown author attribute is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"isbn": "0-00-000000-0"}' AS TEXT));
+    ASSERT result.book IS NULL, 'an unknown attribute is rejected';
+
+    SELECT * INTO result FROM example_book_schema.import_book(
+        CAST(CAST(valid AS JSONB) || '{"id": "not-a-uuid"}' AS TEXT));
+    ASSERT result.book IS NULL AND result.error IS NOT NULL,
+        'an invalid id is rejected';
+END;
+$$;